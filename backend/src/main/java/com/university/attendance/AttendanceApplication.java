@@ -2,11 +2,13 @@ package com.university.attendance;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principale de l'application de gestion des absences universitaires
  */
 @SpringBootApplication
+@EnableScheduling
 public class AttendanceApplication {
 
     public static void main(String[] args) {
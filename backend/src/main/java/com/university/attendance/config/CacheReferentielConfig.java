@@ -0,0 +1,84 @@
+package com.university.attendance.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de second niveau Hibernate pour les données de référence
+ * (départements, formations, matières, groupes), stocké en mémoire par Caffeine via JCache.
+ * Ces entités ne changent que quelques fois par semestre mais sont relues à presque chaque requête
+ * (associations des séances, findById à la création d'une séance, listes des tableaux de bord).
+ *
+ * Les entités sont en READ_WRITE : les mises à jour, désactivations et suppressions des services
+ * passent par l'EntityManager, l'entrée est verrouillée pendant la transaction puis remplacée au commit.
+ * Les résultats de requêtes mis en cache sont invalidés dès qu'une des tables interrogées est modifiée.
+ */
+@Configuration
+public class CacheReferentielConfig {
+
+    // Régions déclarées par @Cache sur les entités
+    static final List<String> REGIONS_ENTITES = List.of(
+            "referentiel.departements",
+            "referentiel.formations",
+            "referentiel.matieres",
+            "referentiel.groupes");
+
+    // Régions du cache de requêtes (noms par défaut d'Hibernate)
+    static final String REGION_REQUETES = "default-query-results-region";
+    static final String REGION_HORODATAGES = "default-update-timestamps-region";
+
+    @Value("${cache.referentiel.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${cache.referentiel.max-size:5000}")
+    private long maxSize;
+
+    @Value("${cache.referentiel.requetes.max-size:500}")
+    private long maxSizeRequetes;
+
+    /**
+     * Gestionnaire JCache portant toutes les régions utilisées par Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheReferentielManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        for (String region : REGIONS_ENTITES) {
+            cacheManager.createCache(region, configuration(maxSize, ttlMinutes));
+        }
+        cacheManager.createCache(REGION_REQUETES, configuration(maxSizeRequetes, ttlMinutes));
+
+        // Horodatages des dernières modifications par table : ni borné ni expiré,
+        // sinon un résultat de requête périmé pourrait être considéré comme valide
+        cacheManager.createCache(REGION_HORODATAGES, new CaffeineConfiguration<>());
+
+        return cacheManager;
+    }
+
+    /**
+     * Transmet le gestionnaire à Hibernate (les régions absentes font échouer le démarrage)
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheReferentielHibernate(CacheManager cacheReferentielManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheReferentielManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> configuration(long taille, long ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(taille));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttl)));
+        return configuration;
+    }
+}
@@ -0,0 +1,66 @@
+package com.university.attendance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Jetons de flux Server-Sent Events.
+ * EventSource ne permet pas d'envoyer d'en-tête Authorization : plutôt que le token de connexion
+ * (longue durée, qui finirait dans les journaux d'accès, les proxys et l'historique du navigateur),
+ * l'URL du flux porte un jeton aléatoire de courte durée (seance.flux.jeton-validite-ms),
+ * valable pour une seule séance. Le jeton reste utilisable pendant sa validité pour les
+ * reconnexions automatiques du navigateur ; au-delà, le client en demande un nouveau.
+ */
+@Component
+public class JetonsFlux {
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${seance.flux.jeton-validite-ms:60000}")
+    private long validite;
+
+    private Cache<String, JetonFlux> jetons;
+
+    @PostConstruct
+    void init() {
+        jetons = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(validite))
+                .build();
+    }
+
+    /**
+     * Émet un jeton de flux pour la séance au nom de l'utilisateur authentifié
+     */
+    public String emettre(Long seanceId, String email, Long userId, String role) {
+        byte[] octets = new byte[32];
+        random.nextBytes(octets);
+        String jeton = Base64.getUrlEncoder().withoutPadding().encodeToString(octets);
+        jetons.put(jeton, new JetonFlux(seanceId, email, userId, role));
+        return jeton;
+    }
+
+    /**
+     * Retourne le jeton s'il est encore valide et émis pour cette séance, sinon null
+     */
+    public JetonFlux verifier(String jeton, Long seanceId) {
+        JetonFlux jetonFlux = jetons.getIfPresent(jeton);
+        return jetonFlux != null && jetonFlux.seanceId().equals(seanceId) ? jetonFlux : null;
+    }
+
+    public long getValidite() {
+        return validite;
+    }
+
+    /**
+     * Utilisateur et séance d'un jeton de flux
+     */
+    public record JetonFlux(Long seanceId, String email, Long userId, String role) {
+    }
+}
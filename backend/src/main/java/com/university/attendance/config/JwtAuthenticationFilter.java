@@ -14,6 +14,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Filtre pour valider le token JWT sur chaque requête
@@ -21,8 +23,15 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Flux SSE d'une séance : codes dynamiques ou pointages en direct
+    private static final Pattern FLUX_SEANCE =
+            Pattern.compile("^/api/(?:seances/(\\d+)/code|presences/seance/(\\d+))/stream$");
+
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private JetonsFlux jetonsFlux;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,14 +41,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Récupère le header Authorization
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
+        JwtTokenCache.TokenVerifie token = null;
 
-        // Extrait le token du header
+        // Extrait le token du header ; un flux SSE (EventSource ne permet pas d'envoyer
+        // d'en-tête Authorization) est authentifié par un jeton de flux limité à sa séance
+        String jwt = null;
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if (isFluxSse(request)) {
+            token = verifierJetonFlux(request);
+        }
+
+        // Vérifie la signature du token (ou le lit dans le cache)
+        if (jwt != null) {
             try {
-                email = jwtUtil.extractEmail(jwt);
+                token = jwtTokenCache.verifier(jwt);
             } catch (Exception e) {
                 // Token invalide ou expiré
                 logger.error("Erreur lors de l'extraction du token JWT", e);
@@ -47,12 +63,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         // Valide le token et configure le contexte de sécurité
+        String email = token != null ? token.email() : null;
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                if (jwtUtil.validateToken(jwt, email)) {
-                    // Extrait le rôle du token
-                    String role = jwtUtil.extractRole(jwt);
-                    Long userId = jwtUtil.extractUserId(jwt);
+                if (token.expiration() > System.currentTimeMillis()) {
+                    // Rôle et userId issus des claims déjà vérifiés
+                    String role = token.role();
+                    Long userId = token.userId();
 
                     // Crée l'authentification avec le rôle
                     SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
@@ -80,4 +97,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continue la chaîne de filtres
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Jeton de flux (paramètre "jeton") valable pour la séance de l'URL, sinon null
+     */
+    private JwtTokenCache.TokenVerifie verifierJetonFlux(HttpServletRequest request) {
+        String jeton = request.getParameter("jeton");
+        Matcher flux = FLUX_SEANCE.matcher(request.getRequestURI());
+        if (jeton == null || !flux.matches()) {
+            return null;
+        }
+
+        Long seanceId = Long.valueOf(flux.group(1) != null ? flux.group(1) : flux.group(2));
+        JetonsFlux.JetonFlux jetonFlux = jetonsFlux.verifier(jeton, seanceId);
+        if (jetonFlux == null) {
+            return null;
+        }
+        // Le jeton n'est accepté qu'à l'ouverture du flux : l'expiration n'est vérifiée qu'ici
+        return new JwtTokenCache.TokenVerifie(jetonFlux.email(), jetonFlux.userId(), jetonFlux.role(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Requête d'abonnement à un flux Server-Sent Events
+     */
+    private boolean isFluxSse(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return "GET".equals(request.getMethod())
+                && accept != null && accept.contains("text/event-stream");
+    }
 }
@@ -0,0 +1,125 @@
+package com.university.attendance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache borné et optionnel (jwt.cache.enabled, désactivé par défaut) des tokens JWT déjà vérifiés.
+ * Les tableaux de bord envoient de nombreuses requêtes en parallèle avec le même token :
+ * seule la première vérifie la signature HMAC, les suivantes lisent les claims en cache.
+ * La clé est l'empreinte SHA-256 du token (le token lui-même n'est pas conservé).
+ * Cache Caffeine concurrent : une entrée expire avec son token, ou est évincée
+ * lorsque la taille maximale est atteinte. Les compteurs sont exposés par getStatistiques().
+ */
+@Component
+public class JwtTokenCache {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private Cache<String, TokenVerifie> tokens;
+
+    @PostConstruct
+    void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpirationToken())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retourne les informations d'un token valide.
+     * Lève une exception si la signature est invalide ou si le token est expiré.
+     */
+    public TokenVerifie verifier(String token) {
+        if (!enabled) {
+            return toTokenVerifie(jwtUtil.extractAllClaims(token));
+        }
+
+        // Un token absent est vérifié une seule fois, même reçu par plusieurs requêtes simultanées ;
+        // un token invalide lève l'exception et n'est pas mis en cache
+        return tokens.get(empreinte(token), cle -> toTokenVerifie(jwtUtil.extractAllClaims(token)));
+    }
+
+    /**
+     * Statistiques du cache (succès, échecs, évictions, taille)
+     */
+    public Map<String, Object> getStatistiques() {
+        CacheStats stats = tokens.stats();
+
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("enabled", enabled);
+        statistiques.put("hits", stats.hitCount());
+        statistiques.put("misses", stats.missCount());
+        statistiques.put("evictions", stats.evictionCount());
+        statistiques.put("size", tokens.estimatedSize());
+        statistiques.put("hitRate", Math.round(stats.hitRate() * 1000) / 10.0);
+        return statistiques;
+    }
+
+    private TokenVerifie toTokenVerifie(Claims claims) {
+        return new TokenVerifie(
+                claims.getSubject(),
+                jwtUtil.extractUserId(claims),
+                jwtUtil.extractRole(claims),
+                claims.getExpiration().getTime());
+    }
+
+    private static String empreinte(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Claims d'un token dont la signature a déjà été vérifiée
+     */
+    public record TokenVerifie(String email, Long userId, String role, long expiration) {
+    }
+
+    /**
+     * Une entrée vit jusqu'à l'expiration de son token
+     */
+    private static class ExpirationToken implements Expiry<String, TokenVerifie> {
+
+        @Override
+        public long expireAfterCreate(String cle, TokenVerifie token, long maintenant) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(token.expiration() - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String cle, TokenVerifie token, long maintenant, long dureeRestante) {
+            return expireAfterCreate(cle, token, maintenant);
+        }
+
+        @Override
+        public long expireAfterRead(String cle, TokenVerifie token, long maintenant, long dureeRestante) {
+            return dureeRestante;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.university.attendance.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -23,11 +25,19 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Clé et parser construits une seule fois au démarrage (thread-safe)
+    private SecretKey signingKey;
+    private JwtParser parser;
+
     /**
-     * Génère la clé secrète
+     * Génère la clé secrète et le parser
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     /**
@@ -53,7 +63,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -68,39 +78,57 @@ public class JwtUtil {
      * Extrait l'ID utilisateur du token
      */
     public Long extractUserId(String token) {
-        return extractAllClaims(token).get("userId", Long.class);
+        return extractUserId(extractAllClaims(token));
     }
 
     /**
      * Extrait le rôle du token
      */
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return extractRole(extractAllClaims(token));
     }
 
     /**
-     * Extrait tous les claims du token
+     * Extrait tous les claims du token (vérifie la signature et l'expiration)
+     * À appeler une seule fois par requête, puis lire les claims sur le résultat
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Extrait l'ID utilisateur des claims
+     */
+    public Long extractUserId(Claims claims) {
+        return claims.get("userId", Long.class);
+    }
+
+    /**
+     * Extrait le rôle des claims
+     */
+    public String extractRole(Claims claims) {
+        return claims.get("role", String.class);
     }
 
     /**
      * Vérifie si le token est expiré
      */
     public Boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+        return isTokenExpired(extractAllClaims(token));
+    }
+
+    /**
+     * Vérifie si les claims sont expirés
+     */
+    public Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
      * Valide le token
      */
     public Boolean validateToken(String token, String email) {
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(email) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(email) && !isTokenExpired(claims));
     }
 }
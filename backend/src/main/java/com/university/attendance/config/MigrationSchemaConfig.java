@@ -0,0 +1,33 @@
+package com.university.attendance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Vérification des migrations Flyway au démarrage, avant celle du schéma par Hibernate
+ * (ddl-auto=validate).
+ *
+ * Par défaut (schema.migrer-au-demarrage=false), les migrations sont appliquées hors de l'application
+ * (CLI Flyway, pipeline de déploiement) : le démarrage se limite à comparer l'historique
+ * de la base aux scripts embarqués et échoue si une migration manque ou a été modifiée.
+ * Le profil dev (base H2 en mémoire) les applique au démarrage.
+ */
+@Configuration
+public class MigrationSchemaConfig {
+
+    @Value("${schema.migrer-au-demarrage:false}")
+    private boolean migrerAuDemarrage;
+
+    @Bean
+    public FlywayMigrationStrategy strategieMigrationSchema() {
+        return flyway -> {
+            if (migrerAuDemarrage) {
+                flyway.migrate();
+            } else {
+                flyway.validate();
+            }
+        };
+    }
+}
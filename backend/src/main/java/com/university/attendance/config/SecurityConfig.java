@@ -1,5 +1,6 @@
 package com.university.attendance.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,6 +51,12 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
 
+                        // Fin d'un flux SSE : la requête initiale a déjà été authentifiée
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        // Supervision réservée aux administrateurs
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // Tous les autres endpoints nécessitent une authentification
                         .anyRequest().authenticated()
                 )
@@ -1,13 +1,19 @@
 package com.university.attendance.controller;
 
+import com.university.attendance.dto.RecalculAvertissementsDTO;
 import com.university.attendance.model.Avertissement;
+import com.university.attendance.service.AvertissementRecalculScheduler;
 import com.university.attendance.service.AvertissementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller pour gérer les avertissements académiques
@@ -17,9 +23,14 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AvertissementController {
 
+    private static final Set<String> TRIS_AVERTISSEMENTS = Set.of("dateAvertissement", "nombreAbsences", "id");
+
     @Autowired
     private AvertissementService avertissementService;
 
+    @Autowired
+    private AvertissementRecalculScheduler avertissementRecalculScheduler;
+
     /**
      * Crée un avertissement manuellement
      * POST /api/avertissements
@@ -34,7 +45,7 @@ public class AvertissementController {
         try {
             Avertissement avertissement = avertissementService.createAvertissement(
                     etudiantId, matiereId, nombreAbsences, motif, createurId);
-            return ResponseEntity.ok(avertissement);
+            return ResponseEntity.ok(avertissementService.getAvertissementById(avertissement.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -60,6 +71,32 @@ public class AvertissementController {
         return ResponseEntity.ok(avertissementService.getAllAvertissements());
     }
 
+    /**
+     * Obtient une page d'avertissements, filtrée et triée (sort : dateAvertissement, nombreAbsences, id)
+     * GET /api/avertissements?page=0&size=20&etudiantId=&matiereId=&formationId=&automatique=&debut=&fin=
+     * Sans le paramètre page, la liste complète est renvoyée
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<?> getAvertissementsPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long etudiantId,
+            @RequestParam(required = false) Long matiereId,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) Boolean automatique,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        try {
+            Pageable pageable = Pagination.of(page, size, sort, direction, "dateAvertissement", TRIS_AVERTISSEMENTS);
+            return ResponseEntity.ok(avertissementService.getAvertissementsPage(
+                    etudiantId, matiereId, formationId, automatique, debut, fin, pageable));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Obtient tous les avertissements d'un étudiant
      * GET /api/avertissements/etudiant/{etudiantId}
@@ -125,7 +162,21 @@ public class AvertissementController {
     public ResponseEntity<?> updateMotif(@PathVariable Long id, @RequestParam String motif) {
         try {
             Avertissement updated = avertissementService.updateMotif(id, motif);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(avertissementService.getAvertissementById(updated.getId()).orElseThrow());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcule tous les avertissements automatiques (après une modification de seuil)
+     * POST /api/avertissements/recalculer
+     */
+    @PostMapping("/recalculer")
+    public ResponseEntity<?> recalculerAvertissements() {
+        try {
+            RecalculAvertissementsDTO bilan = avertissementRecalculScheduler.recalculer();
+            return ResponseEntity.ok(bilan);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
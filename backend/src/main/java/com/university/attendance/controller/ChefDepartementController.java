@@ -1,5 +1,6 @@
 package com.university.attendance.controller;
 
+import com.university.attendance.dto.TableauDeBordDepartementDTO;
 import com.university.attendance.service.ChefDepartementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +34,20 @@ public class ChefDepartementController {
         }
     }
 
+    /**
+     * Récupère les statistiques d'assiduité du département, par formation et par matière
+     * GET /api/chef-departement/{chefId}/statistiques
+     */
+    @GetMapping("/{chefId}/statistiques")
+    public ResponseEntity<?> getStatistiques(@PathVariable Long chefId) {
+        try {
+            TableauDeBordDepartementDTO tableauDeBord = chefDepartementService.getTableauDeBord(chefId);
+            return ResponseEntity.ok(tableauDeBord);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Récupère les étudiants filtrés par formation
      * GET /api/chef-departement/{chefId}/etudiants/formation/{formationId}
@@ -29,7 +29,7 @@ public class FormationController {
     public ResponseEntity<?> createFormation(@RequestBody FormationDTO formationDTO) {
         try {
             Formation created = formationService.createFormation(formationDTO);
-            return ResponseEntity.ok(created);
+            return ResponseEntity.ok(formationService.getFormationById(created.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -43,7 +43,7 @@ public class FormationController {
     public ResponseEntity<?> updateFormation(@PathVariable Long id, @RequestBody FormationDTO formationDTO) {
         try {
             Formation updated = formationService.updateFormation(id, formationDTO);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(formationService.getFormationById(updated.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
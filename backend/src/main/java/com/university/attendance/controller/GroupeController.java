@@ -29,7 +29,7 @@ public class GroupeController {
     public ResponseEntity<?> createGroupe(@RequestBody GroupeDTO groupeDTO) {
         try {
             Groupe created = groupeService.createGroupe(groupeDTO);
-            return ResponseEntity.ok(created);
+            return ResponseEntity.ok(groupeService.getGroupeById(created.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -43,7 +43,7 @@ public class GroupeController {
     public ResponseEntity<?> updateGroupe(@PathVariable Long id, @RequestBody GroupeDTO groupeDTO) {
         try {
             Groupe updated = groupeService.updateGroupe(id, groupeDTO);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(groupeService.getGroupeById(updated.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -30,7 +30,7 @@ public class GroupeEtudiantController {
             @RequestParam Long groupeId) {
         try {
             GroupeEtudiant affectation = groupeEtudiantService.affecterEtudiantGroupe(etudiantId, groupeId);
-            return ResponseEntity.ok(affectation);
+            return ResponseEntity.ok(groupeEtudiantService.getGroupeEtudiantById(affectation.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
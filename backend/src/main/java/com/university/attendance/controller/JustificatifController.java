@@ -4,13 +4,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +30,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.university.attendance.model.Justificatif;
+import com.university.attendance.model.StatutJustificatif;
 import com.university.attendance.service.JustificatifService;
 
 /**
@@ -36,6 +41,8 @@ import com.university.attendance.service.JustificatifService;
 @CrossOrigin(origins = "*")
 public class JustificatifController {
 
+    private static final Set<String> TRIS_JUSTIFICATIFS = Set.of("createdAt", "dateValidation", "statut", "id");
+
     @Autowired
     private JustificatifService justificatifService;
 
@@ -55,7 +62,7 @@ public class JustificatifController {
         try {
             Justificatif justificatif = justificatifService.deposerJustificatif(
                     etudiantId, absenceId, motif, fichier);
-            return ResponseEntity.ok(justificatif);
+            return ResponseEntity.ok(justificatifService.getJustificatifById(justificatif.getId()).orElseThrow());
         } catch (IOException e) {
             return ResponseEntity.badRequest().body("Erreur lors de l'upload du fichier : " + e.getMessage());
         } catch (RuntimeException e) {
@@ -78,7 +85,7 @@ public class JustificatifController {
             @RequestParam(required = false) String commentaire) {
         try {
             Justificatif justificatif = justificatifService.validerJustificatif(id, validateurId, commentaire);
-            return ResponseEntity.ok(justificatif);
+            return ResponseEntity.ok(justificatifService.getJustificatifById(justificatif.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -95,7 +102,7 @@ public class JustificatifController {
             @RequestParam(required = false) String commentaire) {
         try {
             Justificatif justificatif = justificatifService.refuserJustificatif(id, validateurId, commentaire);
-            return ResponseEntity.ok(justificatif);
+            return ResponseEntity.ok(justificatifService.getJustificatifById(justificatif.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -174,6 +181,31 @@ public class JustificatifController {
         return ResponseEntity.ok(justificatifService.getAllJustificatifs());
     }
 
+    /**
+     * Obtient une page de justificatifs, filtrée et triée (sort : createdAt, dateValidation, statut, id)
+     * GET /api/justificatifs?page=0&size=20&statut=&etudiantId=&formationId=&debut=&fin=
+     * Sans le paramètre page, la liste complète est renvoyée
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<?> getJustificatifsPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) StatutJustificatif statut,
+            @RequestParam(required = false) Long etudiantId,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        try {
+            Pageable pageable = Pagination.of(page, size, sort, direction, "createdAt", TRIS_JUSTIFICATIFS);
+            return ResponseEntity.ok(justificatifService.getJustificatifsPage(
+                    statut, etudiantId, formationId, debut, fin, pageable));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Obtient tous les justificatifs traités par un validateur (chef)
      * GET /api/justificatifs/traites/{validateurId}
@@ -29,7 +29,7 @@ public class MatiereController {
     public ResponseEntity<?> createMatiere(@RequestBody MatiereDTO matiereDTO) {
         try {
             Matiere created = matiereService.createMatiere(matiereDTO);
-            return ResponseEntity.ok(created);
+            return ResponseEntity.ok(matiereService.getMatiereById(created.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -43,7 +43,7 @@ public class MatiereController {
     public ResponseEntity<?> updateMatiere(@PathVariable Long id, @RequestBody MatiereDTO matiereDTO) {
         try {
             Matiere updated = matiereService.updateMatiere(id, matiereDTO);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(matiereService.getMatiereById(updated.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,47 @@
+package com.university.attendance.controller;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Construction des pages demandées par les endpoints de liste (?page=&size=&sort=&direction=)
+ * La taille est bornée et seuls les champs de tri autorisés sont acceptés ;
+ * l'identifiant est toujours ajouté en dernier critère pour des pages stables.
+ */
+final class Pagination {
+
+    static final int TAILLE_MAX = 100;
+
+    private Pagination() {
+    }
+
+    /**
+     * Page sans tri (l'ordre est fixé par la requête)
+     */
+    static Pageable of(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_MAX));
+    }
+
+    /**
+     * Page triée sur un champ autorisé, ou sur le champ par défaut si aucun n'est demandé
+     */
+    static Pageable of(int page, int size, String tri, String direction,
+                       String triParDefaut, Set<String> champsTriables) {
+        String champ = (tri == null || tri.isBlank()) ? triParDefaut : tri;
+        if (!champsTriables.contains(champ)) {
+            throw new RuntimeException("Tri non autorisé : " + champ
+                    + " (autorisés : " + String.join(", ", new TreeSet<>(champsTriables)) + ")");
+        }
+
+        Sort.Direction sens = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(sens, champ);
+        if (!"id".equals(champ)) {
+            sort = sort.and(Sort.by(sens, "id"));
+        }
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_MAX), sort);
+    }
+}
@@ -1,17 +1,32 @@
 package com.university.attendance.controller;
 
+import com.university.attendance.dto.CubePresencesDTO;
+import com.university.attendance.dto.Curseur;
+import com.university.attendance.dto.PresenceSeanceDTO;
 import com.university.attendance.dto.StatistiquesEtudiantDTO;
+import com.university.attendance.dto.TendancePresenceDTO;
 import com.university.attendance.dto.ValidateCodeRequest;
+import com.university.attendance.dto.ValidationPresenceDTO;
 import com.university.attendance.model.Presence;
 import com.university.attendance.model.StatutPresence;
+import com.university.attendance.service.CubePresences;
+import com.university.attendance.service.PresenceLiveFeed;
 import com.university.attendance.service.PresenceService;
+import com.university.attendance.service.TendancesPresenceService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller pour gérer les présences
@@ -21,9 +36,20 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class PresenceController {
 
+    private static final Set<String> TRIS_PRESENCES = Set.of("seance.dateDebut", "heureValidation", "statut", "id");
+
     @Autowired
     private PresenceService presenceService;
 
+    @Autowired
+    private PresenceLiveFeed presenceLiveFeed;
+
+    @Autowired
+    private TendancesPresenceService tendancesPresenceService;
+
+    @Autowired
+    private CubePresences cubePresences;
+
     /**
      * Valide la présence d'un étudiant via le code dynamique
      * POST /api/presences/validate-code
@@ -32,13 +58,14 @@ public class PresenceController {
     public ResponseEntity<?> validateCode(@Valid @RequestBody ValidateCodeRequest request,
                                           @RequestHeader("X-User-Id") Long etudiantId) {
         try {
-            Presence presence = presenceService.validateCode(
+            ValidationPresenceDTO presence = presenceService.validateCode(
                     request.getSeanceId(),
                     etudiantId,
                     request.getCode()
             );
             return ResponseEntity.ok(Map.of(
-                    "message", "Présence validée avec succès",
+                    "message", presence.isDejaEnregistree()
+                            ? "Présence déjà enregistrée" : "Présence validée avec succès",
                     "presence", presence
             ));
         } catch (RuntimeException e) {
@@ -57,7 +84,8 @@ public class PresenceController {
             @RequestParam StatutPresence statut) {
         try {
             Presence presence = presenceService.createPresenceManuelle(seanceId, etudiantId, statut);
-            return ResponseEntity.ok(presence);
+            // Relue après la validation : la réponse est sérialisée hors session, étudiant et séance chargés
+            return ResponseEntity.ok(presenceService.getPresenceById(presence.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -74,7 +102,7 @@ public class PresenceController {
             @RequestParam(required = false) String commentaire) {
         try {
             Presence presence = presenceService.updatePresence(id, statut, commentaire);
-            return ResponseEntity.ok(presence);
+            return ResponseEntity.ok(presenceService.getPresenceById(presence.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -89,15 +117,69 @@ public class PresenceController {
         return ResponseEntity.ok(presenceService.getPresencesByEtudiant(etudiantId));
     }
 
+    /**
+     * Historique des présences d'un étudiant, parcouru par curseur
+     * GET /api/presences/etudiant/{etudiantId}/historique?size=20&after={jeton}
+     * Le jeton de la page suivante est renvoyé dans "next" (null sur la dernière page)
+     */
+    @GetMapping("/etudiant/{etudiantId}/historique")
+    public ResponseEntity<?> getHistoriqueEtudiant(
+            @PathVariable Long etudiantId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            int taille = Math.min(Math.max(size, 1), Pagination.TAILLE_MAX);
+            return ResponseEntity.ok(presenceService.getHistoriqueEtudiant(etudiantId, Curseur.decoder(after), taille));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtient une page des présences d'un étudiant, filtrée et triée
+     * (sort : seance.dateDebut, heureValidation, statut, id)
+     * GET /api/presences/etudiant/{etudiantId}?page=0&size=20&statut=&matiereId=&debut=&fin=
+     * Sans le paramètre page, la liste complète est renvoyée
+     */
+    @GetMapping(value = "/etudiant/{etudiantId}", params = "page")
+    public ResponseEntity<?> getPresencesByEtudiantPage(
+            @PathVariable Long etudiantId,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) StatutPresence statut,
+            @RequestParam(required = false) Long matiereId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        try {
+            Pageable pageable = Pagination.of(page, size, sort, direction, "seance.dateDebut", TRIS_PRESENCES);
+            return ResponseEntity.ok(presenceService.getPresencesByEtudiantPage(
+                    etudiantId, statut, matiereId, debut, fin, pageable));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Obtient les présences d'une séance
      * GET /api/presences/seance/{seanceId}
      */
     @GetMapping("/seance/{seanceId}")
-    public ResponseEntity<List<Presence>> getPresencesBySeance(@PathVariable Long seanceId) {
+    public ResponseEntity<List<PresenceSeanceDTO>> getPresencesBySeance(@PathVariable Long seanceId) {
         return ResponseEntity.ok(presenceService.getPresencesBySeance(seanceId));
     }
 
+    /**
+     * Flux en direct (Server-Sent Events) des présences d'une séance active
+     * Événements : "instantane" à l'abonnement, "presence" à chaque pointage, "fin" à l'arrêt
+     * GET /api/presences/seance/{seanceId}/stream
+     */
+    @GetMapping(value = "/seance/{seanceId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPresencesBySeance(@PathVariable Long seanceId) {
+        return presenceLiveFeed.abonner(seanceId);
+    }
+
     /**
      * Obtient les statistiques d'un étudiant
      * GET /api/presences/statistiques/{etudiantId}
@@ -107,6 +189,54 @@ public class PresenceController {
         return ResponseEntity.ok(presenceService.getStatistiquesEtudiant(etudiantId));
     }
 
+    /**
+     * Tendance d'assiduité par jour ou par semaine (par défaut : 12 dernières semaines ou 30 derniers jours)
+     * GET /api/presences/tendances?granularite=SEMAINE&du=&au=&departementId=&formationId=&matiereId=&groupeId=&typeSeance=
+     */
+    @GetMapping("/tendances")
+    public ResponseEntity<?> getTendances(
+            @RequestParam(defaultValue = "SEMAINE") String granularite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate au,
+            @RequestParam(required = false) Long departementId,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) Long matiereId,
+            @RequestParam(required = false) Long groupeId,
+            @RequestParam(required = false) String typeSeance) {
+        try {
+            List<TendancePresenceDTO> tendances = tendancesPresenceService.getTendances(
+                    granularite, du, au, departementId, formationId, matiereId, groupeId, typeSeance);
+            return ResponseEntity.ok(tendances);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Présents, absences et retards de l'année universitaire, regroupés et filtrés (cube en mémoire)
+     * GET /api/presences/cube?regrouperPar=matiere,semaine&etudiantId=&matiereId=&formationId=&departementId=&groupeId=&typeSeance=&du=&au=
+     * Dimensions : etudiant, matiere, formation, departement, groupe, typeSeance, semaine
+     */
+    @GetMapping("/cube")
+    public ResponseEntity<?> getCube(
+            @RequestParam(required = false) List<String> regrouperPar,
+            @RequestParam(required = false) Long etudiantId,
+            @RequestParam(required = false) Long matiereId,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) Long departementId,
+            @RequestParam(required = false) Long groupeId,
+            @RequestParam(required = false) String typeSeance,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate au) {
+        try {
+            CubePresencesDTO resultat = cubePresences.interroger(regrouperPar, etudiantId, matiereId,
+                    formationId, departementId, groupeId, typeSeance, du, au);
+            return ResponseEntity.ok(resultat);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Compte le nombre d'absences d'un étudiant pour une matière
      * GET /api/presences/absences/count
@@ -1,10 +1,17 @@
 package com.university.attendance.controller;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,15 +19,24 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.university.attendance.config.JetonsFlux;
+import com.university.attendance.dto.Curseur;
 import com.university.attendance.dto.EtudiantInscritDTO;
+import com.university.attendance.dto.PageCurseurDTO;
 import com.university.attendance.dto.SeanceDTO;
+import com.university.attendance.dto.SeanceEtudiantDTO;
+import com.university.attendance.dto.SeanceListeDTO;
 import com.university.attendance.model.Groupe;
 import com.university.attendance.model.Matiere;
 import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutSeance;
 import com.university.attendance.model.TypeSeance;
 import com.university.attendance.model.User;
 import com.university.attendance.repository.GroupeRepository;
@@ -38,6 +54,8 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class SeanceController {
 
+    private static final Set<String> TRIS_SEANCES = Set.of("dateDebut", "dateFin", "statut", "salle", "id");
+
     @Autowired
     private SeanceService seanceService;
 
@@ -50,6 +68,9 @@ public class SeanceController {
     @Autowired
     private GroupeRepository groupeRepository;
 
+    @Autowired
+    private JetonsFlux jetonsFlux;
+
     /**
      * Crée une nouvelle séance
      * POST /api/seances
@@ -57,10 +78,10 @@ public class SeanceController {
     @PostMapping
     public ResponseEntity<?> createSeance(@Valid @RequestBody SeanceDTO seanceDTO) {
         try {
-            Matiere matiere = matiereRepository.findById(seanceDTO.getMatiereId())
+            Matiere matiere = matiereRepository.findChargeeById(seanceDTO.getMatiereId())
                     .orElseThrow(() -> new RuntimeException("Matière non trouvée"));
 
-            User enseignant = userRepository.findById(seanceDTO.getEnseignantId())
+            User enseignant = userRepository.findChargeById(seanceDTO.getEnseignantId())
                     .orElseThrow(() -> new RuntimeException("Enseignant non trouvé"));
 
             Seance seance = new Seance();
@@ -78,13 +99,14 @@ public class SeanceController {
 
             // Pour les TD/TP, associe le groupe
             if (typeSeance == TypeSeance.TD_TP && seanceDTO.getGroupeId() != null) {
-                Groupe groupe = groupeRepository.findById(seanceDTO.getGroupeId())
+                Groupe groupe = groupeRepository.findChargeById(seanceDTO.getGroupeId())
                         .orElseThrow(() -> new RuntimeException("Groupe non trouvé"));
                 seance.setGroupe(groupe);
             }
 
             Seance createdSeance = seanceService.createSeance(seance);
-            return ResponseEntity.ok(createdSeance);
+            // Relue après la validation : la réponse est sérialisée hors session, associations chargées
+            return ResponseEntity.ok(seanceService.getSeanceById(createdSeance.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -145,6 +167,29 @@ public class SeanceController {
         }
     }
 
+    /**
+     * Jeton de courte durée permettant d'ouvrir les flux SSE de la séance (codes et pointages)
+     * sans placer le token de connexion dans l'URL
+     * POST /api/seances/{id}/jeton-flux
+     */
+    @PostMapping("/{id}/jeton-flux")
+    public ResponseEntity<?> getJetonFlux(@PathVariable Long id, Principal principal,
+                                          @RequestAttribute("userId") Long userId,
+                                          @RequestAttribute("userRole") String role) {
+        String jeton = jetonsFlux.emettre(id, principal.getName(), userId, role);
+        return ResponseEntity.ok(Map.of("jeton", jeton, "validiteMs", jetonsFlux.getValidite()));
+    }
+
+    /**
+     * Flux (Server-Sent Events) des codes d'une séance active
+     * Un événement "code" est envoyé à l'abonnement puis à chaque rotation, "fin" à l'arrêt
+     * GET /api/seances/{id}/code/stream
+     */
+    @GetMapping(value = "/{id}/code/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCode(@PathVariable Long id) {
+        return seanceService.abonnerCode(id);
+    }
+
     /**
      * Arrête une séance
      * POST /api/seances/{id}/stop
@@ -153,7 +198,8 @@ public class SeanceController {
     public ResponseEntity<?> stopSeance(@PathVariable Long id) {
         try {
             Seance seance = seanceService.stopSeance(id);
-            return ResponseEntity.ok(Map.of("message", "Séance terminée", "seance", seance));
+            return ResponseEntity.ok(Map.of("message", "Séance terminée", "seance",
+                    seanceService.getSeanceById(seance.getId()).orElseThrow()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -168,6 +214,30 @@ public class SeanceController {
         return ResponseEntity.ok(seanceService.getAllSeances());
     }
 
+    /**
+     * Obtient une page de séances, filtrée et triée (sort : dateDebut, dateFin, statut, salle, id)
+     * GET /api/seances?page=0&size=20&debut=&fin=&statut=&formationId=&enseignantId=&sort=dateDebut&direction=desc
+     * Sans le paramètre page, la liste complète est renvoyée
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<?> getSeancesPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) StatutSeance statut,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) Long enseignantId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        try {
+            Pageable pageable = Pagination.of(page, size, sort, direction, "dateDebut", TRIS_SEANCES);
+            return ResponseEntity.ok(seanceService.getSeancesPage(debut, fin, statut, formationId, enseignantId, pageable));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Obtient une séance par son ID
      * GET /api/seances/{id}
@@ -181,32 +251,79 @@ public class SeanceController {
 
     /**
      * Obtient les séances d'un enseignant
-     * GET /api/seances/enseignant/{enseignantId}
+     * GET /api/seances/enseignant/{enseignantId}?inscrits=true (nombre d'inscrits de chaque séance)
      */
     @GetMapping("/enseignant/{enseignantId}")
-    public ResponseEntity<List<Seance>> getSeancesByEnseignant(@PathVariable Long enseignantId) {
-        List<Seance> seances = seanceService.getSeancesByEnseignant(enseignantId);
+    public ResponseEntity<List<SeanceListeDTO>> getSeancesByEnseignant(
+            @PathVariable Long enseignantId,
+            @RequestParam(defaultValue = "false") boolean inscrits) {
+        List<SeanceListeDTO> seances = seanceService.getSeancesByEnseignant(enseignantId);
+        if (inscrits) {
+            seanceService.completerNombreInscrits(seances);
+        }
         System.out.println("DEBUG - Récupération séances pour enseignant ID: " + enseignantId);
         System.out.println("DEBUG - Nombre de séances trouvées: " + seances.size());
         return ResponseEntity.ok(seances);
     }
 
+    /**
+     * Historique des séances d'un enseignant, parcouru par curseur
+     * GET /api/seances/enseignant/{enseignantId}/historique?size=20&after={jeton}&inscrits=true
+     * Le jeton de la page suivante est renvoyé dans "next" (null sur la dernière page)
+     */
+    @GetMapping("/enseignant/{enseignantId}/historique")
+    public ResponseEntity<?> getHistoriqueEnseignant(
+            @PathVariable Long enseignantId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean inscrits) {
+        try {
+            int taille = Math.min(Math.max(size, 1), Pagination.TAILLE_MAX);
+            PageCurseurDTO<SeanceListeDTO> historique =
+                    seanceService.getHistoriqueEnseignant(enseignantId, Curseur.decoder(after), taille);
+            if (inscrits) {
+                seanceService.completerNombreInscrits(historique.getContent());
+            }
+            return ResponseEntity.ok(historique);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtient, page par page, les séances auxquelles un étudiant est inscrit avec son statut de présence
+     * GET /api/seances/etudiant/{etudiantId}?page=0&size=10
+     */
+    @GetMapping("/etudiant/{etudiantId}")
+    public ResponseEntity<Page<SeanceEtudiantDTO>> getSeancesEtudiant(
+            @PathVariable Long etudiantId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(seanceService.getSeancesEtudiant(etudiantId, Pagination.of(page, size)));
+    }
+
     /**
      * Obtient les séances futures d'un enseignant
-     * GET /api/seances/enseignant/{enseignantId}/upcoming
+     * GET /api/seances/enseignant/{enseignantId}/upcoming?inscrits=true
      */
     @GetMapping("/enseignant/{enseignantId}/upcoming")
-    public ResponseEntity<List<Seance>> getUpcomingSeances(@PathVariable Long enseignantId) {
-        return ResponseEntity.ok(seanceService.getUpcomingSeancesByEnseignant(enseignantId));
+    public ResponseEntity<List<SeanceListeDTO>> getUpcomingSeances(
+            @PathVariable Long enseignantId,
+            @RequestParam(defaultValue = "false") boolean inscrits) {
+        List<SeanceListeDTO> seances = seanceService.getUpcomingSeancesByEnseignant(enseignantId);
+        return ResponseEntity.ok(inscrits ? seanceService.completerNombreInscrits(seances) : seances);
     }
 
     /**
      * Obtient les séances d'un groupe
-     * GET /api/seances/groupe/{groupeId}
+     * GET /api/seances/groupe/{groupeId}?inscrits=true
      */
     @GetMapping("/groupe/{groupeId}")
-    public ResponseEntity<List<Seance>> getSeancesByGroupe(@PathVariable Long groupeId) {
-        return ResponseEntity.ok(seanceService.getSeancesByGroupe(groupeId));
+    public ResponseEntity<List<SeanceListeDTO>> getSeancesByGroupe(
+            @PathVariable Long groupeId,
+            @RequestParam(defaultValue = "false") boolean inscrits) {
+        List<SeanceListeDTO> seances = seanceService.getSeancesByGroupe(groupeId);
+        return ResponseEntity.ok(inscrits ? seanceService.completerNombreInscrits(seances) : seances);
     }
 
     /**
@@ -216,10 +333,10 @@ public class SeanceController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateSeance(@PathVariable Long id, @Valid @RequestBody SeanceDTO seanceDTO) {
         try {
-            Matiere matiere = matiereRepository.findById(seanceDTO.getMatiereId())
+            Matiere matiere = matiereRepository.findChargeeById(seanceDTO.getMatiereId())
                     .orElseThrow(() -> new RuntimeException("Matière non trouvée"));
 
-            User enseignant = userRepository.findById(seanceDTO.getEnseignantId())
+            User enseignant = userRepository.findChargeById(seanceDTO.getEnseignantId())
                     .orElseThrow(() -> new RuntimeException("Enseignant non trouvé"));
 
             Seance seanceDetails = new Seance();
@@ -237,13 +354,13 @@ public class SeanceController {
 
             // Pour les TD/TP, associe le groupe
             if (typeSeance == TypeSeance.TD_TP && seanceDTO.getGroupeId() != null) {
-                Groupe groupe = groupeRepository.findById(seanceDTO.getGroupeId())
+                Groupe groupe = groupeRepository.findChargeById(seanceDTO.getGroupeId())
                         .orElseThrow(() -> new RuntimeException("Groupe non trouvé"));
                 seanceDetails.setGroupe(groupe);
             }
 
             Seance updatedSeance = seanceService.updateSeance(id, seanceDetails);
-            return ResponseEntity.ok(updatedSeance);
+            return ResponseEntity.ok(seanceService.getSeanceById(updatedSeance.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -257,7 +374,7 @@ public class SeanceController {
     public ResponseEntity<?> cancelSeance(@PathVariable Long id) {
         try {
             Seance seance = seanceService.cancelSeance(id);
-            return ResponseEntity.ok(seance);
+            return ResponseEntity.ok(seanceService.getSeanceById(seance.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,29 @@
+package com.university.attendance.controller;
+
+import com.university.attendance.config.JwtTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller de supervision (réservé aux administrateurs)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class SupervisionController {
+
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
+    /**
+     * Statistiques du cache des tokens JWT vérifiés (succès, échecs, évictions, taille)
+     * GET /api/admin/cache-jwt
+     */
+    @GetMapping("/cache-jwt")
+    public ResponseEntity<Map<String, Object>> getStatistiquesCacheJwt() {
+        return ResponseEntity.ok(jwtTokenCache.getStatistiques());
+    }
+}
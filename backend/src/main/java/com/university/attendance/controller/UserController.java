@@ -4,11 +4,13 @@ import com.university.attendance.model.Role;
 import com.university.attendance.model.User;
 import com.university.attendance.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller pour gérer les utilisateurs
@@ -18,6 +20,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final Set<String> TRIS_UTILISATEURS = Set.of("nom", "prenom", "email", "role", "createdAt", "id");
+
     @Autowired
     private UserService userService;
 
@@ -29,7 +33,7 @@ public class UserController {
     public ResponseEntity<?> createUser(@RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
-            return ResponseEntity.ok(createdUser);
+            return ResponseEntity.ok(userService.getUserById(createdUser.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -43,7 +47,7 @@ public class UserController {
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User user) {
         try {
             User updatedUser = userService.updateUser(id, user);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(userService.getUserById(updatedUser.getId()).orElseThrow());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -80,6 +84,30 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    /**
+     * Obtient une page d'utilisateurs, filtrée et triée (sort : nom, prenom, email, role, createdAt, id)
+     * GET /api/users?page=0&size=20&role=&actif=&formationId=&departementId=&recherche=
+     * Sans le paramètre page, la liste complète est renvoyée
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<?> getUsersPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Boolean actif,
+            @RequestParam(required = false) Long formationId,
+            @RequestParam(required = false) Long departementId,
+            @RequestParam(required = false) String recherche,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        try {
+            Pageable pageable = Pagination.of(page, size, sort, direction, "nom", TRIS_UTILISATEURS);
+            return ResponseEntity.ok(userService.getUsersPage(role, actif, formationId, departementId, recherche, pageable));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Obtient tous les utilisateurs par rôle
      * GET /api/users/role/{role}
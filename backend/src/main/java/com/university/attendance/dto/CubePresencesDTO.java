@@ -0,0 +1,52 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO du résultat d'une requête sur le cube des présences
+ */
+public class CubePresencesDTO {
+
+    private LocalDate donneesDepuis;
+    private long presencesAnalysees;
+    private long dureeMicros;
+    private List<CubePresencesGroupeDTO> groupes;
+
+    // Constructeurs
+    public CubePresencesDTO() {
+    }
+
+    // Getters et Setters
+    public LocalDate getDonneesDepuis() {
+        return donneesDepuis;
+    }
+
+    public void setDonneesDepuis(LocalDate donneesDepuis) {
+        this.donneesDepuis = donneesDepuis;
+    }
+
+    public long getPresencesAnalysees() {
+        return presencesAnalysees;
+    }
+
+    public void setPresencesAnalysees(long presencesAnalysees) {
+        this.presencesAnalysees = presencesAnalysees;
+    }
+
+    public long getDureeMicros() {
+        return dureeMicros;
+    }
+
+    public void setDureeMicros(long dureeMicros) {
+        this.dureeMicros = dureeMicros;
+    }
+
+    public List<CubePresencesGroupeDTO> getGroupes() {
+        return groupes;
+    }
+
+    public void setGroupes(List<CubePresencesGroupeDTO> groupes) {
+        this.groupes = groupes;
+    }
+}
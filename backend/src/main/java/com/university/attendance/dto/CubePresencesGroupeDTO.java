@@ -0,0 +1,126 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO d'un groupe du cube des présences : seules les dimensions demandées sont renseignées
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CubePresencesGroupeDTO {
+
+    private Long etudiantId;
+    private Long matiereId;
+    private Long formationId;
+    private Long departementId;
+    private Long groupeId;
+    private String typeSeance;
+    private LocalDate semaine;
+    private long presents;
+    private long absences;
+    private long retards;
+    private long total;
+    private double tauxPresence;
+
+    // Constructeurs
+    public CubePresencesGroupeDTO() {
+    }
+
+    // Getters et Setters
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public Long getMatiereId() {
+        return matiereId;
+    }
+
+    public void setMatiereId(Long matiereId) {
+        this.matiereId = matiereId;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public Long getDepartementId() {
+        return departementId;
+    }
+
+    public void setDepartementId(Long departementId) {
+        this.departementId = departementId;
+    }
+
+    public Long getGroupeId() {
+        return groupeId;
+    }
+
+    public void setGroupeId(Long groupeId) {
+        this.groupeId = groupeId;
+    }
+
+    public String getTypeSeance() {
+        return typeSeance;
+    }
+
+    public void setTypeSeance(String typeSeance) {
+        this.typeSeance = typeSeance;
+    }
+
+    public LocalDate getSemaine() {
+        return semaine;
+    }
+
+    public void setSemaine(LocalDate semaine) {
+        this.semaine = semaine;
+    }
+
+    public long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(long presents) {
+        this.presents = presents;
+    }
+
+    public long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(long absences) {
+        this.absences = absences;
+    }
+
+    public long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(long retards) {
+        this.retards = retards;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public double getTauxPresence() {
+        return tauxPresence;
+    }
+
+    public void setTauxPresence(double tauxPresence) {
+        this.tauxPresence = tauxPresence;
+    }
+}
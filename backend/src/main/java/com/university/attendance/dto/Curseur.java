@@ -0,0 +1,55 @@
+package com.university.attendance.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans un historique trié par (dateDebut, id) décroissants
+ * Transmis au client sous forme de jeton opaque (?after=), reçu tel quel pour la page suivante
+ */
+public class Curseur {
+
+    private final LocalDateTime dateDebut;
+    private final Long id;
+
+    public Curseur(LocalDateTime dateDebut, Long id) {
+        this.dateDebut = dateDebut;
+        this.id = id;
+    }
+
+    /**
+     * Encode la position en jeton URL-safe
+     */
+    public String encoder() {
+        String valeur = dateDebut + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un jeton reçu en ?after= ; null pour la première page
+     */
+    public static Curseur decoder(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return null;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+            int separateur = valeur.indexOf('|');
+            return new Curseur(LocalDateTime.parse(valeur.substring(0, separateur)),
+                    Long.valueOf(valeur.substring(separateur + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Curseur de pagination invalide");
+        }
+    }
+
+    // Getters
+    public LocalDateTime getDateDebut() {
+        return dateDebut;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,49 @@
+package com.university.attendance.dto;
+
+import java.util.List;
+
+/**
+ * Page d'un historique parcouru par curseur (pagination par clé)
+ * next est le jeton à passer en ?after= pour obtenir la page suivante, null sur la dernière page
+ */
+public class PageCurseurDTO<T> {
+
+    private List<T> content;
+    private String next;
+    private boolean hasNext;
+
+    // Constructeurs
+    public PageCurseurDTO() {
+    }
+
+    public PageCurseurDTO(List<T> content, String next) {
+        this.content = content;
+        this.next = next;
+        this.hasNext = next != null;
+    }
+
+    // Getters et Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,61 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+
+import com.university.attendance.model.StatutPresence;
+
+/**
+ * Événement compact du flux de présences en direct de l'enseignant
+ * (un pointage, une saisie manuelle ou une modification de statut)
+ */
+public class PointageLiveDTO {
+
+    private Long etudiantId;
+    private String nomComplet;
+    private StatutPresence statut;
+    private LocalDateTime heure;
+
+    // Constructeurs
+    public PointageLiveDTO() {
+    }
+
+    public PointageLiveDTO(Long etudiantId, String nomComplet, StatutPresence statut, LocalDateTime heure) {
+        this.etudiantId = etudiantId;
+        this.nomComplet = nomComplet;
+        this.statut = statut;
+        this.heure = heure;
+    }
+
+    // Getters et Setters
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public String getNomComplet() {
+        return nomComplet;
+    }
+
+    public void setNomComplet(String nomComplet) {
+        this.nomComplet = nomComplet;
+    }
+
+    public StatutPresence getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutPresence statut) {
+        this.statut = statut;
+    }
+
+    public LocalDateTime getHeure() {
+        return heure;
+    }
+
+    public void setHeure(LocalDateTime heure) {
+        this.heure = heure;
+    }
+}
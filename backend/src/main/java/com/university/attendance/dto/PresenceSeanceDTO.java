@@ -0,0 +1,113 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+
+import com.university.attendance.model.StatutPresence;
+
+/**
+ * DTO d'une ligne de la feuille de présence d'une séance (vue enseignant)
+ * Identité de l'étudiant et statut, sans charger l'étudiant ni la séance
+ */
+public class PresenceSeanceDTO {
+
+    private Long id;
+    private Long etudiantId;
+    private String etudiantNom;
+    private String etudiantPrenom;
+    private String numeroEtudiant;
+    private StatutPresence statut;
+    private LocalDateTime heureValidation;
+    private Boolean modificationManuelle;
+    private String commentaire;
+
+    // Constructeurs
+    public PresenceSeanceDTO() {
+    }
+
+    public PresenceSeanceDTO(Long id, Long etudiantId, String etudiantNom, String etudiantPrenom,
+                             String numeroEtudiant, StatutPresence statut, LocalDateTime heureValidation,
+                             Boolean modificationManuelle, String commentaire) {
+        this.id = id;
+        this.etudiantId = etudiantId;
+        this.etudiantNom = etudiantNom;
+        this.etudiantPrenom = etudiantPrenom;
+        this.numeroEtudiant = numeroEtudiant;
+        this.statut = statut;
+        this.heureValidation = heureValidation;
+        this.modificationManuelle = modificationManuelle;
+        this.commentaire = commentaire;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public String getEtudiantNom() {
+        return etudiantNom;
+    }
+
+    public void setEtudiantNom(String etudiantNom) {
+        this.etudiantNom = etudiantNom;
+    }
+
+    public String getEtudiantPrenom() {
+        return etudiantPrenom;
+    }
+
+    public void setEtudiantPrenom(String etudiantPrenom) {
+        this.etudiantPrenom = etudiantPrenom;
+    }
+
+    public String getNumeroEtudiant() {
+        return numeroEtudiant;
+    }
+
+    public void setNumeroEtudiant(String numeroEtudiant) {
+        this.numeroEtudiant = numeroEtudiant;
+    }
+
+    public StatutPresence getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutPresence statut) {
+        this.statut = statut;
+    }
+
+    public LocalDateTime getHeureValidation() {
+        return heureValidation;
+    }
+
+    public void setHeureValidation(LocalDateTime heureValidation) {
+        this.heureValidation = heureValidation;
+    }
+
+    public Boolean getModificationManuelle() {
+        return modificationManuelle;
+    }
+
+    public void setModificationManuelle(Boolean modificationManuelle) {
+        this.modificationManuelle = modificationManuelle;
+    }
+
+    public String getCommentaire() {
+        return commentaire;
+    }
+
+    public void setCommentaire(String commentaire) {
+        this.commentaire = commentaire;
+    }
+}
@@ -0,0 +1,77 @@
+package com.university.attendance.dto;
+
+/**
+ * DTO du bilan d'un recalcul complet des avertissements automatiques
+ */
+public class RecalculAvertissementsDTO {
+
+    private long couplesEvalues;
+    private long absencesLues;
+    private int avertissementsCrees;
+    private int avertissementsRetires;
+    private long dureeMs;
+    private long couplesParSeconde;
+
+    // Constructeurs
+    public RecalculAvertissementsDTO() {
+    }
+
+    public RecalculAvertissementsDTO(long couplesEvalues, long absencesLues, int avertissementsCrees,
+                                     int avertissementsRetires, long dureeMs, long couplesParSeconde) {
+        this.couplesEvalues = couplesEvalues;
+        this.absencesLues = absencesLues;
+        this.avertissementsCrees = avertissementsCrees;
+        this.avertissementsRetires = avertissementsRetires;
+        this.dureeMs = dureeMs;
+        this.couplesParSeconde = couplesParSeconde;
+    }
+
+    // Getters et Setters
+    public long getCouplesEvalues() {
+        return couplesEvalues;
+    }
+
+    public void setCouplesEvalues(long couplesEvalues) {
+        this.couplesEvalues = couplesEvalues;
+    }
+
+    public long getAbsencesLues() {
+        return absencesLues;
+    }
+
+    public void setAbsencesLues(long absencesLues) {
+        this.absencesLues = absencesLues;
+    }
+
+    public int getAvertissementsCrees() {
+        return avertissementsCrees;
+    }
+
+    public void setAvertissementsCrees(int avertissementsCrees) {
+        this.avertissementsCrees = avertissementsCrees;
+    }
+
+    public int getAvertissementsRetires() {
+        return avertissementsRetires;
+    }
+
+    public void setAvertissementsRetires(int avertissementsRetires) {
+        this.avertissementsRetires = avertissementsRetires;
+    }
+
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    public void setDureeMs(long dureeMs) {
+        this.dureeMs = dureeMs;
+    }
+
+    public long getCouplesParSeconde() {
+        return couplesParSeconde;
+    }
+
+    public void setCouplesParSeconde(long couplesParSeconde) {
+        this.couplesParSeconde = couplesParSeconde;
+    }
+}
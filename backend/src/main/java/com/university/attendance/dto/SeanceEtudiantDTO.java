@@ -0,0 +1,188 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.StatutSeance;
+import com.university.attendance.model.TypeSeance;
+
+/**
+ * DTO d'une séance vue par un étudiant inscrit, avec son propre statut de présence
+ * (statutPresence = null si aucune présence n'est encore enregistrée)
+ */
+public class SeanceEtudiantDTO {
+
+    private Long seanceId;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private String salle;
+    private TypeSeance typeSeance;
+    private StatutSeance statutSeance;
+    private Long matiereId;
+    private String matiereNom;
+    private String matiereCode;
+    private String enseignantPrenom;
+    private String enseignantNom;
+    private String groupeNom;
+    private Long presenceId;
+    private StatutPresence statutPresence;
+    private LocalDateTime heureValidation;
+    private String commentaire;
+
+    // Constructeurs
+    public SeanceEtudiantDTO() {
+    }
+
+    public SeanceEtudiantDTO(Long seanceId, LocalDateTime dateDebut, LocalDateTime dateFin,
+                             String salle, TypeSeance typeSeance, StatutSeance statutSeance,
+                             Long matiereId, String matiereNom, String matiereCode,
+                             String enseignantPrenom, String enseignantNom, String groupeNom,
+                             Long presenceId, StatutPresence statutPresence, LocalDateTime heureValidation,
+                             String commentaire) {
+        this.seanceId = seanceId;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.salle = salle;
+        this.typeSeance = typeSeance;
+        this.statutSeance = statutSeance;
+        this.matiereId = matiereId;
+        this.matiereNom = matiereNom;
+        this.matiereCode = matiereCode;
+        this.enseignantPrenom = enseignantPrenom;
+        this.enseignantNom = enseignantNom;
+        this.groupeNom = groupeNom;
+        this.presenceId = presenceId;
+        this.statutPresence = statutPresence;
+        this.heureValidation = heureValidation;
+        this.commentaire = commentaire;
+    }
+
+    // Getters et Setters
+    public Long getSeanceId() {
+        return seanceId;
+    }
+
+    public void setSeanceId(Long seanceId) {
+        this.seanceId = seanceId;
+    }
+
+    public LocalDateTime getDateDebut() {
+        return dateDebut;
+    }
+
+    public void setDateDebut(LocalDateTime dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+
+    public LocalDateTime getDateFin() {
+        return dateFin;
+    }
+
+    public void setDateFin(LocalDateTime dateFin) {
+        this.dateFin = dateFin;
+    }
+
+    public String getSalle() {
+        return salle;
+    }
+
+    public void setSalle(String salle) {
+        this.salle = salle;
+    }
+
+    public TypeSeance getTypeSeance() {
+        return typeSeance;
+    }
+
+    public void setTypeSeance(TypeSeance typeSeance) {
+        this.typeSeance = typeSeance;
+    }
+
+    public StatutSeance getStatutSeance() {
+        return statutSeance;
+    }
+
+    public void setStatutSeance(StatutSeance statutSeance) {
+        this.statutSeance = statutSeance;
+    }
+
+    public Long getMatiereId() {
+        return matiereId;
+    }
+
+    public void setMatiereId(Long matiereId) {
+        this.matiereId = matiereId;
+    }
+
+    public String getMatiereNom() {
+        return matiereNom;
+    }
+
+    public void setMatiereNom(String matiereNom) {
+        this.matiereNom = matiereNom;
+    }
+
+    public String getMatiereCode() {
+        return matiereCode;
+    }
+
+    public void setMatiereCode(String matiereCode) {
+        this.matiereCode = matiereCode;
+    }
+
+    public String getEnseignantPrenom() {
+        return enseignantPrenom;
+    }
+
+    public void setEnseignantPrenom(String enseignantPrenom) {
+        this.enseignantPrenom = enseignantPrenom;
+    }
+
+    public String getEnseignantNom() {
+        return enseignantNom;
+    }
+
+    public void setEnseignantNom(String enseignantNom) {
+        this.enseignantNom = enseignantNom;
+    }
+
+    public String getGroupeNom() {
+        return groupeNom;
+    }
+
+    public void setGroupeNom(String groupeNom) {
+        this.groupeNom = groupeNom;
+    }
+
+    public Long getPresenceId() {
+        return presenceId;
+    }
+
+    public void setPresenceId(Long presenceId) {
+        this.presenceId = presenceId;
+    }
+
+    public StatutPresence getStatutPresence() {
+        return statutPresence;
+    }
+
+    public void setStatutPresence(StatutPresence statutPresence) {
+        this.statutPresence = statutPresence;
+    }
+
+    public LocalDateTime getHeureValidation() {
+        return heureValidation;
+    }
+
+    public void setHeureValidation(LocalDateTime heureValidation) {
+        this.heureValidation = heureValidation;
+    }
+
+    public String getCommentaire() {
+        return commentaire;
+    }
+
+    public void setCommentaire(String commentaire) {
+        this.commentaire = commentaire;
+    }
+}
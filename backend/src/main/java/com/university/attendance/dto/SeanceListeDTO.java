@@ -0,0 +1,188 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.university.attendance.model.StatutSeance;
+import com.university.attendance.model.TypeSeance;
+
+/**
+ * DTO d'une séance telle qu'affichée dans les listes (tableau de bord enseignant, séances d'un groupe)
+ * Seuls les champs utiles aux vues sont sélectionnés : ni entités liées, ni graphe JSON imbriqué
+ */
+public class SeanceListeDTO {
+
+    private Long id;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private String salle;
+    private TypeSeance typeSeance;
+    private StatutSeance statut;
+    private Boolean seanceActive;
+    private String commentaire;
+    private Long matiereId;
+    private String matiereNom;
+    private String matiereCode;
+    private Long formationId;
+    private Long enseignantId;
+    private Long groupeId;
+    private String groupeNom;
+
+    // Renseigné uniquement lorsque les effectifs sont demandés (?inscrits=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nombreInscrits;
+
+    // Constructeurs
+    public SeanceListeDTO() {
+    }
+
+    public SeanceListeDTO(Long id, LocalDateTime dateDebut, LocalDateTime dateFin, String salle,
+                          TypeSeance typeSeance, StatutSeance statut, Boolean seanceActive,
+                          String commentaire, Long matiereId, String matiereNom, String matiereCode,
+                          Long formationId, Long enseignantId, Long groupeId, String groupeNom) {
+        this.id = id;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.salle = salle;
+        this.typeSeance = typeSeance;
+        this.statut = statut;
+        this.seanceActive = seanceActive;
+        this.commentaire = commentaire;
+        this.matiereId = matiereId;
+        this.matiereNom = matiereNom;
+        this.matiereCode = matiereCode;
+        this.formationId = formationId;
+        this.enseignantId = enseignantId;
+        this.groupeId = groupeId;
+        this.groupeNom = groupeNom;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getDateDebut() {
+        return dateDebut;
+    }
+
+    public void setDateDebut(LocalDateTime dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+
+    public LocalDateTime getDateFin() {
+        return dateFin;
+    }
+
+    public void setDateFin(LocalDateTime dateFin) {
+        this.dateFin = dateFin;
+    }
+
+    public String getSalle() {
+        return salle;
+    }
+
+    public void setSalle(String salle) {
+        this.salle = salle;
+    }
+
+    public TypeSeance getTypeSeance() {
+        return typeSeance;
+    }
+
+    public void setTypeSeance(TypeSeance typeSeance) {
+        this.typeSeance = typeSeance;
+    }
+
+    public StatutSeance getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutSeance statut) {
+        this.statut = statut;
+    }
+
+    public Boolean getSeanceActive() {
+        return seanceActive;
+    }
+
+    public void setSeanceActive(Boolean seanceActive) {
+        this.seanceActive = seanceActive;
+    }
+
+    public String getCommentaire() {
+        return commentaire;
+    }
+
+    public void setCommentaire(String commentaire) {
+        this.commentaire = commentaire;
+    }
+
+    public Long getMatiereId() {
+        return matiereId;
+    }
+
+    public void setMatiereId(Long matiereId) {
+        this.matiereId = matiereId;
+    }
+
+    public String getMatiereNom() {
+        return matiereNom;
+    }
+
+    public void setMatiereNom(String matiereNom) {
+        this.matiereNom = matiereNom;
+    }
+
+    public String getMatiereCode() {
+        return matiereCode;
+    }
+
+    public void setMatiereCode(String matiereCode) {
+        this.matiereCode = matiereCode;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public Long getEnseignantId() {
+        return enseignantId;
+    }
+
+    public void setEnseignantId(Long enseignantId) {
+        this.enseignantId = enseignantId;
+    }
+
+    public Long getGroupeId() {
+        return groupeId;
+    }
+
+    public void setGroupeId(Long groupeId) {
+        this.groupeId = groupeId;
+    }
+
+    public String getGroupeNom() {
+        return groupeNom;
+    }
+
+    public void setGroupeNom(String groupeNom) {
+        this.groupeNom = groupeNom;
+    }
+
+    public Integer getNombreInscrits() {
+        return nombreInscrits;
+    }
+
+    public void setNombreInscrits(Integer nombreInscrits) {
+        this.nombreInscrits = nombreInscrits;
+    }
+}
@@ -0,0 +1,121 @@
+package com.university.attendance.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO des statistiques d'assiduité agrégées d'un département, d'une formation ou d'une matière
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatistiquesAssiduiteDTO {
+
+    private Long id;
+    private String nom;
+    // Matière uniquement : code et formation
+    private String code;
+    private Long formationId;
+    private long etudiants;
+    private long presents;
+    private long absences;
+    private long retards;
+    private long absencesJustifiees;
+    private long totalSeances;
+    private double tauxPresence;
+
+    // Constructeurs
+    public StatistiquesAssiduiteDTO() {
+    }
+
+    public StatistiquesAssiduiteDTO(Long id, String nom) {
+        this.id = id;
+        this.nom = nom;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public long getEtudiants() {
+        return etudiants;
+    }
+
+    public void setEtudiants(long etudiants) {
+        this.etudiants = etudiants;
+    }
+
+    public long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(long presents) {
+        this.presents = presents;
+    }
+
+    public long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(long absences) {
+        this.absences = absences;
+    }
+
+    public long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(long retards) {
+        this.retards = retards;
+    }
+
+    public long getAbsencesJustifiees() {
+        return absencesJustifiees;
+    }
+
+    public void setAbsencesJustifiees(long absencesJustifiees) {
+        this.absencesJustifiees = absencesJustifiees;
+    }
+
+    public long getTotalSeances() {
+        return totalSeances;
+    }
+
+    public void setTotalSeances(long totalSeances) {
+        this.totalSeances = totalSeances;
+    }
+
+    public double getTauxPresence() {
+        return tauxPresence;
+    }
+
+    public void setTauxPresence(double tauxPresence) {
+        this.tauxPresence = tauxPresence;
+    }
+}
@@ -0,0 +1,62 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO du tableau de bord d'assiduité d'un département (lu dans l'instantané matérialisé)
+ */
+public class TableauDeBordDepartementDTO {
+
+    private Long departementId;
+    // Date du calcul de l'instantané servi
+    private LocalDateTime donneesAu;
+    private StatistiquesAssiduiteDTO departement;
+    private List<StatistiquesAssiduiteDTO> formations;
+    private List<StatistiquesAssiduiteDTO> matieres;
+
+    // Constructeurs
+    public TableauDeBordDepartementDTO() {
+    }
+
+    // Getters et Setters
+    public Long getDepartementId() {
+        return departementId;
+    }
+
+    public void setDepartementId(Long departementId) {
+        this.departementId = departementId;
+    }
+
+    public LocalDateTime getDonneesAu() {
+        return donneesAu;
+    }
+
+    public void setDonneesAu(LocalDateTime donneesAu) {
+        this.donneesAu = donneesAu;
+    }
+
+    public StatistiquesAssiduiteDTO getDepartement() {
+        return departement;
+    }
+
+    public void setDepartement(StatistiquesAssiduiteDTO departement) {
+        this.departement = departement;
+    }
+
+    public List<StatistiquesAssiduiteDTO> getFormations() {
+        return formations;
+    }
+
+    public void setFormations(List<StatistiquesAssiduiteDTO> formations) {
+        this.formations = formations;
+    }
+
+    public List<StatistiquesAssiduiteDTO> getMatieres() {
+        return matieres;
+    }
+
+    public void setMatieres(List<StatistiquesAssiduiteDTO> matieres) {
+        this.matieres = matieres;
+    }
+}
@@ -0,0 +1,96 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO d'une période (jour ou semaine) de la tendance d'assiduité.
+ * Les taux sont absents pour une période sans aucune présence enregistrée.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TendancePresenceDTO {
+
+    private LocalDate debut;
+    private LocalDate fin;
+    private long presents;
+    private long absences;
+    private long retards;
+    private long total;
+    private Double tauxPresence;
+    private Double tauxAbsence;
+
+    // Constructeurs
+    public TendancePresenceDTO() {
+    }
+
+    public TendancePresenceDTO(LocalDate debut, LocalDate fin) {
+        this.debut = debut;
+        this.fin = fin;
+    }
+
+    // Getters et Setters
+    public LocalDate getDebut() {
+        return debut;
+    }
+
+    public void setDebut(LocalDate debut) {
+        this.debut = debut;
+    }
+
+    public LocalDate getFin() {
+        return fin;
+    }
+
+    public void setFin(LocalDate fin) {
+        this.fin = fin;
+    }
+
+    public long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(long presents) {
+        this.presents = presents;
+    }
+
+    public long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(long absences) {
+        this.absences = absences;
+    }
+
+    public long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(long retards) {
+        this.retards = retards;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Double getTauxPresence() {
+        return tauxPresence;
+    }
+
+    public void setTauxPresence(Double tauxPresence) {
+        this.tauxPresence = tauxPresence;
+    }
+
+    public Double getTauxAbsence() {
+        return tauxAbsence;
+    }
+
+    public void setTauxAbsence(Double tauxAbsence) {
+        this.tauxAbsence = tauxAbsence;
+    }
+}
@@ -0,0 +1,73 @@
+package com.university.attendance.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.university.attendance.model.StatutPresence;
+
+/**
+ * DTO retourné à l'étudiant après la validation de son code de présence
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ValidationPresenceDTO {
+
+    private Long seanceId;
+    private Long etudiantId;
+    private StatutPresence statut;
+    private LocalDateTime heureValidation;
+    // Vrai si la présence avait déjà été enregistrée par un envoi précédent
+    private boolean dejaEnregistree;
+
+    // Constructeurs
+    public ValidationPresenceDTO() {
+    }
+
+    public ValidationPresenceDTO(Long seanceId, Long etudiantId, StatutPresence statut,
+                                 LocalDateTime heureValidation) {
+        this.seanceId = seanceId;
+        this.etudiantId = etudiantId;
+        this.statut = statut;
+        this.heureValidation = heureValidation;
+    }
+
+    // Getters et Setters
+    public Long getSeanceId() {
+        return seanceId;
+    }
+
+    public void setSeanceId(Long seanceId) {
+        this.seanceId = seanceId;
+    }
+
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public StatutPresence getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutPresence statut) {
+        this.statut = statut;
+    }
+
+    public LocalDateTime getHeureValidation() {
+        return heureValidation;
+    }
+
+    public void setHeureValidation(LocalDateTime heureValidation) {
+        this.heureValidation = heureValidation;
+    }
+
+    public boolean isDejaEnregistree() {
+        return dejaEnregistree;
+    }
+
+    public void setDejaEnregistree(boolean dejaEnregistree) {
+        this.dejaEnregistree = dejaEnregistree;
+    }
+}
@@ -4,20 +4,41 @@ import jakarta.persistence.*;
 
 /**
  * Entité représentant un avertissement académique pour absences excessives
+ * Un seul avertissement par étudiant et par matière (contrainte unique, voir V4__avertissement_unique.sql)
  */
 @Entity
-@Table(name = "avertissements")
+// Plan de chargement des avertissements renvoyés par l'API : étudiant, matière et créateur,
+// jusqu'aux formations et départements sérialisés
+@NamedEntityGraph(name = "Avertissement.liste",
+        attributeNodes = {
+                @NamedAttributeNode(value = "etudiant", subgraph = "utilisateur"),
+                @NamedAttributeNode(value = "matiere", subgraph = "matiere"),
+                @NamedAttributeNode(value = "createur", subgraph = "utilisateur")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "matiere", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("enseignant")
+                }),
+                @NamedSubgraph(name = "utilisateur", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("departement")
+                }),
+                @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement"))
+        })
+@Table(name = "avertissements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_avertissements_etudiant_matiere", columnNames = {"etudiant_id", "matiere_id"}))
 public class Avertissement {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "etudiant_id", nullable = false)
     private User etudiant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "matiere_id", nullable = false)
     private Matiere matiere;
 
@@ -33,7 +54,7 @@ public class Avertissement {
     private Boolean automatique = true;
 
     // Personne qui a créé l'avertissement (null si automatique)
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "createur_id")
     private User createur;
 
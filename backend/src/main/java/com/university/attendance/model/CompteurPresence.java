@@ -0,0 +1,127 @@
+package com.university.attendance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Compteurs de présence pré-agrégés par étudiant et par matière.
+ * Maintenus à chaque création / modification / suppression de présence
+ * et à chaque décision sur un justificatif, pour des tableaux de bord en O(1).
+ */
+@Entity
+@Table(name = "compteurs_presence",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"etudiant_id", "matiere_id"}))
+public class CompteurPresence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "etudiant_id", nullable = false)
+    private Long etudiantId;
+
+    @Column(name = "matiere_id", nullable = false)
+    private Long matiereId;
+
+    @Column(nullable = false)
+    private Long presents = 0L;
+
+    @Column(nullable = false)
+    private Long absences = 0L;
+
+    @Column(nullable = false)
+    private Long retards = 0L;
+
+    // Absences couvertes par un justificatif accepté
+    @Column(name = "absences_justifiees", nullable = false)
+    private Long absencesJustifiees = 0L;
+
+    @Column(name = "updated_at")
+    private java.time.LocalDateTime updatedAt;
+
+    // Constructeurs
+    public CompteurPresence() {
+    }
+
+    public CompteurPresence(Long etudiantId, Long matiereId) {
+        this.etudiantId = etudiantId;
+        this.matiereId = matiereId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = java.time.LocalDateTime.now();
+    }
+
+    /**
+     * Nombre total de séances comptabilisées (présences, absences et retards)
+     */
+    public Long getTotalSeances() {
+        return presents + absences + retards;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public Long getMatiereId() {
+        return matiereId;
+    }
+
+    public void setMatiereId(Long matiereId) {
+        this.matiereId = matiereId;
+    }
+
+    public Long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(Long presents) {
+        this.presents = presents;
+    }
+
+    public Long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(Long absences) {
+        this.absences = absences;
+    }
+
+    public Long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(Long retards) {
+        this.retards = retards;
+    }
+
+    public Long getAbsencesJustifiees() {
+        return absencesJustifiees;
+    }
+
+    public void setAbsencesJustifiees(Long absencesJustifiees) {
+        this.absencesJustifiees = absencesJustifiees;
+    }
+
+    public java.time.LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(java.time.LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,12 +1,18 @@
 package com.university.attendance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entité représentant un département universitaire
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Donnée de référence : conservée dans le cache de second niveau (voir CacheReferentielConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "referentiel.departements")
 @Table(name = "departements")
 public class Departement {
 
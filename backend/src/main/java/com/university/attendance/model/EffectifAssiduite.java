@@ -0,0 +1,76 @@
+package com.university.attendance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Instantané du nombre d'étudiants distincts suivis dans une formation, ou dans tout un département
+ * (formationId null). Table recalculée en bloc avec les statistiques d'assiduité par matière.
+ */
+@Entity
+@Table(name = "effectifs_assiduite",
+       indexes = @Index(name = "idx_effectifs_assiduite_departement", columnList = "departement_id"))
+public class EffectifAssiduite {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "departement_id", nullable = false)
+    private Long departementId;
+
+    // Null pour le total du département
+    @Column(name = "formation_id")
+    private Long formationId;
+
+    // Étudiants ayant au moins une présence, absence ou retard dans une matière du périmètre
+    @Column(nullable = false)
+    private Long etudiants;
+
+    @Column(name = "calcule_le", nullable = false)
+    private java.time.LocalDateTime calculeLe;
+
+    // Constructeurs
+    public EffectifAssiduite() {
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDepartementId() {
+        return departementId;
+    }
+
+    public void setDepartementId(Long departementId) {
+        this.departementId = departementId;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public Long getEtudiants() {
+        return etudiants;
+    }
+
+    public void setEtudiants(Long etudiants) {
+        this.etudiants = etudiants;
+    }
+
+    public java.time.LocalDateTime getCalculeLe() {
+        return calculeLe;
+    }
+
+    public void setCalculeLe(java.time.LocalDateTime calculeLe) {
+        this.calculeLe = calculeLe;
+    }
+}
@@ -1,12 +1,20 @@
 package com.university.attendance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entité représentant une formation universitaire (Licence, Master, etc.)
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des listes de formations : département
+@NamedEntityGraph(name = "Formation.liste", attributeNodes = @NamedAttributeNode("departement"))
+// Donnée de référence : conservée dans le cache de second niveau (voir CacheReferentielConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "referentiel.formations")
 @Table(name = "formations")
 public class Formation {
 
@@ -21,7 +29,7 @@ public class Formation {
     @Column(length = 500)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "departement_id", nullable = false)
     private Departement departement;
 
@@ -1,8 +1,12 @@
 package com.university.attendance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +15,13 @@ import java.util.List;
  * Entité représentant un groupe TD/TP
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des listes de groupes : formation avec son département
+@NamedEntityGraph(name = "Groupe.liste",
+        attributeNodes = @NamedAttributeNode(value = "formation", subgraph = "formation"),
+        subgraphs = @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement")))
+// Donnée de référence : conservée dans le cache de second niveau (voir CacheReferentielConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "referentiel.groupes")
 @Table(name = "groupes")
 public class Groupe {
 
@@ -22,7 +33,7 @@ public class Groupe {
     @Column(nullable = false)
     private String nom;  // Ex: Groupe A, Groupe B, TD1, TP2
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "formation_id", nullable = false)
     @JsonIgnoreProperties({"groupes", "matieres", "etudiants"})
     private Formation formation;
@@ -33,11 +44,16 @@ public class Groupe {
     @Column(nullable = false)
     private Boolean actif = true;
 
-    // Relation avec les affectations d'étudiants
+    // Relation avec les affectations d'étudiants (non sérialisée : une requête par groupe dans les listes,
+    // les affectations se lisent via /api/groupe-etudiants/groupe/{groupeId})
     @OneToMany(mappedBy = "groupe", fetch = FetchType.LAZY)
-    @JsonIgnoreProperties({"groupe"})
+    @JsonIgnore
     private List<GroupeEtudiant> affectations = new ArrayList<>();
 
+    // Effectif renseigné par GroupeService pour les listes (une requête groupée pour tous les groupes)
+    @Transient
+    private Integer nombreEtudiants;
+
     // Constructeurs
     public Groupe() {
     }
@@ -99,9 +115,20 @@ public class Groupe {
 
     /**
      * Retourne le nombre d'étudiants dans le groupe
-     * Calculé dynamiquement à partir des affectations
+     * Effectif renseigné s'il y en a un, sinon calculé à partir des affectations déjà chargées
+     * (null pour un groupe sérialisé avec sa séance ou son affectation, sans effectif)
      */
     public Integer getNombreEtudiants() {
-        return affectations != null ? affectations.size() : 0;
+        if (nombreEtudiants != null) {
+            return nombreEtudiants;
+        }
+        if (affectations == null) {
+            return 0;
+        }
+        return Hibernate.isInitialized(affectations) ? affectations.size() : null;
+    }
+
+    public void setNombreEtudiants(Integer nombreEtudiants) {
+        this.nombreEtudiants = nombreEtudiants;
     }
 }
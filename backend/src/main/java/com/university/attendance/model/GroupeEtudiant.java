@@ -8,19 +8,25 @@ import jakarta.persistence.*;
  * Table de liaison entre User (étudiant) et Groupe
  */
 @Entity
-@Table(name = "groupe_etudiants")
+// Plan de chargement des affectations : étudiant et groupe
+@NamedEntityGraph(name = "GroupeEtudiant.affectation", attributeNodes = {
+        @NamedAttributeNode("etudiant"),
+        @NamedAttributeNode("groupe")
+})
+@Table(name = "groupe_etudiants",
+        indexes = @Index(name = "idx_groupe_etudiants_etudiant_groupe", columnList = "etudiant_id, groupe_id"))
 public class GroupeEtudiant {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "etudiant_id", nullable = false)
     @JsonIgnoreProperties({"formation", "departement", "motDePasse", "actif", "createdAt", "updatedAt"})
     private User etudiant;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "groupe_id", nullable = false)
     @JsonIgnoreProperties({"formation", "etudiants"})
     private Groupe groupe;
@@ -4,20 +4,51 @@ import jakarta.persistence.*;
 
 /**
  * Entité représentant un justificatif d'absence
+ * Un seul justificatif par absence (contrainte unique sur absence_id, qui sert aussi d'index)
  */
 @Entity
-@Table(name = "justificatifs")
+// Plan de chargement des justificatifs renvoyés par l'API : étudiant, validateur et absence avec sa séance
+// (matière, enseignant, groupe), jusqu'aux formations et départements sérialisés
+@NamedEntityGraph(name = "Justificatif.liste",
+        attributeNodes = {
+                @NamedAttributeNode(value = "etudiant", subgraph = "utilisateur"),
+                @NamedAttributeNode(value = "validateur", subgraph = "utilisateur"),
+                @NamedAttributeNode(value = "absence", subgraph = "absence")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "absence", attributeNodes = {
+                        @NamedAttributeNode(value = "etudiant", subgraph = "utilisateur"),
+                        @NamedAttributeNode(value = "seance", subgraph = "seance")
+                }),
+                @NamedSubgraph(name = "seance", attributeNodes = {
+                        @NamedAttributeNode(value = "matiere", subgraph = "matiere"),
+                        @NamedAttributeNode(value = "enseignant", subgraph = "utilisateur"),
+                        @NamedAttributeNode(value = "groupe", subgraph = "groupe")
+                }),
+                @NamedSubgraph(name = "matiere", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("enseignant")
+                }),
+                @NamedSubgraph(name = "utilisateur", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("departement")
+                }),
+                @NamedSubgraph(name = "groupe", attributeNodes = @NamedAttributeNode(value = "formation", subgraph = "formation")),
+                @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement"))
+        })
+@Table(name = "justificatifs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_justificatifs_absence", columnNames = "absence_id"))
 public class Justificatif {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "etudiant_id", nullable = false)
     private User etudiant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "absence_id", nullable = false)
     private Presence absence;  // Référence à l'absence justifiée
 
@@ -33,7 +64,7 @@ public class Justificatif {
     private StatutJustificatif statut = StatutJustificatif.EN_ATTENTE;
 
     // Personne qui a validé/refusé le justificatif
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "validateur_id")
     private User validateur;
 
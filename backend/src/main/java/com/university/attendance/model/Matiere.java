@@ -10,13 +10,28 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entité représentant une matière enseignée
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des listes de matières : formation (avec son département) et enseignant
+@NamedEntityGraph(name = "Matiere.liste",
+        attributeNodes = {
+                @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                @NamedAttributeNode("enseignant")
+        },
+        subgraphs = @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement")))
+// Donnée de référence : conservée dans le cache de second niveau (voir CacheReferentielConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "referentiel.matieres")
 @Table(name = "matieres")
 public class Matiere {
 
@@ -34,11 +49,11 @@ public class Matiere {
     @Column(length = 500)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "formation_id", nullable = false)
     private Formation formation;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "enseignant_id")
     @JsonIgnoreProperties({"motDePasse", "formation", "departement"})
     private User enseignant;
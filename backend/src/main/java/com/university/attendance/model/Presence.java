@@ -1,23 +1,59 @@
 package com.university.attendance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 /**
  * Entité représentant la présence/absence d'un étudiant à une séance
+ * Index (etudiant_id, seance_id) : historique d'un étudiant sans parcourir toute la table
+ * Index (etudiant_id, statut) : absences et statistiques d'un étudiant
+ * Une seule présence par étudiant et par séance (contrainte unique, voir V2__index_chemins_critiques.sql)
  */
 @Entity
-@Table(name = "presences")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des présences renvoyées par l'API : étudiant et séance (matière, enseignant, groupe)
+// avec chaque présence, jusqu'aux formations et départements sérialisés
+@NamedEntityGraph(name = "Presence.historiqueEtudiant",
+        attributeNodes = {
+                @NamedAttributeNode(value = "etudiant", subgraph = "utilisateur"),
+                @NamedAttributeNode(value = "seance", subgraph = "seance")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "seance", attributeNodes = {
+                        @NamedAttributeNode(value = "matiere", subgraph = "matiere"),
+                        @NamedAttributeNode(value = "enseignant", subgraph = "utilisateur"),
+                        @NamedAttributeNode(value = "groupe", subgraph = "groupe")
+                }),
+                @NamedSubgraph(name = "matiere", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("enseignant")
+                }),
+                @NamedSubgraph(name = "utilisateur", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("departement")
+                }),
+                @NamedSubgraph(name = "groupe", attributeNodes = @NamedAttributeNode(value = "formation", subgraph = "formation")),
+                @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement"))
+        })
+@Table(name = "presences",
+        indexes = {
+                @Index(name = "idx_presences_etudiant_seance", columnList = "etudiant_id, seance_id"),
+                @Index(name = "idx_presences_etudiant_statut", columnList = "etudiant_id, statut")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_presences_seance_etudiant", columnNames = {"seance_id", "etudiant_id"}))
 public class Presence {
 
+    // Séquence à allocation groupée : permet à Hibernate d'insérer les présences par lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "presences_seq")
+    @SequenceGenerator(name = "presences_seq", sequenceName = "presences_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seance_id", nullable = false)
     private Seance seance;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "etudiant_id", nullable = false)
     private User etudiant;
 
@@ -1,25 +1,51 @@
 package com.university.attendance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
 /**
  * Entité représentant une séance de cours
+ * Index (date_debut, id), global et par enseignant : historiques parcourus par curseur
  */
 @Entity
-@Table(name = "seances")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des séances renvoyées par l'API : matière, enseignant et groupe en une requête,
+// avec les associations qu'ils sérialisent (formation et département)
+@NamedEntityGraph(name = "Seance.liste",
+        attributeNodes = {
+                @NamedAttributeNode(value = "matiere", subgraph = "matiere"),
+                @NamedAttributeNode(value = "enseignant", subgraph = "utilisateur"),
+                @NamedAttributeNode(value = "groupe", subgraph = "groupe")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "matiere", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("enseignant")
+                }),
+                @NamedSubgraph(name = "utilisateur", attributeNodes = {
+                        @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                        @NamedAttributeNode("departement")
+                }),
+                @NamedSubgraph(name = "groupe", attributeNodes = @NamedAttributeNode(value = "formation", subgraph = "formation")),
+                @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement"))
+        })
+@Table(name = "seances", indexes = {
+        @Index(name = "idx_seances_date_debut_id", columnList = "date_debut, id"),
+        @Index(name = "idx_seances_enseignant_date_debut_id", columnList = "enseignant_id, date_debut, id")
+})
 public class Seance {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "matiere_id", nullable = false)
     @NotNull(message = "La matière est obligatoire")
     private Matiere matiere;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "enseignant_id", nullable = false)
     @NotNull(message = "L'enseignant est obligatoire")
     private User enseignant;
@@ -34,7 +60,7 @@ public class Seance {
 
     // Pour les CM : null (toute la promotion)
     // Pour les TD/TP : groupe spécifique
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "groupe_id")
     private Groupe groupe;
 
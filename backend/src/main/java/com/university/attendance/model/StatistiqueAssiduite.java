@@ -0,0 +1,152 @@
+package com.university.attendance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Instantané des statistiques d'assiduité d'une matière (somme de ses compteurs de présence).
+ * Table recalculée en bloc par StatistiquesAssiduiteService : lecture seule pour le reste de l'application.
+ */
+@Entity
+@Table(name = "statistiques_assiduite",
+       indexes = @Index(name = "idx_statistiques_assiduite_departement", columnList = "departement_id, formation_id"))
+public class StatistiqueAssiduite {
+
+    @Id
+    @Column(name = "matiere_id")
+    private Long matiereId;
+
+    @Column(name = "matiere_nom", nullable = false)
+    private String matiereNom;
+
+    @Column(name = "matiere_code", length = 10)
+    private String matiereCode;
+
+    @Column(name = "formation_id", nullable = false)
+    private Long formationId;
+
+    @Column(name = "formation_nom", nullable = false)
+    private String formationNom;
+
+    @Column(name = "departement_id", nullable = false)
+    private Long departementId;
+
+    // Étudiants ayant au moins une présence, absence ou retard dans la matière
+    @Column(nullable = false)
+    private Long etudiants;
+
+    @Column(nullable = false)
+    private Long presents;
+
+    @Column(nullable = false)
+    private Long absences;
+
+    @Column(nullable = false)
+    private Long retards;
+
+    @Column(name = "absences_justifiees", nullable = false)
+    private Long absencesJustifiees;
+
+    @Column(name = "calcule_le", nullable = false)
+    private java.time.LocalDateTime calculeLe;
+
+    // Constructeurs
+    public StatistiqueAssiduite() {
+    }
+
+    // Getters et Setters
+    public Long getMatiereId() {
+        return matiereId;
+    }
+
+    public void setMatiereId(Long matiereId) {
+        this.matiereId = matiereId;
+    }
+
+    public String getMatiereNom() {
+        return matiereNom;
+    }
+
+    public void setMatiereNom(String matiereNom) {
+        this.matiereNom = matiereNom;
+    }
+
+    public String getMatiereCode() {
+        return matiereCode;
+    }
+
+    public void setMatiereCode(String matiereCode) {
+        this.matiereCode = matiereCode;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public String getFormationNom() {
+        return formationNom;
+    }
+
+    public void setFormationNom(String formationNom) {
+        this.formationNom = formationNom;
+    }
+
+    public Long getDepartementId() {
+        return departementId;
+    }
+
+    public void setDepartementId(Long departementId) {
+        this.departementId = departementId;
+    }
+
+    public Long getEtudiants() {
+        return etudiants;
+    }
+
+    public void setEtudiants(Long etudiants) {
+        this.etudiants = etudiants;
+    }
+
+    public Long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(Long presents) {
+        this.presents = presents;
+    }
+
+    public Long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(Long absences) {
+        this.absences = absences;
+    }
+
+    public Long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(Long retards) {
+        this.retards = retards;
+    }
+
+    public Long getAbsencesJustifiees() {
+        return absencesJustifiees;
+    }
+
+    public void setAbsencesJustifiees(Long absencesJustifiees) {
+        this.absencesJustifiees = absencesJustifiees;
+    }
+
+    public java.time.LocalDateTime getCalculeLe() {
+        return calculeLe;
+    }
+
+    public void setCalculeLe(java.time.LocalDateTime calculeLe) {
+        this.calculeLe = calculeLe;
+    }
+}
@@ -0,0 +1,117 @@
+package com.university.attendance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Instantané des statistiques d'assiduité d'un étudiant, toutes matières confondues (somme de ses compteurs).
+ * Table recalculée en bloc par StatistiquesAssiduiteService : lecture seule pour le reste de l'application.
+ */
+@Entity
+@Table(name = "statistiques_assiduite_etudiants",
+       indexes = {
+           @Index(name = "idx_statistiques_assiduite_etudiants_departement", columnList = "departement_id"),
+           @Index(name = "idx_statistiques_assiduite_etudiants_formation", columnList = "formation_id")
+       })
+public class StatistiqueAssiduiteEtudiant {
+
+    @Id
+    @Column(name = "etudiant_id")
+    private Long etudiantId;
+
+    @Column(name = "formation_id", nullable = false)
+    private Long formationId;
+
+    @Column(name = "departement_id", nullable = false)
+    private Long departementId;
+
+    @Column(nullable = false)
+    private Long presents;
+
+    @Column(nullable = false)
+    private Long absences;
+
+    @Column(nullable = false)
+    private Long retards;
+
+    @Column(name = "absences_justifiees", nullable = false)
+    private Long absencesJustifiees;
+
+    @Column(name = "calcule_le", nullable = false)
+    private java.time.LocalDateTime calculeLe;
+
+    // Constructeurs
+    public StatistiqueAssiduiteEtudiant() {
+    }
+
+    // Getters et Setters
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public Long getFormationId() {
+        return formationId;
+    }
+
+    public void setFormationId(Long formationId) {
+        this.formationId = formationId;
+    }
+
+    public Long getDepartementId() {
+        return departementId;
+    }
+
+    public void setDepartementId(Long departementId) {
+        this.departementId = departementId;
+    }
+
+    public Long getPresents() {
+        return presents;
+    }
+
+    public void setPresents(Long presents) {
+        this.presents = presents;
+    }
+
+    public Long getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(Long absences) {
+        this.absences = absences;
+    }
+
+    public Long getRetards() {
+        return retards;
+    }
+
+    public void setRetards(Long retards) {
+        this.retards = retards;
+    }
+
+    public Long getAbsencesJustifiees() {
+        return absencesJustifiees;
+    }
+
+    public void setAbsencesJustifiees(Long absencesJustifiees) {
+        this.absencesJustifiees = absencesJustifiees;
+    }
+
+    public java.time.LocalDateTime getCalculeLe() {
+        return calculeLe;
+    }
+
+    public void setCalculeLe(java.time.LocalDateTime calculeLe) {
+        this.calculeLe = calculeLe;
+    }
+
+    /**
+     * Nombre total de séances (présences, absences et retards)
+     */
+    public Long getTotalSeances() {
+        return presents + absences + retards;
+    }
+}
@@ -10,6 +10,14 @@ import jakarta.validation.constraints.NotBlank;
  * Peut être un étudiant, enseignant, chef de département ou administrateur
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Plan de chargement des listes d'utilisateurs : formation (avec son département) et département
+@NamedEntityGraph(name = "User.profil",
+        attributeNodes = {
+                @NamedAttributeNode(value = "formation", subgraph = "formation"),
+                @NamedAttributeNode("departement")
+        },
+        subgraphs = @NamedSubgraph(name = "formation", attributeNodes = @NamedAttributeNode("departement")))
 @Table(name = "users")
 public class User {
 
@@ -46,7 +54,7 @@ public class User {
     // Champs spécifiques aux étudiants
     private String numeroEtudiant;  // Numéro unique de l'étudiant
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "formation_id")
     @JsonIgnoreProperties({"etudiants", "matieres", "groupes"})
     private Formation formation;
@@ -54,7 +62,7 @@ public class User {
     // Champs spécifiques aux enseignants
     private String numeroEnseignant;  // Numéro unique de l'enseignant
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "departement_id")
     @JsonIgnoreProperties({"enseignants", "formations"})
     private Departement departement;
@@ -1,10 +1,17 @@
 package com.university.attendance.repository;
 
 import com.university.attendance.model.Avertissement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour l'entité Avertissement
@@ -12,24 +19,41 @@ import java.util.List;
 @Repository
 public interface AvertissementRepository extends JpaRepository<Avertissement, Long> {
 
+    /**
+     * Trouve tous les avertissements, étudiant, matière et créateur chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("Avertissement.liste")
+    List<Avertissement> findAll();
+
+    /**
+     * Trouve un avertissement par son ID, étudiant, matière et créateur chargés
+     */
+    @EntityGraph("Avertissement.liste")
+    Optional<Avertissement> findChargeById(Long id);
+
     /**
      * Trouve tous les avertissements d'un étudiant
      */
+    @EntityGraph("Avertissement.liste")
     List<Avertissement> findByEtudiantId(Long etudiantId);
 
     /**
      * Trouve tous les avertissements d'un étudiant pour une matière
      */
+    @EntityGraph("Avertissement.liste")
     List<Avertissement> findByEtudiantIdAndMatiereId(Long etudiantId, Long matiereId);
 
     /**
      * Trouve tous les avertissements d'une matière
      */
+    @EntityGraph("Avertissement.liste")
     List<Avertissement> findByMatiereId(Long matiereId);
 
     /**
      * Trouve tous les avertissements automatiques
      */
+    @EntityGraph("Avertissement.liste")
     List<Avertissement> findByAutomatique(Boolean automatique);
 
     /**
@@ -41,4 +65,36 @@ public interface AvertissementRepository extends JpaRepository<Avertissement, Lo
      * Compte le nombre d'avertissements d'un étudiant
      */
     Long countByEtudiantId(Long etudiantId);
+
+    /**
+     * Trouve les couples (étudiant, matière) ayant au moins un avertissement
+     * Retourne des paires [etudiantId, matiereId]
+     */
+    @Query("SELECT DISTINCT a.etudiant.id, a.matiere.id FROM Avertissement a")
+    List<Object[]> findEtudiantMatiereAvertis();
+
+    /**
+     * Filtres optionnels de la liste paginée des avertissements (un paramètre null n'applique pas le filtre)
+     */
+    String FILTRES_AVERTISSEMENTS =
+            "WHERE (:etudiantId IS NULL OR a.etudiant.id = :etudiantId) " +
+            "AND (:matiereId IS NULL OR a.matiere.id = :matiereId) " +
+            "AND (:formationId IS NULL OR a.matiere.formation.id = :formationId) " +
+            "AND (:automatique IS NULL OR a.automatique = :automatique) " +
+            "AND (:debut IS NULL OR a.dateAvertissement >= :debut) " +
+            "AND (:fin IS NULL OR a.dateAvertissement < :fin)";
+
+    /**
+     * Trouve une page d'avertissements filtrés, étudiant et matière chargés dans la même requête
+     */
+    @EntityGraph("Avertissement.liste")
+    @Query(value = "SELECT a FROM Avertissement a " + FILTRES_AVERTISSEMENTS,
+           countQuery = "SELECT COUNT(a) FROM Avertissement a " + FILTRES_AVERTISSEMENTS)
+    Page<Avertissement> findPage(@Param("etudiantId") Long etudiantId,
+                                 @Param("matiereId") Long matiereId,
+                                 @Param("formationId") Long formationId,
+                                 @Param("automatique") Boolean automatique,
+                                 @Param("debut") LocalDateTime debut,
+                                 @Param("fin") LocalDateTime fin,
+                                 Pageable pageable);
 }
@@ -0,0 +1,64 @@
+package com.university.attendance.repository;
+
+import com.university.attendance.model.CompteurPresence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository pour l'entité CompteurPresence
+ */
+@Repository
+public interface CompteurPresenceRepository extends JpaRepository<CompteurPresence, Long> {
+
+    /**
+     * Trouve tous les compteurs d'un étudiant (un par matière)
+     */
+    List<CompteurPresence> findByEtudiantId(Long etudiantId);
+
+    /**
+     * Totaux d'un étudiant toutes matières confondues
+     * Retourne une ligne [presents, absences, retards, absencesJustifiees]
+     */
+    @Query("SELECT COALESCE(SUM(c.presents), 0), COALESCE(SUM(c.absences), 0), " +
+           "COALESCE(SUM(c.retards), 0), COALESCE(SUM(c.absencesJustifiees), 0) " +
+           "FROM CompteurPresence c WHERE c.etudiantId = :etudiantId")
+    List<Object[]> sumByEtudiantId(@Param("etudiantId") Long etudiantId);
+
+    /**
+     * Trouve les compteurs ayant au moins une absence non justifiée
+     * Retourne des triplets [etudiantId, matiereId, absencesNonJustifiees]
+     */
+    @Query("SELECT c.etudiantId, c.matiereId, c.absences - c.absencesJustifiees FROM CompteurPresence c " +
+           "WHERE c.absences > c.absencesJustifiees")
+    List<Object[]> findAbsencesNonJustifiees();
+
+    /**
+     * Applique des variations au compteur existant d'un étudiant pour une matière
+     */
+    @Modifying
+    @Query("UPDATE CompteurPresence c SET c.presents = c.presents + :presents, " +
+           "c.absences = c.absences + :absences, c.retards = c.retards + :retards, " +
+           "c.absencesJustifiees = c.absencesJustifiees + :absencesJustifiees, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.etudiantId = :etudiantId AND c.matiereId = :matiereId")
+    int incrementer(@Param("etudiantId") Long etudiantId, @Param("matiereId") Long matiereId,
+                    @Param("presents") long presents, @Param("absences") long absences,
+                    @Param("retards") long retards, @Param("absencesJustifiees") long absencesJustifiees);
+
+    /**
+     * Applique la même variation aux compteurs de plusieurs étudiants pour une matière
+     * (pointages d'une séance, absences de fin de séance)
+     */
+    @Modifying
+    @Query("UPDATE CompteurPresence c SET c.presents = c.presents + :presents, " +
+           "c.absences = c.absences + :absences, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.matiereId = :matiereId AND c.etudiantId IN :etudiantIds")
+    int incrementerPourEtudiants(@Param("matiereId") Long matiereId,
+                                 @Param("etudiantIds") Collection<Long> etudiantIds,
+                                 @Param("presents") long presents, @Param("absences") long absences);
+}
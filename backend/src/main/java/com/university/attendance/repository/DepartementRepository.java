@@ -1,7 +1,10 @@
 package com.university.attendance.repository;
 
 import com.university.attendance.model.Departement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +16,13 @@ import java.util.Optional;
 @Repository
 public interface DepartementRepository extends JpaRepository<Departement, Long> {
 
+    /**
+     * Trouve tous les départements (résultat conservé dans le cache de requêtes)
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Departement> findAll();
+
     /**
      * Trouve un département par son nom
      */
@@ -21,6 +31,7 @@ public interface DepartementRepository extends JpaRepository<Departement, Long>
     /**
      * Trouve tous les départements actifs
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Departement> findByActif(Boolean actif);
 
     /**
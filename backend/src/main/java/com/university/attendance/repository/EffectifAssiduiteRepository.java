@@ -0,0 +1,45 @@
+package com.university.attendance.repository;
+
+import com.university.attendance.model.EffectifAssiduite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'entité EffectifAssiduite
+ */
+@Repository
+public interface EffectifAssiduiteRepository extends JpaRepository<EffectifAssiduite, Long> {
+
+    /**
+     * Trouve les effectifs d'un département et de chacune de ses formations
+     */
+    List<EffectifAssiduite> findByDepartementId(Long departementId);
+
+    /**
+     * Recalcule les effectifs distincts de chaque formation (une requête groupée sur les compteurs).
+     * La table doit avoir été vidée au préalable, dans la même transaction.
+     */
+    @Modifying
+    @Query("INSERT INTO EffectifAssiduite (departementId, formationId, etudiants, calculeLe) " +
+           "SELECT f.departement.id, f.id, COUNT(DISTINCT c.etudiantId), :calculeLe " +
+           "FROM CompteurPresence c JOIN Matiere m ON m.id = c.matiereId JOIN m.formation f " +
+           "GROUP BY f.departement.id, f.id")
+    int recalculerParFormation(@Param("calculeLe") LocalDateTime calculeLe);
+
+    /**
+     * Recalcule les effectifs distincts de chaque département (formationId null) :
+     * un étudiant suivi dans deux formations du département n'est compté qu'une fois
+     */
+    @Modifying
+    @Query("INSERT INTO EffectifAssiduite (departementId, etudiants, calculeLe) " +
+           "SELECT f.departement.id, COUNT(DISTINCT c.etudiantId), :calculeLe " +
+           "FROM CompteurPresence c JOIN Matiere m ON m.id = c.matiereId JOIN m.formation f " +
+           "GROUP BY f.departement.id")
+    int recalculerParDepartement(@Param("calculeLe") LocalDateTime calculeLe);
+}
@@ -1,10 +1,15 @@
 package com.university.attendance.repository;
 
 import com.university.attendance.model.Formation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour l'entité Formation
@@ -12,23 +17,46 @@ import java.util.List;
 @Repository
 public interface FormationRepository extends JpaRepository<Formation, Long> {
 
+    /**
+     * Trouve toutes les formations, département chargé dans la même requête
+     */
+    @Override
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Formation> findAll();
+
+    /**
+     * Trouve une formation par son ID, département chargé
+     */
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Formation> findChargeeById(Long id);
+
     /**
      * Trouve toutes les formations d'un département
      */
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Formation> findByDepartementId(Long departementId);
 
     /**
      * Trouve toutes les formations actives
      */
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Formation> findByActif(Boolean actif);
 
     /**
      * Trouve toutes les formations d'un département actives
      */
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Formation> findByDepartementIdAndActif(Long departementId, Boolean actif);
 
     /**
      * Trouve toutes les formations par niveau
      */
+    @EntityGraph("Formation.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Formation> findByNiveau(Integer niveau);
 }
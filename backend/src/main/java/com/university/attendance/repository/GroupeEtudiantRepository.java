@@ -1,8 +1,10 @@
 package com.university.attendance.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,14 +19,29 @@ import com.university.attendance.model.User;
 @Repository
 public interface GroupeEtudiantRepository extends JpaRepository<GroupeEtudiant, Long> {
 
+    /**
+     * Trouve toutes les affectations, étudiant et groupe chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("GroupeEtudiant.affectation")
+    List<GroupeEtudiant> findAll();
+
+    /**
+     * Trouve une affectation par son ID, étudiant et groupe chargés
+     */
+    @EntityGraph("GroupeEtudiant.affectation")
+    Optional<GroupeEtudiant> findChargeeById(Long id);
+
     /**
      * Trouve tous les groupes d'un étudiant
      */
+    @EntityGraph("GroupeEtudiant.affectation")
     List<GroupeEtudiant> findByEtudiantId(Long etudiantId);
 
     /**
      * Trouve tous les étudiants d'un groupe
      */
+    @EntityGraph("GroupeEtudiant.affectation")
     List<GroupeEtudiant> findByGroupeId(Long groupeId);
 
     /**
@@ -60,5 +77,33 @@ public interface GroupeEtudiantRepository extends JpaRepository<GroupeEtudiant,
      */
     @Query("SELECT u FROM User u WHERE u.formation.id = :formationId AND u.role = 'ETUDIANT' AND u.actif = true")
     List<User> findEtudiantsByFormationId(@Param("formationId") Long formationId);
-    
+
+    /**
+     * Récupère uniquement les IDs des étudiants actifs d'un groupe (pour les TD/TP)
+     */
+    @Query("SELECT ge.etudiant.id FROM GroupeEtudiant ge " +
+           "WHERE ge.groupe.id = :groupeId AND ge.etudiant.role = 'ETUDIANT' AND ge.etudiant.actif = true")
+    List<Long> findEtudiantIdsActifsByGroupeId(@Param("groupeId") Long groupeId);
+
+    /**
+     * Compte les étudiants actifs d'un groupe, sans charger les entités
+     */
+    @Query("SELECT COUNT(ge) FROM GroupeEtudiant ge " +
+           "WHERE ge.groupe.id = :groupeId AND ge.etudiant.role = 'ETUDIANT' AND ge.etudiant.actif = true")
+    long countEtudiantsActifsByGroupeId(@Param("groupeId") Long groupeId);
+
+    /**
+     * Compte les étudiants actifs de plusieurs groupes en une seule requête groupée
+     * Retourne des lignes [groupeId, nombre] (les groupes sans étudiant sont absents)
+     */
+    @Query("SELECT ge.groupe.id, COUNT(ge) FROM GroupeEtudiant ge WHERE ge.groupe.id IN :groupeIds " +
+           "AND ge.etudiant.role = 'ETUDIANT' AND ge.etudiant.actif = true GROUP BY ge.groupe.id")
+    List<Object[]> countEtudiantsActifsByGroupeIds(@Param("groupeIds") Collection<Long> groupeIds);
+
+    /**
+     * Compte les affectations de plusieurs groupes en une seule requête groupée
+     * Retourne des lignes [groupeId, nombre] (les groupes sans affectation sont absents)
+     */
+    @Query("SELECT ge.groupe.id, COUNT(ge) FROM GroupeEtudiant ge WHERE ge.groupe.id IN :groupeIds GROUP BY ge.groupe.id")
+    List<Object[]> countByGroupeIds(@Param("groupeIds") Collection<Long> groupeIds);
 }
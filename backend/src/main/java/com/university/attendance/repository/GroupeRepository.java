@@ -1,10 +1,15 @@
 package com.university.attendance.repository;
 
 import com.university.attendance.model.Groupe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour l'entité Groupe
@@ -12,18 +17,39 @@ import java.util.List;
 @Repository
 public interface GroupeRepository extends JpaRepository<Groupe, Long> {
 
+    /**
+     * Trouve tous les groupes, formation chargée dans la même requête
+     */
+    @Override
+    @EntityGraph("Groupe.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Groupe> findAll();
+
+    /**
+     * Trouve un groupe par son ID, formation chargée
+     */
+    @EntityGraph("Groupe.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Groupe> findChargeById(Long id);
+
     /**
      * Trouve tous les groupes d'une formation
      */
+    @EntityGraph("Groupe.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Groupe> findByFormationId(Long formationId);
 
     /**
      * Trouve tous les groupes actifs
      */
+    @EntityGraph("Groupe.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Groupe> findByActif(Boolean actif);
 
     /**
      * Trouve tous les groupes actifs d'une formation
      */
+    @EntityGraph("Groupe.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Groupe> findByFormationIdAndActif(Long formationId, Boolean actif);
 }
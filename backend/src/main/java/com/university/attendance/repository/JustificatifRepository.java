@@ -1,8 +1,15 @@
 package com.university.attendance.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.university.attendance.model.Justificatif;
@@ -14,29 +21,47 @@ import com.university.attendance.model.StatutJustificatif;
 @Repository
 public interface JustificatifRepository extends JpaRepository<Justificatif, Long> {
 
+    /**
+     * Trouve tous les justificatifs, étudiant, validateur et absence (séance, matière) chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("Justificatif.liste")
+    List<Justificatif> findAll();
+
+    /**
+     * Trouve un justificatif par son ID, étudiant, absence et validateur chargés
+     */
+    @EntityGraph("Justificatif.liste")
+    Optional<Justificatif> findChargeById(Long id);
+
     /**
      * Trouve tous les justificatifs d'un étudiant
      */
+    @EntityGraph("Justificatif.liste")
     List<Justificatif> findByEtudiantId(Long etudiantId);
 
     /**
      * Trouve tous les justificatifs par statut
      */
+    @EntityGraph("Justificatif.liste")
     List<Justificatif> findByStatut(StatutJustificatif statut);
 
     /**
      * Trouve tous les justificatifs d'un étudiant par statut
      */
+    @EntityGraph("Justificatif.liste")
     List<Justificatif> findByEtudiantIdAndStatut(Long etudiantId, StatutJustificatif statut);
 
     /**
      * Trouve tous les justificatifs en attente
      */
+    @EntityGraph("Justificatif.liste")
     List<Justificatif> findByStatutOrderByCreatedAtAsc(StatutJustificatif statut);
 
     /**
      * Trouve tous les justificatifs traités par un validateur (validateur_id)
      */
+    @EntityGraph("Justificatif.liste")
     List<Justificatif> findByValidateurIdOrderByDateValidationDesc(Long validateurId);
 
     /**
@@ -52,5 +77,29 @@ public interface JustificatifRepository extends JpaRepository<Justificatif, Long
     /**
      * Trouve un justificatif par l'ID de l'absence
      */
-    java.util.Optional<Justificatif> findByAbsenceId(Long absenceId);
+    Optional<Justificatif> findByAbsenceId(Long absenceId);
+
+    /**
+     * Filtres optionnels de la liste paginée des justificatifs (un paramètre null n'applique pas le filtre)
+     * Les dates portent sur le dépôt du justificatif
+     */
+    String FILTRES_JUSTIFICATIFS =
+            "WHERE (:statut IS NULL OR j.statut = :statut) " +
+            "AND (:etudiantId IS NULL OR j.etudiant.id = :etudiantId) " +
+            "AND (:formationId IS NULL OR j.etudiant.formation.id = :formationId) " +
+            "AND (:debut IS NULL OR j.createdAt >= :debut) " +
+            "AND (:fin IS NULL OR j.createdAt < :fin)";
+
+    /**
+     * Trouve une page de justificatifs filtrés, étudiant et absence chargés dans la même requête
+     */
+    @EntityGraph("Justificatif.liste")
+    @Query(value = "SELECT j FROM Justificatif j " + FILTRES_JUSTIFICATIFS,
+           countQuery = "SELECT COUNT(j) FROM Justificatif j " + FILTRES_JUSTIFICATIFS)
+    Page<Justificatif> findPage(@Param("statut") StatutJustificatif statut,
+                                @Param("etudiantId") Long etudiantId,
+                                @Param("formationId") Long formationId,
+                                @Param("debut") LocalDateTime debut,
+                                @Param("fin") LocalDateTime fin,
+                                Pageable pageable);
 }
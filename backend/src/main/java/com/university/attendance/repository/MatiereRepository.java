@@ -1,7 +1,11 @@
 package com.university.attendance.repository;
 
 import com.university.attendance.model.Matiere;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,24 +17,47 @@ import java.util.Optional;
 @Repository
 public interface MatiereRepository extends JpaRepository<Matiere, Long> {
 
+    /**
+     * Trouve toutes les matières, formation et enseignant chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Matiere> findAll();
+
+    /**
+     * Trouve une matière par son ID, formation et enseignant chargés
+     */
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Matiere> findChargeeById(Long id);
+
     /**
      * Trouve une matière par son code
      */
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Matiere> findByCode(String code);
 
     /**
      * Trouve toutes les matières d'une formation
      */
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Matiere> findByFormationId(Long formationId);
 
     /**
      * Trouve toutes les matières actives
      */
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Matiere> findByActif(Boolean actif);
 
     /**
      * Trouve toutes les matières actives d'une formation
      */
+    @EntityGraph("Matiere.liste")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Matiere> findByFormationIdAndActif(Long formationId, Boolean actif);
 
     /**
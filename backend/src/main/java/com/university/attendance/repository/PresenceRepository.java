@@ -1,12 +1,17 @@
 package com.university.attendance.repository;
 
+import com.university.attendance.dto.PresenceSeanceDTO;
 import com.university.attendance.model.Presence;
 import com.university.attendance.model.StatutPresence;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +26,16 @@ public interface PresenceRepository extends JpaRepository<Presence, Long> {
      */
     List<Presence> findBySeanceId(Long seanceId);
 
+    /**
+     * Trouve une présence par son ID, étudiant et séance chargés
+     */
+    @EntityGraph("Presence.historiqueEtudiant")
+    Optional<Presence> findChargeeById(Long id);
+
     /**
      * Trouve toutes les présences d'un étudiant
      */
+    @EntityGraph("Presence.historiqueEtudiant")
     List<Presence> findByEtudiantId(Long etudiantId);
 
     /**
@@ -34,6 +46,7 @@ public interface PresenceRepository extends JpaRepository<Presence, Long> {
     /**
      * Trouve toutes les absences d'un étudiant
      */
+    @EntityGraph("Presence.historiqueEtudiant")
     List<Presence> findByEtudiantIdAndStatut(Long etudiantId, StatutPresence statut);
 
     /**
@@ -71,9 +84,106 @@ public interface PresenceRepository extends JpaRepository<Presence, Long> {
      */
     boolean existsBySeanceIdAndEtudiantId(Long seanceId, Long etudiantId);
 
+    /**
+     * Récupère les IDs des étudiants ayant déjà une présence enregistrée pour une séance
+     */
+    @Query("SELECT p.etudiant.id FROM Presence p WHERE p.seance.id = :seanceId")
+    List<Long> findEtudiantIdsBySeanceId(@Param("seanceId") Long seanceId);
+
+    /**
+     * Agrège toutes les présences par étudiant et par matière (reconstruction des compteurs)
+     * Retourne des lignes [etudiantId, matiereId, presents, absences, retards, absencesJustifiees]
+     */
+    @Query("SELECT p.etudiant.id, p.seance.matiere.id, " +
+           "SUM(CASE WHEN p.statut = 'PRESENT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'ABSENT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'RETARD' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'ABSENT' AND EXISTS (SELECT j.id FROM Justificatif j " +
+           "WHERE j.absence.id = p.id AND j.statut = 'ACCEPTE') THEN 1 ELSE 0 END) " +
+           "FROM Presence p GROUP BY p.etudiant.id, p.seance.matiere.id")
+    List<Object[]> aggregateByEtudiantAndMatiere();
+
+    /**
+     * Agrège les présences d'une séance par étudiant (changement de matière de la séance)
+     * Retourne des lignes [etudiantId, presents, absences, retards, absencesJustifiees]
+     */
+    @Query("SELECT p.etudiant.id, " +
+           "SUM(CASE WHEN p.statut = 'PRESENT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'ABSENT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'RETARD' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.statut = 'ABSENT' AND EXISTS (SELECT j.id FROM Justificatif j " +
+           "WHERE j.absence.id = p.id AND j.statut = 'ACCEPTE') THEN 1 ELSE 0 END) " +
+           "FROM Presence p WHERE p.seance.id = :seanceId GROUP BY p.etudiant.id")
+    List<Object[]> aggregateBySeanceIdGroupByEtudiant(@Param("seanceId") Long seanceId);
+
     /**
      * Trouve toutes les absences non justifiées d'un étudiant
      */
     @Query("SELECT p FROM Presence p WHERE p.etudiant.id = :etudiantId AND p.statut = 'ABSENT' AND NOT EXISTS (SELECT j FROM Justificatif j WHERE j.absence.id = p.id AND j.statut = 'ACCEPTE')")
     List<Presence> findAbsencesNonJustifiees(@Param("etudiantId") Long etudiantId);
+
+    /**
+     * Présences d'une séance sous forme compacte, sans charger les entités
+     * Retourne des lignes [etudiantId, prenom, nom, statut, heureValidation]
+     */
+    @Query("SELECT p.etudiant.id, p.etudiant.prenom, p.etudiant.nom, p.statut, p.heureValidation " +
+           "FROM Presence p WHERE p.seance.id = :seanceId ORDER BY p.heureValidation")
+    List<Object[]> findPointagesBySeanceId(@Param("seanceId") Long seanceId);
+
+    /**
+     * Filtres optionnels des présences d'un étudiant (un paramètre null n'applique pas le filtre)
+     * Les dates portent sur le début de la séance
+     */
+    String FILTRES_PRESENCES_ETUDIANT =
+            "WHERE p.etudiant.id = :etudiantId " +
+            "AND (:statut IS NULL OR p.statut = :statut) " +
+            "AND (:matiereId IS NULL OR p.seance.matiere.id = :matiereId) " +
+            "AND (:debut IS NULL OR p.seance.dateDebut >= :debut) " +
+            "AND (:fin IS NULL OR p.seance.dateDebut < :fin)";
+
+    /**
+     * Trouve une page des présences d'un étudiant, séance chargée dans la même requête
+     */
+    @EntityGraph("Presence.historiqueEtudiant")
+    @Query(value = "SELECT p FROM Presence p " + FILTRES_PRESENCES_ETUDIANT,
+           countQuery = "SELECT COUNT(p) FROM Presence p " + FILTRES_PRESENCES_ETUDIANT)
+    Page<Presence> findPageByEtudiantId(@Param("etudiantId") Long etudiantId,
+                                        @Param("statut") StatutPresence statut,
+                                        @Param("matiereId") Long matiereId,
+                                        @Param("debut") LocalDateTime debut,
+                                        @Param("fin") LocalDateTime fin,
+                                        Pageable pageable);
+
+    /**
+     * Première page de l'historique des présences d'un étudiant, trié par (dateDebut, id) de la séance
+     * Un étudiant n'a qu'une présence par séance : le couple identifie la ligne
+     */
+    @EntityGraph("Presence.historiqueEtudiant")
+    @Query("SELECT p FROM Presence p " +
+           "WHERE p.etudiant.id = :etudiantId " +
+           "ORDER BY p.seance.dateDebut DESC, p.seance.id DESC")
+    List<Presence> findHistoriqueEtudiant(@Param("etudiantId") Long etudiantId, Pageable pageable);
+
+    /**
+     * Page suivante de l'historique d'un étudiant : présences des séances strictement avant le curseur
+     */
+    @EntityGraph("Presence.historiqueEtudiant")
+    @Query("SELECT p FROM Presence p " +
+           "WHERE p.etudiant.id = :etudiantId " +
+           "AND (p.seance.dateDebut < :dateDebut OR (p.seance.dateDebut = :dateDebut AND p.seance.id < :id)) " +
+           "ORDER BY p.seance.dateDebut DESC, p.seance.id DESC")
+    List<Presence> findHistoriqueEtudiantApres(@Param("etudiantId") Long etudiantId,
+                                               @Param("dateDebut") LocalDateTime dateDebut,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    /**
+     * Feuille de présence d'une séance : une ligne par étudiant, triée par nom
+     * Seules les colonnes affichées sont lues (ni l'étudiant ni la séance ne sont chargés)
+     */
+    @Query("SELECT new com.university.attendance.dto.PresenceSeanceDTO(" +
+           "p.id, e.id, e.nom, e.prenom, e.numeroEtudiant, p.statut, p.heureValidation, " +
+           "p.modificationManuelle, p.commentaire) " +
+           "FROM Presence p JOIN p.etudiant e WHERE p.seance.id = :seanceId ORDER BY e.nom, e.prenom, e.id")
+    List<PresenceSeanceDTO> findFeuilleBySeanceId(@Param("seanceId") Long seanceId);
 }
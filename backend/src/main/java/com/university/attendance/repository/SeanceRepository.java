@@ -1,8 +1,15 @@
 package com.university.attendance.repository;
 
+import com.university.attendance.dto.SeanceEtudiantDTO;
+import com.university.attendance.dto.SeanceListeDTO;
 import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutSeance;
 import com.university.attendance.model.TypeSeance;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,19 +24,36 @@ import java.util.Optional;
 @Repository
 public interface SeanceRepository extends JpaRepository<Seance, Long> {
 
+    /**
+     * Trouve toutes les séances, matière, enseignant et groupe chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("Seance.liste")
+    List<Seance> findAll();
+
+    /**
+     * Trouve une séance par son ID, matière, enseignant et groupe chargés
+     * Utilisable hors transaction (rechargement du registre des séances actives)
+     */
+    @EntityGraph("Seance.liste")
+    Optional<Seance> findChargeeById(Long id);
+
     /**
      * Trouve toutes les séances d'une matière
      */
+    @EntityGraph("Seance.liste")
     List<Seance> findByMatiereId(Long matiereId);
 
     /**
      * Trouve toutes les séances d'un enseignant
      */
+    @EntityGraph("Seance.liste")
     List<Seance> findByEnseignantId(Long enseignantId);
 
     /**
      * Trouve toutes les séances d'un groupe
      */
+    @EntityGraph("Seance.liste")
     List<Seance> findByGroupeId(Long groupeId);
 
     /**
@@ -45,6 +69,7 @@ public interface SeanceRepository extends JpaRepository<Seance, Long> {
     /**
      * Trouve toutes les séances non annulées d'un enseignant
      */
+    @EntityGraph("Seance.liste")
     List<Seance> findByEnseignantIdAndAnnulee(Long enseignantId, Boolean annulee);
 
     /**
@@ -89,4 +114,112 @@ public interface SeanceRepository extends JpaRepository<Seance, Long> {
      */
     @Query("SELECT s FROM Seance s WHERE :now BETWEEN s.dateDebut AND s.dateFin AND s.annulee = false")
     List<Seance> findCurrentSeances(@Param("now") LocalDateTime now);
+
+    /**
+     * Remplace le code dynamique d'une séance uniquement si elle est encore active
+     * Utilisé par la rotation planifiée des codes
+     */
+    @Modifying
+    @Query("UPDATE Seance s SET s.codeDynamique = :code, s.codeExpiration = :expiration " +
+           "WHERE s.id = :id AND s.seanceActive = true")
+    int updateCodeSiActive(@Param("id") Long id, @Param("code") String code,
+                           @Param("expiration") LocalDateTime expiration);
+
+    /**
+     * Condition d'inscription d'un étudiant (:etudiantId) à une séance s de matière m
+     */
+    String INSCRIPTION_ETUDIANT =
+            "((s.typeSeance = 'CM' AND m.formation.id = " +
+            "(SELECT u.formation.id FROM User u WHERE u.id = :etudiantId)) " +
+            "OR (s.typeSeance = 'TD_TP' AND s.groupe.id IN " +
+            "(SELECT ge.groupe.id FROM GroupeEtudiant ge WHERE ge.etudiant.id = :etudiantId))) ";
+
+    /**
+     * Séances auxquelles un étudiant est inscrit, avec son propre statut de présence
+     * CM : séances des matières de sa formation ; TD/TP : séances de ses groupes (GroupeEtudiant)
+     * Une requête pour la page, une requête de comptage
+     */
+    @Query(value = "SELECT new com.university.attendance.dto.SeanceEtudiantDTO(" +
+                   "s.id, s.dateDebut, s.dateFin, s.salle, s.typeSeance, s.statut, " +
+                   "m.id, m.nom, m.code, e.prenom, e.nom, g.nom, " +
+                   "p.id, p.statut, p.heureValidation, p.commentaire) " +
+                   "FROM Seance s JOIN s.matiere m JOIN s.enseignant e LEFT JOIN s.groupe g " +
+                   "LEFT JOIN Presence p ON p.seance = s AND p.etudiant.id = :etudiantId " +
+                   "WHERE " + INSCRIPTION_ETUDIANT +
+                   "ORDER BY s.dateDebut DESC, s.id DESC",
+           countQuery = "SELECT COUNT(s) FROM Seance s JOIN s.matiere m WHERE " + INSCRIPTION_ETUDIANT)
+    Page<SeanceEtudiantDTO> findSeancesEtudiant(@Param("etudiantId") Long etudiantId, Pageable pageable);
+
+    /**
+     * Filtres optionnels de la liste paginée des séances (un paramètre null n'applique pas le filtre)
+     */
+    String FILTRES_SEANCES =
+            "WHERE (:debut IS NULL OR s.dateDebut >= :debut) " +
+            "AND (:fin IS NULL OR s.dateDebut < :fin) " +
+            "AND (:statut IS NULL OR s.statut = :statut) " +
+            "AND (:formationId IS NULL OR s.matiere.formation.id = :formationId) " +
+            "AND (:enseignantId IS NULL OR s.enseignant.id = :enseignantId)";
+
+    /**
+     * Trouve une page de séances filtrées, matière, enseignant et groupe chargés dans la même requête
+     * Le tri est celui du Pageable ; le total vient d'une requête de comptage sans jointure chargée
+     */
+    @EntityGraph("Seance.liste")
+    @Query(value = "SELECT s FROM Seance s " + FILTRES_SEANCES,
+           countQuery = "SELECT COUNT(s) FROM Seance s " + FILTRES_SEANCES)
+    Page<Seance> findPage(@Param("debut") LocalDateTime debut,
+                          @Param("fin") LocalDateTime fin,
+                          @Param("statut") StatutSeance statut,
+                          @Param("formationId") Long formationId,
+                          @Param("enseignantId") Long enseignantId,
+                          Pageable pageable);
+
+    /**
+     * Projection des listes de séances : colonnes de la séance, nom et code de la matière, nom du groupe
+     */
+    String SELECT_SEANCE_LISTE =
+            "SELECT new com.university.attendance.dto.SeanceListeDTO(" +
+            "s.id, s.dateDebut, s.dateFin, s.salle, s.typeSeance, s.statut, s.seanceActive, s.commentaire, " +
+            "m.id, m.nom, m.code, m.formation.id, s.enseignant.id, g.id, g.nom) " +
+            "FROM Seance s JOIN s.matiere m LEFT JOIN s.groupe g ";
+
+    /**
+     * Trouve les séances d'un enseignant pour l'affichage en liste (incluant les séances annulées)
+     */
+    @Query(SELECT_SEANCE_LISTE + "WHERE s.enseignant.id = :enseignantId ORDER BY s.dateDebut, s.id")
+    List<SeanceListeDTO> findListeByEnseignantId(@Param("enseignantId") Long enseignantId);
+
+    /**
+     * Trouve les séances futures non annulées d'un enseignant pour l'affichage en liste
+     */
+    @Query(SELECT_SEANCE_LISTE + "WHERE s.enseignant.id = :enseignantId AND s.dateDebut > :now " +
+           "AND s.annulee = false ORDER BY s.dateDebut ASC")
+    List<SeanceListeDTO> findListeUpcomingByEnseignant(@Param("enseignantId") Long enseignantId,
+                                                       @Param("now") LocalDateTime now);
+
+    /**
+     * Trouve les séances d'un groupe pour l'affichage en liste
+     */
+    @Query(SELECT_SEANCE_LISTE + "WHERE g.id = :groupeId ORDER BY s.dateDebut, s.id")
+    List<SeanceListeDTO> findListeByGroupeId(@Param("groupeId") Long groupeId);
+
+    /**
+     * Première page de l'historique des séances d'un enseignant, des plus récentes aux plus anciennes
+     * Parcours de l'index (enseignant_id, date_debut, id) ; la taille vient du Pageable
+     */
+    @Query(SELECT_SEANCE_LISTE + "WHERE s.enseignant.id = :enseignantId " +
+           "ORDER BY s.dateDebut DESC, s.id DESC")
+    List<SeanceListeDTO> findHistoriqueEnseignant(@Param("enseignantId") Long enseignantId, Pageable pageable);
+
+    /**
+     * Page suivante de l'historique d'un enseignant : séances strictement avant le curseur (dateDebut, id)
+     * Le coût ne dépend pas de la profondeur, contrairement à un OFFSET
+     */
+    @Query(SELECT_SEANCE_LISTE + "WHERE s.enseignant.id = :enseignantId " +
+           "AND (s.dateDebut < :dateDebut OR (s.dateDebut = :dateDebut AND s.id < :id)) " +
+           "ORDER BY s.dateDebut DESC, s.id DESC")
+    List<SeanceListeDTO> findHistoriqueEnseignantApres(@Param("enseignantId") Long enseignantId,
+                                                       @Param("dateDebut") LocalDateTime dateDebut,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
 }
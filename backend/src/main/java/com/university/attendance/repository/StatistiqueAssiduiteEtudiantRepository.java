@@ -0,0 +1,44 @@
+package com.university.attendance.repository;
+
+import com.university.attendance.model.StatistiqueAssiduiteEtudiant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'entité StatistiqueAssiduiteEtudiant
+ */
+@Repository
+public interface StatistiqueAssiduiteEtudiantRepository extends JpaRepository<StatistiqueAssiduiteEtudiant, Long> {
+
+    /**
+     * Trouve les statistiques des étudiants d'un département
+     */
+    List<StatistiqueAssiduiteEtudiant> findByDepartementId(Long departementId);
+
+    /**
+     * Trouve les statistiques des étudiants d'une formation
+     */
+    List<StatistiqueAssiduiteEtudiant> findByFormationId(Long formationId);
+
+    /**
+     * Recalcule l'instantané de tous les étudiants rattachés à une formation (une requête groupée,
+     * une ligne à zéro pour les étudiants sans compteur).
+     * La table doit avoir été vidée au préalable, dans la même transaction.
+     */
+    @Modifying
+    @Query("INSERT INTO StatistiqueAssiduiteEtudiant (etudiantId, formationId, departementId, presents, absences, " +
+           "retards, absencesJustifiees, calculeLe) " +
+           "SELECT u.id, f.id, f.departement.id, " +
+           "COALESCE(SUM(c.presents), 0), COALESCE(SUM(c.absences), 0), COALESCE(SUM(c.retards), 0), " +
+           "COALESCE(SUM(c.absencesJustifiees), 0), :calculeLe " +
+           "FROM User u JOIN u.formation f LEFT JOIN CompteurPresence c ON c.etudiantId = u.id " +
+           "WHERE u.role = 'ETUDIANT' " +
+           "GROUP BY u.id, f.id, f.departement.id")
+    int recalculer(@Param("calculeLe") LocalDateTime calculeLe);
+}
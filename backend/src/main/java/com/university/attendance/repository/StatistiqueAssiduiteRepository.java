@@ -0,0 +1,37 @@
+package com.university.attendance.repository;
+
+import com.university.attendance.model.StatistiqueAssiduite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'entité StatistiqueAssiduite
+ */
+@Repository
+public interface StatistiqueAssiduiteRepository extends JpaRepository<StatistiqueAssiduite, Long> {
+
+    /**
+     * Trouve les statistiques des matières d'un département, regroupées par formation
+     */
+    List<StatistiqueAssiduite> findByDepartementIdOrderByFormationNomAscMatiereNomAsc(Long departementId);
+
+    /**
+     * Recalcule l'instantané de toutes les matières à partir des compteurs de présence (une requête groupée).
+     * La table doit avoir été vidée au préalable, dans la même transaction.
+     */
+    @Modifying
+    @Query("INSERT INTO StatistiqueAssiduite (matiereId, matiereNom, matiereCode, formationId, formationNom, " +
+           "departementId, etudiants, presents, absences, retards, absencesJustifiees, calculeLe) " +
+           "SELECT m.id, m.nom, m.code, f.id, f.nom, f.departement.id, COUNT(c.id), " +
+           "COALESCE(SUM(c.presents), 0), COALESCE(SUM(c.absences), 0), COALESCE(SUM(c.retards), 0), " +
+           "COALESCE(SUM(c.absencesJustifiees), 0), :calculeLe " +
+           "FROM Matiere m JOIN m.formation f LEFT JOIN CompteurPresence c ON c.matiereId = m.id " +
+           "GROUP BY m.id, m.nom, m.code, f.id, f.nom, f.departement.id")
+    int recalculer(@Param("calculeLe") LocalDateTime calculeLe);
+}
@@ -1,8 +1,12 @@
 package com.university.attendance.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +22,25 @@ import com.university.attendance.model.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Trouve tous les utilisateurs, formation et département chargés dans la même requête
+     */
+    @Override
+    @EntityGraph("User.profil")
+    List<User> findAll();
+
+    /**
+     * Trouve un utilisateur par son ID, formation et département chargés
+     */
+    @EntityGraph("User.profil")
+    Optional<User> findChargeById(Long id);
+
+    /**
+     * Trouve un utilisateur par son email, formation et département chargés
+     */
+    @EntityGraph("User.profil")
+    Optional<User> findChargeByEmail(String email);
+
     /**
      * Trouve un utilisateur par son email
      */
@@ -36,6 +59,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     /**
      * Trouve tous les utilisateurs par rôle
      */
+    @EntityGraph("User.profil")
     List<User> findByRole(Role role);
 
     /**
@@ -46,6 +70,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     /**
      * Trouve tous les utilisateurs actifs par rôle
      */
+    @EntityGraph("User.profil")
     List<User> findByRoleAndActif(Role role, Boolean actif);
 
     /**
@@ -61,26 +86,98 @@ public interface UserRepository extends JpaRepository<User, Long> {
     /**
      * Trouve tous les étudiants d'une formation
      */
+    @EntityGraph("User.profil")
     List<User> findByFormationIdAndRole(Long formationId, Role role);
 
     /**
      * Trouve tous les enseignants d'un département
      */
+    @EntityGraph("User.profil")
     List<User> findByDepartementIdAndRole(Long departementId, Role role);
 
     /**
      * Trouve tous les étudiants actifs d'une formation
      * Utilisé pour les CM (cours magistraux)
      */
+    @EntityGraph("User.profil")
     List<User> findByFormationIdAndRoleAndActif(Long formationId, Role role, Boolean actif);
 
     /**
      * Trouve tous les étudiants d'une formation qui ne sont pas encore affectés à un groupe
      * Utilisé pour l'affectation des étudiants aux groupes (interface secrétariat)
      */
+    @EntityGraph("User.profil")
     @Query("SELECT u FROM User u WHERE u.formation.id = :formationId " +
            "AND u.role = :role " +
            "AND u.actif = true " +
            "AND u.id NOT IN (SELECT ge.etudiant.id FROM GroupeEtudiant ge)")
     List<User> findEtudiantsSansGroupeByFormation(@Param("formationId") Long formationId, @Param("role") Role role);
+
+    /**
+     * Récupère uniquement les IDs des étudiants actifs d'une formation
+     * Utilisé pour construire la liste des inscrits d'une séance CM sans charger les entités
+     */
+    @Query("SELECT u.id FROM User u WHERE u.formation.id = :formationId AND u.role = 'ETUDIANT' AND u.actif = true")
+    List<Long> findIdsEtudiantsActifsByFormationId(@Param("formationId") Long formationId);
+
+    /**
+     * Compte les étudiants actifs d'une formation, sans charger les entités
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.formation.id = :formationId AND u.role = 'ETUDIANT' AND u.actif = true")
+    long countEtudiantsActifsByFormationId(@Param("formationId") Long formationId);
+
+    /**
+     * Compte les étudiants actifs de plusieurs formations en une seule requête groupée
+     * Retourne des lignes [formationId, nombre] (les formations sans étudiant sont absentes)
+     */
+    @Query("SELECT u.formation.id, COUNT(u) FROM User u WHERE u.formation.id IN :formationIds " +
+           "AND u.role = 'ETUDIANT' AND u.actif = true GROUP BY u.formation.id")
+    List<Object[]> countEtudiantsActifsByFormationIds(@Param("formationIds") Collection<Long> formationIds);
+
+    /**
+     * Trouve des utilisateurs par leurs IDs, formation et département chargés dans la même requête
+     */
+    @EntityGraph("User.profil")
+    List<User> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Trouve tous les étudiants actifs des formations d'un département, formation chargée
+     * Utilisé pour la liste des étudiants du chef de département (une seule requête)
+     */
+    @Query("SELECT u FROM User u JOIN FETCH u.formation f LEFT JOIN FETCH u.departement " +
+           "WHERE f.departement.id = :departementId AND u.role = 'ETUDIANT' AND u.actif = true " +
+           "ORDER BY f.id, u.id")
+    List<User> findEtudiantsActifsByDepartementId(@Param("departementId") Long departementId);
+
+    /**
+     * Récupère uniquement l'identifiant, le prénom et le nom d'une liste d'utilisateurs
+     * Retourne des lignes [id, prenom, nom]
+     */
+    @Query("SELECT u.id, u.prenom, u.nom FROM User u WHERE u.id IN :ids")
+    List<Object[]> findNomsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Filtres optionnels de la liste paginée des utilisateurs (un paramètre null n'applique pas le filtre)
+     * :recherche est attendu en minuscules, entouré de %
+     */
+    String FILTRES_UTILISATEURS =
+            "WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (:actif IS NULL OR u.actif = :actif) " +
+            "AND (:formationId IS NULL OR u.formation.id = :formationId) " +
+            "AND (:departementId IS NULL OR u.departement.id = :departementId) " +
+            "AND (:recherche IS NULL OR LOWER(u.nom) LIKE :recherche " +
+            "OR LOWER(u.prenom) LIKE :recherche OR LOWER(u.email) LIKE :recherche)";
+
+    /**
+     * Trouve une page d'utilisateurs filtrés, formation et département chargés dans la même requête
+     */
+    @Query(value = "SELECT u FROM User u LEFT JOIN FETCH u.formation LEFT JOIN FETCH u.departement " +
+                   FILTRES_UTILISATEURS,
+           countQuery = "SELECT COUNT(u) FROM User u " + FILTRES_UTILISATEURS)
+    Page<User> findPage(@Param("role") Role role,
+                        @Param("actif") Boolean actif,
+                        @Param("formationId") Long formationId,
+                        @Param("departementId") Long departementId,
+                        @Param("recherche") String recherche,
+                        Pageable pageable);
 }
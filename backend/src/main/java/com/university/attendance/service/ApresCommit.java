@@ -0,0 +1,28 @@
+package com.university.attendance.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Exécution différée au commit de la transaction courante (immédiate hors transaction).
+ * Utilisé par les caches et agrégats en mémoire : une modification annulée par un rollback
+ * ne doit pas y être appliquée, et un rechargement ne doit pas relire les données d'avant le commit.
+ */
+final class ApresCommit {
+
+    private ApresCommit() {
+    }
+
+    static void executer(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.university.attendance.service;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.dto.RecalculAvertissementsDTO;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Recalcul complet des avertissements automatiques, chaque nuit.
+ * Nécessaire après une modification de Matiere.seuilAbsences ou une décision sur un justificatif
+ * passée avant le démarrage : SeuilAbsencesEngine ne réagit qu'aux nouvelles variations.
+ *
+ * Une seule requête groupée compte les absences non justifiées de chaque couple (étudiant, matière)
+ * sur toute la table presences ; le résultat est comparé aux avertissements existants puis
+ * les avertissements manquants sont insérés et ceux qui ne sont plus justifiés retirés, par lots JDBC.
+ * Les avertissements manuels ne sont jamais retirés et bloquent la création d'un avertissement automatique.
+ * SeuilAbsencesEngine est suspendu pendant le recalcul : aucun avertissement ne peut être inséré par les deux.
+ */
+@Component
+public class AvertissementRecalculScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AvertissementRecalculScheduler.class);
+
+    static final String SELECT_ABSENCES_NON_JUSTIFIEES =
+            "SELECT p.etudiant_id, s.matiere_id, m.seuil_absences, COUNT(*) "
+                    + "FROM presences p "
+                    + "JOIN seances s ON s.id = p.seance_id "
+                    + "JOIN matieres m ON m.id = s.matiere_id "
+                    + "LEFT JOIN justificatifs j ON j.absence_id = p.id AND j.statut = 'ACCEPTE' "
+                    + "WHERE p.statut = 'ABSENT' AND j.id IS NULL "
+                    + "GROUP BY p.etudiant_id, s.matiere_id, m.seuil_absences";
+
+    static final String SELECT_AVERTISSEMENTS =
+            "SELECT id, etudiant_id, matiere_id, automatique FROM avertissements";
+
+    static final String DELETE_AVERTISSEMENT = "DELETE FROM avertissements WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeuilAbsencesEngine seuilAbsencesEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${avertissements.recalcul.batch-size:500}")
+    private int tailleLot;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Recalcul planifié (par défaut à 2h30)
+     */
+    @Scheduled(cron = "${avertissements.recalcul.cron:0 30 2 * * *}")
+    public void recalculPlanifie() {
+        recalculer();
+    }
+
+    /**
+     * Recalcule tous les avertissements automatiques et retourne le bilan
+     */
+    public synchronized RecalculAvertissementsDTO recalculer() {
+        long debut = System.nanoTime();
+
+        RecalculAvertissementsDTO bilan = seuilAbsencesEngine.pendantRecalcul(
+                () -> transactionTemplate.execute(status -> comparerEtCorriger()));
+
+        long dureeNs = Math.max(System.nanoTime() - debut, 1);
+        bilan.setDureeMs(dureeNs / 1_000_000);
+        bilan.setCouplesParSeconde(bilan.getCouplesEvalues() * 1_000_000_000L / dureeNs);
+        log.info("Recalcul des avertissements : {} couple(s) et {} absence(s) lus, {} créé(s), {} retiré(s) "
+                        + "en {} ms ({} couples/s, {} absences/s)",
+                bilan.getCouplesEvalues(), bilan.getAbsencesLues(), bilan.getAvertissementsCrees(),
+                bilan.getAvertissementsRetires(), bilan.getDureeMs(), bilan.getCouplesParSeconde(),
+                bilan.getAbsencesLues() * 1_000_000_000L / dureeNs);
+        return bilan;
+    }
+
+    private RecalculAvertissementsDTO comparerEtCorriger() {
+        // Avertissements existants : identifiants des automatiques, couples couverts par un manuel
+        Map<Couple, List<Long>> automatiques = new HashMap<>();
+        Set<Couple> manuels = new HashSet<>();
+        jdbcTemplate.query(SELECT_AVERTISSEMENTS, (RowCallbackHandler) rs -> {
+            Couple couple = new Couple(rs.getLong(2), rs.getLong(3));
+            if (rs.getBoolean(4)) {
+                automatiques.computeIfAbsent(couple, c -> new ArrayList<>()).add(rs.getLong(1));
+            } else {
+                manuels.add(couple);
+            }
+        });
+
+        // Absences non justifiées par couple, lues en flux
+        Set<Couple> auDessusDuSeuil = new HashSet<>();
+        List<AvertissementACreer> aCreer = new ArrayList<>();
+        long[] lus = new long[2];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_ABSENCES_NON_JUSTIFIEES);
+            ps.setFetchSize(tailleLot);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Couple couple = new Couple(rs.getLong(1), rs.getLong(2));
+            int seuil = rs.getInt(3);
+            int absences = rs.getInt(4);
+            lus[0]++;
+            lus[1] += absences;
+
+            if (absences >= seuil) {
+                auDessusDuSeuil.add(couple);
+                if (!automatiques.containsKey(couple) && !manuels.contains(couple)) {
+                    aCreer.add(new AvertissementACreer(couple, absences, SeuilAbsencesEngine.motif(seuil)));
+                }
+            }
+        });
+
+        List<Long> aRetirer = new ArrayList<>();
+        automatiques.forEach((couple, ids) -> {
+            if (!auDessusDuSeuil.contains(couple)) {
+                aRetirer.addAll(ids);
+            }
+        });
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(SeuilAbsencesEngine.INSERT_AVERTISSEMENT, aCreer, tailleLot, (ps, avertissement) -> {
+            ps.setLong(1, avertissement.couple().etudiantId());
+            ps.setLong(2, avertissement.couple().matiereId());
+            ps.setInt(3, avertissement.nombreAbsences());
+            ps.setString(4, avertissement.motif());
+            ps.setObject(5, maintenant);
+            ps.setObject(6, maintenant);
+        });
+        jdbcTemplate.batchUpdate(DELETE_AVERTISSEMENT, aRetirer, tailleLot, (ps, id) -> ps.setLong(1, id));
+
+        return new RecalculAvertissementsDTO(lus[0], lus[1], aCreer.size(), aRetirer.size(), 0, 0);
+    }
+
+    private record Couple(long etudiantId, long matiereId) {
+    }
+
+    private record AvertissementACreer(Couple couple, int nombreAbsences, String motif) {
+    }
+}
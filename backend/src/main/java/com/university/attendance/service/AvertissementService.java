@@ -7,9 +7,12 @@ import com.university.attendance.repository.AvertissementRepository;
 import com.university.attendance.repository.MatiereRepository;
 import com.university.attendance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +32,9 @@ public class AvertissementService {
     @Autowired
     private MatiereRepository matiereRepository;
 
+    @Autowired
+    private SeuilAbsencesEngine seuilAbsencesEngine;
+
     /**
      * Crée un avertissement manuellement
      */
@@ -52,14 +58,16 @@ public class AvertissementService {
         avertissement.setMotif(motif);
         avertissement.setCreateur(createur);
 
-        return avertissementRepository.save(avertissement);
+        Avertissement savedAvertissement = avertissementRepository.save(avertissement);
+        seuilAbsencesEngine.avertissementCree(etudiantId, matiereId);
+        return savedAvertissement;
     }
 
     /**
      * Obtient un avertissement par son ID
      */
     public Optional<Avertissement> getAvertissementById(Long id) {
-        return avertissementRepository.findById(id);
+        return avertissementRepository.findChargeById(id);
     }
 
     /**
@@ -69,6 +77,16 @@ public class AvertissementService {
         return avertissementRepository.findAll();
     }
 
+    /**
+     * Obtient une page d'avertissements filtrés (étudiant, matière, formation, type, période)
+     */
+    @Transactional(readOnly = true)
+    public Page<Avertissement> getAvertissementsPage(Long etudiantId, Long matiereId, Long formationId,
+                                                     Boolean automatique, LocalDateTime debut, LocalDateTime fin,
+                                                     Pageable pageable) {
+        return avertissementRepository.findPage(etudiantId, matiereId, formationId, automatique, debut, fin, pageable);
+    }
+
     /**
      * Obtient tous les avertissements d'un étudiant
      */
@@ -115,7 +133,16 @@ public class AvertissementService {
      * Supprime un avertissement
      */
     public void deleteAvertissement(Long id) {
-        avertissementRepository.deleteById(id);
+        avertissementRepository.findById(id).ifPresent(avertissement -> {
+            Long etudiantId = avertissement.getEtudiant().getId();
+            Long matiereId = avertissement.getMatiere().getId();
+            avertissementRepository.delete(avertissement);
+
+            // Plus aucun avertissement pour cette matière : le seuil pourra de nouveau en émettre un
+            if (!avertissementRepository.existsByEtudiantIdAndMatiereId(etudiantId, matiereId)) {
+                seuilAbsencesEngine.avertissementSupprime(etudiantId, matiereId);
+            }
+        });
     }
 
     /**
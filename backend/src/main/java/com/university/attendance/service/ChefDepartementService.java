@@ -1,17 +1,22 @@
 package com.university.attendance.service;
 
+import com.university.attendance.dto.TableauDeBordDepartementDTO;
 import com.university.attendance.model.*;
 import com.university.attendance.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Service pour les fonctionnalités spécifiques au Chef de Département
+ * Service pour les fonctionnalités spécifiques au Chef de Département.
+ * Les statistiques d'assiduité sont lues dans l'instantané matérialisé (StatistiquesAssiduiteService)
+ * et accompagnées de leur date de calcul (donneesAu) ; seul l'historique d'un étudiant est lu en direct.
  */
 @Service
+@Transactional(readOnly = true)
 public class ChefDepartementService {
 
     @Autowired
@@ -26,6 +31,9 @@ public class ChefDepartementService {
     @Autowired
     private JustificatifRepository justificatifRepository;
 
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
     /**
      * Récupère tous les étudiants du département du Chef de Département
      */
@@ -39,22 +47,30 @@ public class ChefDepartementService {
 
         Long departementId = chefDepartement.getDepartement().getId();
 
-        // Récupérer toutes les formations du département
-        List<Formation> formations = formationRepository.findByDepartementId(departementId);
-
-        // Récupérer tous les étudiants de ces formations
-        List<User> etudiants = new ArrayList<>();
-        for (Formation formation : formations) {
-            etudiants.addAll(userRepository.findByFormationIdAndRoleAndActif(
-                formation.getId(), Role.ETUDIANT, true));
-        }
+        // Tous les étudiants du département en une requête, puis leurs totaux dans l'instantané
+        List<User> etudiants = userRepository.findEtudiantsActifsByDepartementId(departementId);
+        Map<Long, StatistiqueAssiduiteEtudiant> totaux = statistiquesAssiduiteService.getEtudiantsParDepartement(departementId);
 
         // Construire la réponse avec les statistiques
         return etudiants.stream()
-            .map(this::buildEtudiantSummary)
+            .map(etudiant -> buildEtudiantSummary(etudiant, totaux))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Récupère le tableau de bord d'assiduité du département (instantané matérialisé, avec sa date de calcul)
+     */
+    public TableauDeBordDepartementDTO getTableauDeBord(Long chefDepartementId) {
+        User chefDepartement = userRepository.findById(chefDepartementId)
+            .orElseThrow(() -> new RuntimeException("Chef de département non trouvé"));
+
+        if (chefDepartement.getDepartement() == null) {
+            throw new RuntimeException("Le chef de département n'est rattaché à aucun département");
+        }
+
+        return statistiquesAssiduiteService.getTableauDeBord(chefDepartement.getDepartement().getId());
+    }
+
     /**
      * Récupère les étudiants filtrés par formation
      */
@@ -72,9 +88,10 @@ public class ChefDepartementService {
 
         List<User> etudiants = userRepository.findByFormationIdAndRoleAndActif(
             formationId, Role.ETUDIANT, true);
+        Map<Long, StatistiqueAssiduiteEtudiant> totaux = statistiquesAssiduiteService.getEtudiantsParFormation(formationId);
 
         return etudiants.stream()
-            .map(this::buildEtudiantSummary)
+            .map(etudiant -> buildEtudiantSummary(etudiant, totaux))
             .collect(Collectors.toList());
     }
 
@@ -85,7 +102,7 @@ public class ChefDepartementService {
         User chefDepartement = userRepository.findById(chefDepartementId)
             .orElseThrow(() -> new RuntimeException("Chef de département non trouvé"));
 
-        User etudiant = userRepository.findById(etudiantId)
+        User etudiant = userRepository.findChargeById(etudiantId)
             .orElseThrow(() -> new RuntimeException("Étudiant non trouvé"));
 
         // Vérifier que l'étudiant appartient au département du chef
@@ -99,8 +116,9 @@ public class ChefDepartementService {
 
     /**
      * Construit un résumé de l'étudiant avec statistiques
+     * (totaux de l'instantané, déjà lus pour tous les étudiants de la liste)
      */
-    private Map<String, Object> buildEtudiantSummary(User etudiant) {
+    private Map<String, Object> buildEtudiantSummary(User etudiant, Map<Long, StatistiqueAssiduiteEtudiant> totauxParEtudiant) {
         Map<String, Object> summary = new HashMap<>();
 
         // Informations de base
@@ -120,28 +138,12 @@ public class ChefDepartementService {
             summary.put("formation", formationMap);
         }
 
-        // Statistiques de présence
-        List<Presence> presences = presenceRepository.findByEtudiantId(etudiant.getId());
-        long totalSeances = presences.size();
-        long absences = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.ABSENT)
-            .count();
-        long retards = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.RETARD)
-            .count();
-
-        // Compter absences justifiées vs non justifiées
-        List<Presence> absencesList = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.ABSENT)
-            .collect(Collectors.toList());
-
-        long absencesJustifiees = absencesList.stream()
-            .filter(absence -> {
-                Optional<Justificatif> justif = justificatifRepository.findByAbsenceId(absence.getId());
-                return justif.isPresent() && justif.get().getStatut() == StatutJustificatif.ACCEPTE;
-            })
-            .count();
-
+        // Statistiques de présence, lues dans l'instantané (aucune ligne pour un étudiant créé depuis le dernier calcul)
+        StatistiqueAssiduiteEtudiant totaux = totauxParEtudiant.get(etudiant.getId());
+        long totalSeances = totaux != null ? totaux.getTotalSeances() : 0;
+        long absences = totaux != null ? totaux.getAbsences() : 0;
+        long retards = totaux != null ? totaux.getRetards() : 0;
+        long absencesJustifiees = totaux != null ? totaux.getAbsencesJustifiees() : 0;
         long absencesNonJustifiees = absences - absencesJustifiees;
 
         // Taux de présence
@@ -156,6 +158,7 @@ public class ChefDepartementService {
         stats.put("absencesNonJustifiees", absencesNonJustifiees);
         stats.put("retards", retards);
         stats.put("tauxPresence", Math.round(tauxPresence * 10) / 10.0);
+        stats.put("donneesAu", totaux != null ? totaux.getCalculeLe() : null);
 
         summary.put("statistiques", stats);
 
@@ -186,20 +189,15 @@ public class ChefDepartementService {
             details.put("formation", formationMap);
         }
 
-        // Toutes les présences
+        // Toutes les présences (historique et justificatifs, lus en direct)
         List<Presence> presences = presenceRepository.findByEtudiantId(etudiant.getId());
 
-        // Statistiques globales
-        long totalSeances = presences.size();
-        long presents = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.PRESENT)
-            .count();
-        long absences = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.ABSENT)
-            .count();
-        long retards = presences.stream()
-            .filter(p -> p.getStatut() == StatutPresence.RETARD)
-            .count();
+        // Statistiques globales, lues dans l'instantané
+        Optional<StatistiqueAssiduiteEtudiant> totaux = statistiquesAssiduiteService.getEtudiant(etudiant.getId());
+        long totalSeances = totaux.map(StatistiqueAssiduiteEtudiant::getTotalSeances).orElse(0L);
+        long presents = totaux.map(StatistiqueAssiduiteEtudiant::getPresents).orElse(0L);
+        long absences = totaux.map(StatistiqueAssiduiteEtudiant::getAbsences).orElse(0L);
+        long retards = totaux.map(StatistiqueAssiduiteEtudiant::getRetards).orElse(0L);
 
         double tauxPresence = totalSeances > 0
             ? (presents * 100.0 / totalSeances)
@@ -211,6 +209,7 @@ public class ChefDepartementService {
         statsGlobales.put("absences", absences);
         statsGlobales.put("retards", retards);
         statsGlobales.put("tauxPresence", Math.round(tauxPresence * 10) / 10.0);
+        statsGlobales.put("donneesAu", totaux.map(StatistiqueAssiduiteEtudiant::getCalculeLe).orElse(null));
         details.put("statistiquesGlobales", statsGlobales);
 
         // Historique des présences (limité aux 50 dernières)
@@ -0,0 +1,75 @@
+package com.university.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rotation côté serveur des codes dynamiques.
+ * Toutes les secondes, les séances actives dont le code arrive à expiration
+ * reçoivent un nouveau code en une seule passe et une seule transaction,
+ * puis le code est poussé aux enseignants abonnés via SeanceCodeStream.
+ * Une séance disparue entre-temps est retirée et ses flux (codes et pointages) sont fermés.
+ */
+@Component
+public class CodeRotationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeRotationScheduler.class);
+
+    @Autowired
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private SeanceService seanceService;
+
+    @Autowired
+    private SeanceCodeStream seanceCodeStream;
+
+    @Autowired
+    private PresenceLiveFeed presenceLiveFeed;
+
+    // Un code est renouvelé s'il expire avant le prochain passage
+    @Value("${seance.code.rotation-interval-ms:1000}")
+    private long intervalle;
+
+    /**
+     * Renouvelle les codes expirés ou sur le point d'expirer
+     */
+    @Scheduled(fixedDelayString = "${seance.code.rotation-interval-ms:1000}")
+    public void renouvelerCodes() {
+        LocalDateTime limite = LocalDateTime.now().plusNanos(intervalle * 1_000_000);
+
+        List<Long> seanceIds = seanceActiveRegistry.getAll().stream()
+                .filter(seance -> seance.isCodeExpire(limite))
+                .map(SeanceActiveRegistry.SeanceActive::getSeanceId)
+                .toList();
+        if (seanceIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime expiration = LocalDateTime.now().plusSeconds(SeanceService.CODE_VALIDITY_SECONDS);
+            Map<Long, String> codes = seanceService.renouvelerCodes(seanceIds, expiration);
+            codes.forEach((seanceId, code) -> seanceCodeStream.publierCode(seanceId, code, expiration));
+
+            // Séances arrêtées entre-temps (ou supprimées) : retirées du registre
+            for (Long seanceId : seanceIds) {
+                if (!codes.containsKey(seanceId)) {
+                    seanceActiveRegistry.retirer(seanceId);
+                    seanceCodeStream.terminer(seanceId);
+                    presenceLiveFeed.terminer(seanceId);
+                }
+            }
+            log.debug("Codes renouvelés pour {} séance(s)", codes.size());
+        } catch (RuntimeException e) {
+            log.error("Échec de la rotation des codes pour les séances {}", seanceIds, e);
+        }
+    }
+}
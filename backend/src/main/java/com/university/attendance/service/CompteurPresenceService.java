@@ -0,0 +1,231 @@
+package com.university.attendance.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.university.attendance.model.CompteurPresence;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.repository.CompteurPresenceRepository;
+import com.university.attendance.repository.PresenceRepository;
+
+/**
+ * Service de maintenance des compteurs de présence pré-agrégés (étudiant, matière).
+ * Appelé à chaque création / modification / suppression de présence et à chaque
+ * décision sur un justificatif ; les tableaux de bord lisent ces compteurs au lieu
+ * de parcourir tout l'historique de l'étudiant.
+ * Les variations du nombre d'absences non justifiées sont aussi transmises à SeuilAbsencesEngine.
+ *
+ * Le compteur d'un couple (étudiant, matière) est créé par INSERT ... ON CONFLICT DO NOTHING puis,
+ * s'il existait déjà, incrémenté : deux premières écritures simultanées ne peuvent ni échouer sur la
+ * contrainte unique ni s'écraser. (H2, même en mode PostgreSQL, n'accepte pas ON CONFLICT DO UPDATE.)
+ */
+@Service
+@Transactional
+public class CompteurPresenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompteurPresenceService.class);
+
+    // ON CONFLICT DO NOTHING sans cible : accepté par PostgreSQL et par H2 en mode PostgreSQL
+    static final String INSERT_COMPTEUR =
+            "INSERT INTO compteurs_presence (etudiant_id, matiere_id, presents, absences, retards, "
+                    + "absences_justifiees, updated_at) VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) "
+                    + "ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CompteurPresenceRepository compteurPresenceRepository;
+
+    @Autowired
+    private PresenceRepository presenceRepository;
+
+    @Autowired
+    private SeuilAbsencesEngine seuilAbsencesEngine;
+
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
+    /**
+     * Répercute un changement de statut d'une présence.
+     * ancien = null pour une création, nouveau = null pour une suppression.
+     */
+    public void changerStatut(Long etudiantId, Long matiereId, StatutPresence ancien, StatutPresence nouveau) {
+        if (ancien == nouveau) {
+            return;
+        }
+        long absences = variation(StatutPresence.ABSENT, ancien, nouveau);
+        appliquer(etudiantId, matiereId,
+                variation(StatutPresence.PRESENT, ancien, nouveau),
+                absences,
+                variation(StatutPresence.RETARD, ancien, nouveau),
+                0);
+        seuilAbsencesEngine.variation(matiereId, List.of(etudiantId), (int) absences);
+    }
+
+    /**
+     * Ajoute ou retire une absence justifiée (décision sur un justificatif)
+     */
+    public void changerAbsencesJustifiees(Long etudiantId, Long matiereId, long variation) {
+        appliquer(etudiantId, matiereId, 0, 0, 0, variation);
+        // Une absence justifiée ne compte plus pour le seuil d'avertissement
+        seuilAbsencesEngine.variation(matiereId, List.of(etudiantId), (int) -variation);
+    }
+
+    /**
+     * Ajoute une présence pour chacun des étudiants (pointages d'une séance)
+     */
+    public void ajouterPresents(Long matiereId, Collection<Long> etudiantIds) {
+        ajouterPourEtudiants(matiereId, etudiantIds, 1, 0);
+    }
+
+    /**
+     * Ajoute une absence pour chacun des étudiants (absences de fin de séance)
+     */
+    public void ajouterAbsences(Long matiereId, Collection<Long> etudiantIds) {
+        ajouterPourEtudiants(matiereId, etudiantIds, 0, 1);
+        seuilAbsencesEngine.variation(matiereId, etudiantIds, 1);
+    }
+
+    /**
+     * Transfère les présences d'une séance d'une matière à une autre (modification de la séance) :
+     * chaque statut est retiré des compteurs de l'ancienne matière et ajouté à ceux de la nouvelle
+     */
+    public void transfererSeance(Long seanceId, Long ancienneMatiereId, Long nouvelleMatiereId) {
+        for (Object[] ligne : presenceRepository.aggregateBySeanceIdGroupByEtudiant(seanceId)) {
+            Long etudiantId = (Long) ligne[0];
+            long presents = ((Number) ligne[1]).longValue();
+            long absences = ((Number) ligne[2]).longValue();
+            long retards = ((Number) ligne[3]).longValue();
+            long absencesJustifiees = ((Number) ligne[4]).longValue();
+
+            appliquer(etudiantId, ancienneMatiereId, -presents, -absences, -retards, -absencesJustifiees);
+            appliquer(etudiantId, nouvelleMatiereId, presents, absences, retards, absencesJustifiees);
+
+            int nonJustifiees = (int) (absences - absencesJustifiees);
+            if (nonJustifiees != 0) {
+                seuilAbsencesEngine.variation(ancienneMatiereId, List.of(etudiantId), -nonJustifiees);
+                seuilAbsencesEngine.variation(nouvelleMatiereId, List.of(etudiantId), nonJustifiees);
+            }
+        }
+    }
+
+    /**
+     * Totaux d'un étudiant toutes matières confondues
+     */
+    @Transactional(readOnly = true)
+    public CompteurPresence getTotaux(Long etudiantId) {
+        Object[] ligne = compteurPresenceRepository.sumByEtudiantId(etudiantId).get(0);
+        return toTotaux(etudiantId, ligne, 0);
+    }
+
+    private static CompteurPresence toTotaux(Long etudiantId, Object[] ligne, int debut) {
+        CompteurPresence totaux = new CompteurPresence(etudiantId, null);
+        totaux.setPresents(((Number) ligne[debut]).longValue());
+        totaux.setAbsences(((Number) ligne[debut + 1]).longValue());
+        totaux.setRetards(((Number) ligne[debut + 2]).longValue());
+        totaux.setAbsencesJustifiees(((Number) ligne[debut + 3]).longValue());
+        return totaux;
+    }
+
+    /**
+     * Reconstruit tous les compteurs à partir de la table presences (une requête groupée)
+     */
+    public int reconstruire() {
+        compteurPresenceRepository.deleteAllInBatch();
+
+        List<CompteurPresence> compteurs = new ArrayList<>();
+        for (Object[] ligne : presenceRepository.aggregateByEtudiantAndMatiere()) {
+            CompteurPresence compteur = new CompteurPresence((Long) ligne[0], (Long) ligne[1]);
+            compteur.setPresents(((Number) ligne[2]).longValue());
+            compteur.setAbsences(((Number) ligne[3]).longValue());
+            compteur.setRetards(((Number) ligne[4]).longValue());
+            compteur.setAbsencesJustifiees(((Number) ligne[5]).longValue());
+            compteurs.add(compteur);
+        }
+
+        compteurPresenceRepository.saveAll(compteurs);
+        statistiquesAssiduiteService.marquerModifie();
+        return compteurs.size();
+    }
+
+    /**
+     * Initialise les compteurs au démarrage si la table est vide alors que des présences existent
+     * (avant le chargement de SeuilAbsencesEngine)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void initialiser() {
+        if (compteurPresenceRepository.count() == 0 && presenceRepository.count() > 0) {
+            int nombre = reconstruire();
+            log.info("Compteurs de présence reconstruits : {} ligne(s)", nombre);
+        }
+    }
+
+    private void appliquer(Long etudiantId, Long matiereId, long presents, long absences,
+                           long retards, long absencesJustifiees) {
+        int crees = jdbcTemplate.update(INSERT_COMPTEUR, etudiantId, matiereId, Math.max(presents, 0),
+                Math.max(absences, 0), Math.max(retards, 0), Math.max(absencesJustifiees, 0));
+        if (crees == 0) {
+            compteurPresenceRepository.incrementer(
+                    etudiantId, matiereId, presents, absences, retards, absencesJustifiees);
+        }
+        statistiquesAssiduiteService.marquerModifie();
+    }
+
+    /**
+     * Une insertion par lot des compteurs manquants, puis une mise à jour groupée des compteurs existants
+     */
+    private void ajouterPourEtudiants(Long matiereId, Collection<Long> etudiantIds, long presents, long absences) {
+        if (etudiantIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> etudiants = new ArrayList<>(etudiantIds);
+        int[] crees = jdbcTemplate.batchUpdate(INSERT_COMPTEUR, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, etudiants.get(i));
+                ps.setLong(2, matiereId);
+                ps.setLong(3, presents);
+                ps.setLong(4, absences);
+                ps.setLong(5, 0);
+                ps.setLong(6, 0);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return etudiants.size();
+            }
+        });
+
+        List<Long> existants = new ArrayList<>();
+        for (int i = 0; i < etudiants.size(); i++) {
+            if (crees[i] == 0) {
+                existants.add(etudiants.get(i));
+            }
+        }
+        if (!existants.isEmpty()) {
+            compteurPresenceRepository.incrementerPourEtudiants(matiereId, existants, presents, absences);
+        }
+        statistiquesAssiduiteService.marquerModifie();
+    }
+
+    private static long variation(StatutPresence statut, StatutPresence ancien, StatutPresence nouveau) {
+        return (nouveau == statut ? 1 : 0) - (ancien == statut ? 1 : 0);
+    }
+}
@@ -0,0 +1,748 @@
+package com.university.attendance.service;
+
+import java.sql.PreparedStatement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.university.attendance.dto.CubePresencesDTO;
+import com.university.attendance.dto.CubePresencesGroupeDTO;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cube en mémoire des présences de l'année universitaire, interrogeable par regroupement et filtres
+ * (étudiant, matière, formation, département, groupe, type de séance, semaine).
+ *
+ * Stockage en colonnes de tableaux primitifs, une ligne par présence : étudiant et séance encodés
+ * par dictionnaire (identifiant → code entier) et statut. Les attributs des séances (matière, semaine
+ * relative au début d'année, type, groupe) et des matières (formation, département) sont des tableaux
+ * indexés par leur code. Une requête évalue une fois par séance les filtres et la part de la clé de
+ * regroupement qui en dépendent, puis parcourt les colonnes sans allocation par ligne et cumule dans
+ * un tableau dense indexé par la clé (table de hachage au-delà de GROUPES_DENSES_MAX).
+ *
+ * Chargé au démarrage et reconstruit chaque nuit (cube.presences.reconstruction.cron) par deux
+ * requêtes lues en flux ; tenu à jour entre-temps, après commit, par les services qui écrivent les
+ * présences et les séances. Les événements reçus pendant une reconstruction, et avant le premier
+ * chargement (les écritures différées des pointages commencent dès le démarrage du contexte), sont
+ * rejoués sur le nouveau cube : ils sont idempotents (statut final d'un couple séance/étudiant).
+ */
+@Component
+public class CubePresences {
+
+    private static final Logger log = LoggerFactory.getLogger(CubePresences.class);
+
+    static final String SELECT_SEANCES =
+            "SELECT s.id, s.matiere_id, s.date_debut, s.type_seance, s.groupe_id, m.formation_id, f.departement_id "
+                    + "FROM seances s "
+                    + "JOIN matieres m ON m.id = s.matiere_id "
+                    + "JOIN formations f ON f.id = m.formation_id "
+                    + "WHERE s.date_debut >= ?";
+
+    static final String SELECT_PRESENCES =
+            "SELECT p.seance_id, p.etudiant_id, p.statut "
+                    + "FROM presences p JOIN seances s ON s.id = p.seance_id "
+                    + "WHERE s.date_debut >= ?";
+
+    // Au-delà, les groupes sont cumulés dans une table de hachage plutôt qu'un tableau dense
+    static final int GROUPES_DENSES_MAX = 1 << 16;
+
+    private static final byte SUPPRIMEE = -1;
+    private static final short HORS_ANNEE = -1;
+    private static final StatutPresence[] STATUTS = StatutPresence.values();
+    private static final TypeSeance[] TYPES = TypeSeance.values();
+
+    /**
+     * Dimensions de regroupement et de filtrage
+     */
+    public enum Dimension {
+        ETUDIANT("etudiant"),
+        MATIERE("matiere"),
+        FORMATION("formation"),
+        DEPARTEMENT("departement"),
+        GROUPE("groupe"),
+        TYPE_SEANCE("typeSeance"),
+        SEMAINE("semaine");
+
+        private final String nom;
+
+        Dimension(String nom) {
+            this.nom = nom;
+        }
+
+        static Dimension parse(String nom) {
+            for (Dimension dimension : values()) {
+                if (dimension.nom.equalsIgnoreCase(nom.trim())) {
+                    return dimension;
+                }
+            }
+            throw new RuntimeException("Dimension inconnue : " + nom
+                    + " (etudiant, matiere, formation, departement, groupe, typeSeance, semaine)");
+        }
+    }
+
+    /**
+     * Critères de filtrage (null : pas de filtre sur ce critère)
+     */
+    public record Filtre(Long etudiantId, Long matiereId, Long formationId, Long departementId, Long groupeId,
+                         TypeSeance typeSeance, LocalDate du, LocalDate au) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cube.presences.debut-annee:--09-01}")
+    private String debutAnnee;
+
+    @Value("${cube.presences.fetch-size:1000}")
+    private int tailleLot;
+
+    @Value("${cube.presences.max-groupes:10000}")
+    private int maxGroupes;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Sous le verrou : cube courant et, pendant une reconstruction, événements à rejouer
+    private Donnees donnees;
+    private List<Consumer<Donnees>> journal;
+
+    /**
+     * Journal ouvert dès la création du bean : les événements antérieurs au premier chargement
+     * y sont conservés pour être rejoués sur le cube chargé
+     */
+    @PostConstruct
+    public void ouvrirJournal() {
+        verrou.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chargement initial, après l'initialisation des compteurs et de l'instantané
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(4)
+    public void initialiser() {
+        reconstruire();
+    }
+
+    /**
+     * Reconstruction nocturne : compacte les présences supprimées et suit le changement d'année
+     */
+    @Scheduled(cron = "${cube.presences.reconstruction.cron:0 0 3 * * *}")
+    public void reconstructionPlanifiee() {
+        reconstruire();
+    }
+
+    /**
+     * Recharge le cube depuis la base sans bloquer les requêtes pendant le chargement
+     */
+    public synchronized void reconstruire() {
+        long debut = System.currentTimeMillis();
+        verrou.writeLock().lock();
+        try {
+            if (journal == null) {
+                journal = new ArrayList<>();
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+
+        Donnees nouvelles;
+        try {
+            nouvelles = charger(origine(LocalDate.now()));
+        } catch (RuntimeException e) {
+            verrou.writeLock().lock();
+            try {
+                // Sans cube chargé, le journal reste ouvert pour la prochaine tentative
+                if (donnees != null) {
+                    journal = null;
+                }
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        verrou.writeLock().lock();
+        try {
+            journal.forEach(evenement -> evenement.accept(nouvelles));
+            donnees = nouvelles;
+            journal = null;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Cube des présences chargé : {} présence(s), {} séance(s) depuis le {} en {} ms",
+                nouvelles.lignes, nouvelles.seances.taille, nouvelles.origine, System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * Séance créée ou modifiée (matière, date, type, groupe)
+     */
+    public void enregistrerSeance(Seance seance) {
+        SeanceCube attributs = new SeanceCube(seance.getId(), seance.getMatiere().getId(),
+                seance.getMatiere().getFormation().getId(),
+                seance.getMatiere().getFormation().getDepartement().getId(),
+                seance.getDateDebut().toLocalDate(), seance.getTypeSeance(),
+                seance.getGroupe() != null ? seance.getGroupe().getId() : null);
+        apresCommit(d -> d.seance(attributs));
+    }
+
+    /**
+     * Séance supprimée avec ses présences
+     */
+    public void retirerSeance(Long seanceId) {
+        apresCommit(d -> d.retirerSeance(seanceId));
+    }
+
+    /**
+     * Statut d'une présence créée ou modifiée (null : présence supprimée)
+     */
+    public void enregistrerPresence(Long seanceId, Long etudiantId, StatutPresence statut) {
+        byte code = statut != null ? (byte) statut.ordinal() : SUPPRIMEE;
+        apresCommit(d -> d.presence(seanceId, etudiantId, code));
+    }
+
+    /**
+     * Même statut pour plusieurs étudiants d'une séance (pointages, absences à l'arrêt)
+     */
+    public void enregistrerPresences(Long seanceId, Collection<Long> etudiantIds, StatutPresence statut) {
+        if (etudiantIds.isEmpty()) {
+            return;
+        }
+        long[] ids = etudiantIds.stream().mapToLong(Long::longValue).toArray();
+        byte code = (byte) statut.ordinal();
+        apresCommit(d -> {
+            for (long etudiantId : ids) {
+                d.presence(seanceId, etudiantId, code);
+            }
+        });
+    }
+
+    /**
+     * Présents, absences et retards regroupés selon les dimensions demandées, après filtrage
+     */
+    public CubePresencesDTO interroger(List<String> regroupements, Long etudiantId, Long matiereId,
+                                       Long formationId, Long departementId, Long groupeId, String typeSeance,
+                                       LocalDate du, LocalDate au) {
+        List<Dimension> dimensions = new ArrayList<>();
+        if (regroupements != null) {
+            for (String nom : regroupements) {
+                Dimension dimension = Dimension.parse(nom);
+                if (!dimensions.contains(dimension)) {
+                    dimensions.add(dimension);
+                }
+            }
+        }
+        TypeSeance type = null;
+        if (typeSeance != null) {
+            try {
+                type = TypeSeance.valueOf(typeSeance.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Type de séance inconnu (CM ou TD_TP)");
+            }
+        }
+        Filtre filtre = new Filtre(etudiantId, matiereId, formationId, departementId, groupeId, type, du, au);
+
+        verrou.readLock().lock();
+        try {
+            if (donnees == null) {
+                throw new RuntimeException("Le cube des présences est en cours de chargement");
+            }
+            return donnees.interroger(dimensions, filtre, maxGroupes);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lundi de la semaine du dernier début d'année universitaire
+     */
+    private LocalDate origine(LocalDate aujourdhui) {
+        LocalDate rentree = MonthDay.parse(debutAnnee).atYear(aujourdhui.getYear());
+        if (rentree.isAfter(aujourdhui)) {
+            rentree = rentree.minusYears(1);
+        }
+        return rentree.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private Donnees charger(LocalDate origine) {
+        Donnees chargees = new Donnees(origine);
+        LocalDateTime depuis = origine.atStartOfDay();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SEANCES);
+            ps.setObject(1, depuis);
+            ps.setFetchSize(tailleLot);
+            return ps;
+        }, (RowCallbackHandler) rs -> chargees.seance(new SeanceCube(rs.getLong(1), rs.getLong(2), rs.getLong(6),
+                rs.getLong(7), rs.getObject(3, LocalDateTime.class).toLocalDate(),
+                TypeSeance.valueOf(rs.getString(4)), rs.getObject(5) != null ? rs.getLong(5) : null)));
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_PRESENCES);
+            ps.setObject(1, depuis);
+            ps.setFetchSize(tailleLot);
+            return ps;
+        }, (RowCallbackHandler) rs -> chargees.presence(rs.getLong(1), rs.getLong(2),
+                (byte) StatutPresence.valueOf(rs.getString(3)).ordinal()));
+
+        return chargees;
+    }
+
+    /**
+     * Applique l'événement après commit (immédiatement hors transaction)
+     */
+    private void apresCommit(Consumer<Donnees> evenement) {
+        ApresCommit.executer(() -> appliquer(evenement));
+    }
+
+    private void appliquer(Consumer<Donnees> evenement) {
+        verrou.writeLock().lock();
+        try {
+            if (donnees != null) {
+                evenement.accept(donnees);
+            }
+            if (journal != null) {
+                journal.add(evenement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    record SeanceCube(long id, long matiereId, long formationId, long departementId,
+                              LocalDate dateDebut, TypeSeance type, Long groupeId) {
+    }
+
+    /**
+     * Contenu du cube : colonnes des présences et attributs des séances et matières, indexés par code
+     */
+    static final class Donnees {
+
+        final LocalDate origine;
+
+        final Dictionnaire etudiants = new Dictionnaire();
+        final Dictionnaire seances = new Dictionnaire();
+        final Dictionnaire matieres = new Dictionnaire();
+        final Dictionnaire formations = new Dictionnaire();
+        final Dictionnaire departements = new Dictionnaire();
+        final Dictionnaire groupes = new Dictionnaire();
+
+        // Attributs par code de séance (groupe : -1 si aucun)
+        int[] seanceMatiere = new int[256];
+        short[] seanceSemaine = new short[256];
+        byte[] seanceType = new byte[256];
+        int[] seanceGroupe = new int[256];
+
+        // Attributs par code de matière
+        int[] matiereFormation = new int[64];
+        int[] matiereDepartement = new int[64];
+
+        // Colonnes des présences
+        int lignes;
+        int[] etudiant = new int[1024];
+        int[] seance = new int[1024];
+        byte[] statut = new byte[1024];
+
+        // (code séance, code étudiant) → ligne
+        final IndexLignes index = new IndexLignes();
+
+        Donnees(LocalDate origine) {
+            this.origine = origine;
+        }
+
+        void seance(SeanceCube attributs) {
+            long semaines = ChronoUnit.WEEKS.between(origine, attributs.dateDebut());
+            int code = seances.chercher(attributs.id());
+            if (attributs.dateDebut().isBefore(origine) || semaines > Short.MAX_VALUE) {
+                // Séance (déplacée) hors de l'année du cube
+                if (code >= 0) {
+                    retirerSeance(attributs.id());
+                    seanceSemaine[code] = HORS_ANNEE;
+                }
+                return;
+            }
+
+            int codeMatiere = matieres.code(attributs.matiereId());
+            if (codeMatiere >= matiereFormation.length) {
+                matiereFormation = Arrays.copyOf(matiereFormation, matiereFormation.length * 2);
+                matiereDepartement = Arrays.copyOf(matiereDepartement, matiereDepartement.length * 2);
+            }
+            matiereFormation[codeMatiere] = formations.code(attributs.formationId());
+            matiereDepartement[codeMatiere] = departements.code(attributs.departementId());
+
+            code = seances.code(attributs.id());
+            if (code >= seanceMatiere.length) {
+                int taille = seanceMatiere.length * 2;
+                seanceMatiere = Arrays.copyOf(seanceMatiere, taille);
+                seanceSemaine = Arrays.copyOf(seanceSemaine, taille);
+                seanceType = Arrays.copyOf(seanceType, taille);
+                seanceGroupe = Arrays.copyOf(seanceGroupe, taille);
+            }
+            seanceMatiere[code] = codeMatiere;
+            seanceSemaine[code] = (short) semaines;
+            seanceType[code] = (byte) attributs.type().ordinal();
+            seanceGroupe[code] = attributs.groupeId() != null ? groupes.code(attributs.groupeId()) : -1;
+        }
+
+        void retirerSeance(long seanceId) {
+            int code = seances.chercher(seanceId);
+            if (code < 0) {
+                return;
+            }
+            for (int i = 0; i < lignes; i++) {
+                if (seance[i] == code) {
+                    statut[i] = SUPPRIMEE;
+                }
+            }
+        }
+
+        void presence(long seanceId, long etudiantId, byte nouveauStatut) {
+            int codeSeance = seances.chercher(seanceId);
+            if (codeSeance < 0 || seanceSemaine[codeSeance] == HORS_ANNEE) {
+                // Séance antérieure à l'année du cube
+                return;
+            }
+            int codeEtudiant = nouveauStatut == SUPPRIMEE ? etudiants.chercher(etudiantId) : etudiants.code(etudiantId);
+            if (codeEtudiant < 0) {
+                return;
+            }
+
+            long cle = ((long) codeSeance << 32) | codeEtudiant;
+            int ligne = index.get(cle);
+            if (ligne >= 0) {
+                statut[ligne] = nouveauStatut;
+                return;
+            }
+            if (nouveauStatut == SUPPRIMEE) {
+                return;
+            }
+
+            if (lignes == statut.length) {
+                int taille = lignes * 2;
+                etudiant = Arrays.copyOf(etudiant, taille);
+                seance = Arrays.copyOf(seance, taille);
+                statut = Arrays.copyOf(statut, taille);
+            }
+            etudiant[lignes] = codeEtudiant;
+            seance[lignes] = codeSeance;
+            statut[lignes] = nouveauStatut;
+            index.put(cle, lignes);
+            lignes++;
+        }
+
+        CubePresencesDTO interroger(List<Dimension> dimensions, Filtre filtre, int maxGroupes) {
+            long debut = System.nanoTime();
+
+            // Filtres traduits en codes ; un identifiant absent du cube ne peut correspondre à aucune ligne
+            int fEtudiant = code(etudiants, filtre.etudiantId());
+            int fMatiere = code(matieres, filtre.matiereId());
+            int fFormation = code(formations, filtre.formationId());
+            int fDepartement = code(departements, filtre.departementId());
+            int fGroupe = code(groupes, filtre.groupeId());
+            int fType = filtre.typeSeance() != null ? filtre.typeSeance().ordinal() : -1;
+            int semaineMin = filtre.du() != null
+                    ? (int) Math.max(ChronoUnit.WEEKS.between(origine, semaineDe(filtre.du())), Short.MIN_VALUE)
+                    : Short.MIN_VALUE;
+            int semaineMax = filtre.au() != null
+                    ? (int) Math.min(ChronoUnit.WEEKS.between(origine, semaineDe(filtre.au())), Short.MAX_VALUE)
+                    : Short.MAX_VALUE;
+            boolean aucune = fEtudiant == -2 || fMatiere == -2 || fFormation == -2 || fDepartement == -2
+                    || fGroupe == -2;
+
+            // Clé d'un groupe : combinaison des codes en base mixte, la dernière dimension en unités
+            int nbDimensions = dimensions.size();
+            int[] bases = new int[nbDimensions];
+            long[] multiplicateurs = new long[nbDimensions];
+            int semaineBase = Math.max(0, Math.min(semaineMax, maxSemaine()) - Math.max(semaineMin, 0) + 1);
+            int decalageSemaine = Math.max(semaineMin, 0);
+            long combinaisons = 1;
+            for (int d = nbDimensions - 1; d >= 0; d--) {
+                bases[d] = cardinalite(dimensions.get(d), semaineBase);
+                multiplicateurs[d] = combinaisons;
+                combinaisons *= Math.max(bases[d], 1);
+            }
+            int dEtudiant = dimensions.indexOf(Dimension.ETUDIANT);
+            long multiplicateurEtudiant = dEtudiant >= 0 ? multiplicateurs[dEtudiant] : 0;
+
+            // Filtres et dimensions portés par la séance, évalués une fois par séance (-1 : séance exclue)
+            long[] partSeance = new long[seances.taille];
+            for (int sc = 0; sc < seances.taille; sc++) {
+                int m = seanceMatiere[sc];
+                short sem = seanceSemaine[sc];
+                if (aucune || sem == HORS_ANNEE || sem < semaineMin || sem > semaineMax
+                        || (fMatiere >= 0 && m != fMatiere)
+                        || (fFormation >= 0 && matiereFormation[m] != fFormation)
+                        || (fDepartement >= 0 && matiereDepartement[m] != fDepartement)
+                        || (fGroupe >= 0 && seanceGroupe[sc] != fGroupe)
+                        || (fType >= 0 && seanceType[sc] != fType)) {
+                    partSeance[sc] = -1;
+                    continue;
+                }
+                long part = 0;
+                for (int d = 0; d < nbDimensions; d++) {
+                    if (d != dEtudiant) {
+                        part += valeur(dimensions.get(d), sc, decalageSemaine) * multiplicateurs[d];
+                    }
+                }
+                partSeance[sc] = part;
+            }
+
+            boolean dense = combinaisons <= GROUPES_DENSES_MAX;
+            int[] cumulsDenses = dense ? new int[(int) combinaisons * STATUTS.length] : null;
+            Map<Long, int[]> cumuls = dense ? null : new HashMap<>();
+            long analysees = 0;
+
+            for (int i = 0; !aucune && i < lignes; i++) {
+                byte s = statut[i];
+                if (s == SUPPRIMEE || (fEtudiant >= 0 && etudiant[i] != fEtudiant)) {
+                    continue;
+                }
+                long part = partSeance[seance[i]];
+                if (part < 0) {
+                    continue;
+                }
+                analysees++;
+
+                long cle = part + etudiant[i] * multiplicateurEtudiant;
+                if (dense) {
+                    cumulsDenses[(int) cle * STATUTS.length + s]++;
+                } else {
+                    cumuls.computeIfAbsent(cle, k -> new int[STATUTS.length])[s]++;
+                }
+            }
+
+            // Restitution des groupes non vides, dans l'ordre des clés
+            List<CubePresencesGroupeDTO> groupesResultat = new ArrayList<>();
+            if (dense) {
+                for (int cle = 0; cle < combinaisons; cle++) {
+                    int base = cle * STATUTS.length;
+                    int total = 0;
+                    for (int s = 0; s < STATUTS.length; s++) {
+                        total += cumulsDenses[base + s];
+                    }
+                    if (total > 0) {
+                        ajouterGroupe(groupesResultat, dimensions, bases, cle, cumulsDenses, base,
+                                decalageSemaine, maxGroupes);
+                    }
+                }
+            } else {
+                cumuls.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .forEach(e -> ajouterGroupe(groupesResultat, dimensions, bases, e.getKey(), e.getValue(), 0,
+                                decalageSemaine, maxGroupes));
+            }
+
+            CubePresencesDTO resultat = new CubePresencesDTO();
+            resultat.setDonneesDepuis(origine);
+            resultat.setPresencesAnalysees(analysees);
+            resultat.setDureeMicros((System.nanoTime() - debut) / 1_000);
+            resultat.setGroupes(groupesResultat);
+            return resultat;
+        }
+
+        private void ajouterGroupe(List<CubePresencesGroupeDTO> resultat, List<Dimension> dimensions, int[] bases,
+                                   long cle, int[] cumuls, int base, int decalageSemaine, int maxGroupes) {
+            if (resultat.size() >= maxGroupes) {
+                throw new RuntimeException("Trop de groupes : " + maxGroupes
+                        + " au maximum, ajoutez un filtre ou retirez une dimension");
+            }
+            CubePresencesGroupeDTO groupe = new CubePresencesGroupeDTO();
+            for (int d = dimensions.size() - 1; d >= 0; d--) {
+                int code = (int) (cle % bases[d]);
+                cle /= bases[d];
+                switch (dimensions.get(d)) {
+                    case ETUDIANT -> groupe.setEtudiantId(etudiants.id(code));
+                    case MATIERE -> groupe.setMatiereId(matieres.id(code));
+                    case FORMATION -> groupe.setFormationId(formations.id(code));
+                    case DEPARTEMENT -> groupe.setDepartementId(departements.id(code));
+                    case GROUPE -> groupe.setGroupeId(code > 0 ? groupes.id(code - 1) : null);
+                    case TYPE_SEANCE -> groupe.setTypeSeance(TYPES[code].name());
+                    case SEMAINE -> groupe.setSemaine(origine.plusWeeks(code + decalageSemaine));
+                }
+            }
+            long presents = cumuls[base + StatutPresence.PRESENT.ordinal()];
+            long absences = cumuls[base + StatutPresence.ABSENT.ordinal()];
+            long retards = cumuls[base + StatutPresence.RETARD.ordinal()];
+            long total = presents + absences + retards;
+            groupe.setPresents(presents);
+            groupe.setAbsences(absences);
+            groupe.setRetards(retards);
+            groupe.setTotal(total);
+            // Même définition que les statistiques par étudiant : (séances - absences) / séances
+            groupe.setTauxPresence(Math.round((total - absences) * 1000.0 / total) / 10.0);
+            resultat.add(groupe);
+        }
+
+        private int cardinalite(Dimension dimension, int semaines) {
+            return switch (dimension) {
+                case ETUDIANT -> etudiants.taille;
+                case MATIERE -> matieres.taille;
+                case FORMATION -> formations.taille;
+                case DEPARTEMENT -> departements.taille;
+                case GROUPE -> groupes.taille + 1;
+                case TYPE_SEANCE -> TYPES.length;
+                case SEMAINE -> semaines;
+            };
+        }
+
+        /**
+         * Code d'une dimension portée par la séance
+         */
+        private int valeur(Dimension dimension, int codeSeance, int decalageSemaine) {
+            return switch (dimension) {
+                case MATIERE -> seanceMatiere[codeSeance];
+                case FORMATION -> matiereFormation[seanceMatiere[codeSeance]];
+                case DEPARTEMENT -> matiereDepartement[seanceMatiere[codeSeance]];
+                case GROUPE -> seanceGroupe[codeSeance] + 1;
+                case TYPE_SEANCE -> seanceType[codeSeance];
+                case SEMAINE -> seanceSemaine[codeSeance] - decalageSemaine;
+                case ETUDIANT -> throw new IllegalArgumentException("Dimension portée par la présence");
+            };
+        }
+
+        private int maxSemaine() {
+            int max = 0;
+            for (int code = 0; code < seances.taille; code++) {
+                max = Math.max(max, seanceSemaine[code]);
+            }
+            return max;
+        }
+
+        /**
+         * Code du filtre : -1 sans filtre, -2 si l'identifiant est absent du cube
+         */
+        private static int code(Dictionnaire dictionnaire, Long id) {
+            if (id == null) {
+                return -1;
+            }
+            int code = dictionnaire.chercher(id);
+            return code >= 0 ? code : -2;
+        }
+
+        private static LocalDate semaineDe(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    }
+
+    /**
+     * Encodage par dictionnaire : identifiant → code dense (0, 1, 2...) et inversement
+     */
+    private static final class Dictionnaire {
+
+        private final Map<Long, Integer> codes = new HashMap<>();
+        private long[] ids = new long[64];
+        int taille;
+
+        int code(long id) {
+            Integer code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+            if (taille == ids.length) {
+                ids = Arrays.copyOf(ids, taille * 2);
+            }
+            ids[taille] = id;
+            codes.put(id, taille);
+            return taille++;
+        }
+
+        int chercher(long id) {
+            Integer code = codes.get(id);
+            return code != null ? code : -1;
+        }
+
+        long id(int code) {
+            return ids[code];
+        }
+    }
+
+    /**
+     * Table de hachage à adressage ouvert long → int, sans objet par entrée
+     */
+    private static final class IndexLignes {
+
+        private long[] cles = new long[2048];
+        private int[] lignes = new int[2048];
+        private int taille;
+
+        {
+            Arrays.fill(lignes, -1);
+        }
+
+        int get(long cle) {
+            int masque = cles.length - 1;
+            for (int i = position(cle, masque); lignes[i] >= 0; i = (i + 1) & masque) {
+                if (cles[i] == cle) {
+                    return lignes[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long cle, int ligne) {
+            if ((taille + 1) * 2 > cles.length) {
+                agrandir();
+            }
+            int masque = cles.length - 1;
+            int i = position(cle, masque);
+            while (lignes[i] >= 0 && cles[i] != cle) {
+                i = (i + 1) & masque;
+            }
+            if (lignes[i] < 0) {
+                taille++;
+            }
+            cles[i] = cle;
+            lignes[i] = ligne;
+        }
+
+        private void agrandir() {
+            long[] anciennesCles = cles;
+            int[] anciennesLignes = lignes;
+            cles = new long[anciennesCles.length * 2];
+            lignes = new int[anciennesLignes.length * 2];
+            Arrays.fill(lignes, -1);
+            taille = 0;
+            for (int i = 0; i < anciennesCles.length; i++) {
+                if (anciennesLignes[i] >= 0) {
+                    put(anciennesCles[i], anciennesLignes[i]);
+                }
+            }
+        }
+
+        private static int position(long cle, int masque) {
+            long h = cle * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & masque;
+        }
+    }
+}
@@ -26,6 +26,9 @@ public class FormationService {
     @Autowired
     private DepartementRepository departementRepository;
 
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
     /**
      * Crée une nouvelle formation à partir d'un DTO
      */
@@ -62,14 +65,16 @@ public class FormationService {
         formation.setNiveau(formationDTO.getNiveau());
         formation.setActif(formationDTO.getActif());
 
-        return formationRepository.save(formation);
+        Formation savedFormation = formationRepository.save(formation);
+        statistiquesAssiduiteService.marquerModifie();
+        return savedFormation;
     }
 
     /**
      * Trouve une formation par son ID
      */
     public Optional<Formation> getFormationById(Long id) {
-        return formationRepository.findById(id);
+        return formationRepository.findChargeeById(id);
     }
 
     /**
@@ -105,6 +110,7 @@ public class FormationService {
      */
     public void deleteFormation(Long id) {
         formationRepository.deleteById(id);
+        statistiquesAssiduiteService.marquerModifie();
     }
 
     /**
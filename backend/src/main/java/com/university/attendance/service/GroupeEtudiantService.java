@@ -31,6 +31,12 @@ public class GroupeEtudiantService {
     @Autowired
     private GroupeRepository groupeRepository;
 
+    @Autowired
+    private InscritsCache inscritsCache;
+
+    @Autowired
+    private GroupeService groupeService;
+
     /**
      * Affecte un étudiant à un groupe
      */
@@ -64,7 +70,9 @@ public class GroupeEtudiantService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "La capacité maximale du groupe est atteinte");
         }
 
-        return groupeEtudiantRepository.save(groupeEtudiant);
+        GroupeEtudiant savedGroupeEtudiant = groupeEtudiantRepository.save(groupeEtudiant);
+        inscritsCache.invaliderGroupe(groupeId);
+        return savedGroupeEtudiant;
     }
 
     /**
@@ -76,34 +84,44 @@ public class GroupeEtudiantService {
                 .orElseThrow(() -> new RuntimeException("Affectation non trouvée"));
 
         groupeEtudiantRepository.delete(groupeEtudiant);
+        inscritsCache.invaliderGroupe(groupeId);
     }
 
     /**
      * Obtient tous les groupes d'un étudiant
      */
     public List<GroupeEtudiant> getGroupesEtudiant(Long etudiantId) {
-        return groupeEtudiantRepository.findByEtudiantId(etudiantId);
+        return completerNombreEtudiants(groupeEtudiantRepository.findByEtudiantId(etudiantId));
     }
 
     /**
      * Obtient tous les étudiants d'un groupe
      */
     public List<GroupeEtudiant> getEtudiantsGroupe(Long groupeId) {
-        return groupeEtudiantRepository.findByGroupeId(groupeId);
+        return completerNombreEtudiants(groupeEtudiantRepository.findByGroupeId(groupeId));
+    }
+
+    /**
+     * Renseigne l'effectif des groupes sérialisés avec les affectations (une requête pour tous les groupes)
+     */
+    private List<GroupeEtudiant> completerNombreEtudiants(List<GroupeEtudiant> affectations) {
+        groupeService.completerNombreEtudiants(
+                affectations.stream().map(GroupeEtudiant::getGroupe).distinct().toList());
+        return affectations;
     }
 
     /**
      * Obtient une affectation par ID
      */
     public Optional<GroupeEtudiant> getGroupeEtudiantById(Long id) {
-        return groupeEtudiantRepository.findById(id);
+        return groupeEtudiantRepository.findChargeeById(id);
     }
 
     /**
      * Obtient toutes les affectations
      */
     public List<GroupeEtudiant> getAllGroupeEtudiants() {
-        return groupeEtudiantRepository.findAll();
+        return completerNombreEtudiants(groupeEtudiantRepository.findAll());
     }
 
     /**
@@ -111,6 +129,7 @@ public class GroupeEtudiantService {
      */
     public void supprimerToutesAffectationsEtudiant(Long etudiantId) {
         groupeEtudiantRepository.deleteByEtudiantId(etudiantId);
+        inscritsCache.invaliderGroupes();
     }
 
     /**
@@ -118,6 +137,7 @@ public class GroupeEtudiantService {
      */
     public void supprimerToutesAffectationsGroupe(Long groupeId) {
         groupeEtudiantRepository.deleteByGroupeId(groupeId);
+        inscritsCache.invaliderGroupe(groupeId);
     }
 
     /**
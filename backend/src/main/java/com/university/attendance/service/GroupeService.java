@@ -4,12 +4,15 @@ import com.university.attendance.dto.GroupeDTO;
 import com.university.attendance.model.Formation;
 import com.university.attendance.model.Groupe;
 import com.university.attendance.repository.FormationRepository;
+import com.university.attendance.repository.GroupeEtudiantRepository;
 import com.university.attendance.repository.GroupeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,6 +28,9 @@ public class GroupeService {
     @Autowired
     private FormationRepository formationRepository;
 
+    @Autowired
+    private GroupeEtudiantRepository groupeEtudiantRepository;
+
     /**
      * Crée un nouveau groupe à partir d'un DTO
      */
@@ -66,28 +72,47 @@ public class GroupeService {
      * Trouve un groupe par son ID
      */
     public Optional<Groupe> getGroupeById(Long id) {
-        return groupeRepository.findById(id);
+        return groupeRepository.findChargeById(id)
+                .map(groupe -> completerNombreEtudiants(List.of(groupe)).get(0));
     }
 
     /**
      * Trouve tous les groupes
      */
     public List<Groupe> getAllGroupes() {
-        return groupeRepository.findAll();
+        return completerNombreEtudiants(groupeRepository.findAll());
     }
 
     /**
      * Trouve tous les groupes actifs
      */
     public List<Groupe> getGroupesActifs() {
-        return groupeRepository.findByActif(true);
+        return completerNombreEtudiants(groupeRepository.findByActif(true));
     }
 
     /**
      * Trouve tous les groupes d'une formation
      */
     public List<Groupe> getGroupesByFormation(Long formationId) {
-        return groupeRepository.findByFormationId(formationId);
+        return completerNombreEtudiants(groupeRepository.findByFormationId(formationId));
+    }
+
+    /**
+     * Renseigne l'effectif de chaque groupe par une seule requête groupée
+     * (sans elle, chaque groupe sérialisé charge ses affectations)
+     */
+    public List<Groupe> completerNombreEtudiants(List<Groupe> groupes) {
+        if (groupes.isEmpty()) {
+            return groupes;
+        }
+        Map<Long, Integer> effectifs = new HashMap<>();
+        for (Object[] ligne : groupeEtudiantRepository.countByGroupeIds(groupes.stream().map(Groupe::getId).toList())) {
+            effectifs.put((Long) ligne[0], ((Number) ligne[1]).intValue());
+        }
+        for (Groupe groupe : groupes) {
+            groupe.setNombreEtudiants(effectifs.getOrDefault(groupe.getId(), 0));
+        }
+        return groupes;
     }
 
     /**
@@ -0,0 +1,195 @@
+package com.university.attendance.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.university.attendance.model.Role;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.GroupeEtudiantRepository;
+import com.university.attendance.repository.UserRepository;
+
+/**
+ * Cache des listes d'inscrits (étudiants actifs) par formation et par groupe.
+ * Un CM concerne les étudiants de la formation de la matière, un TD/TP ceux de son groupe.
+ * Chaque liste est un tableau trié d'identifiants : 8 octets par étudiant,
+ * appartenance par recherche dichotomique et effectif sans requête.
+ * Une liste non chargée n'est pas construite pour un simple comptage : une requête COUNT suffit.
+ * Invalidé après commit par GroupeEtudiantService (affectations) et UserService
+ * (création, activation, suppression d'un étudiant).
+ */
+@Component
+public class InscritsCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupeEtudiantRepository groupeEtudiantRepository;
+
+    private final Map<Long, Inscrits> parFormation = new ConcurrentHashMap<>();
+    private final Map<Long, Inscrits> parGroupe = new ConcurrentHashMap<>();
+
+    /**
+     * Étudiants actifs d'une formation
+     */
+    public Inscrits getFormation(Long formationId) {
+        // Le chargement se fait sous le verrou de l'entrée : une invalidation concurrente
+        // attend la fin du chargement et ne peut donc pas être écrasée par une liste périmée
+        return parFormation.computeIfAbsent(formationId,
+                id -> Inscrits.of(userRepository.findIdsEtudiantsActifsByFormationId(id)));
+    }
+
+    /**
+     * Étudiants actifs d'un groupe
+     */
+    public Inscrits getGroupe(Long groupeId) {
+        return parGroupe.computeIfAbsent(groupeId,
+                id -> Inscrits.of(groupeEtudiantRepository.findEtudiantIdsActifsByGroupeId(id)));
+    }
+
+    /**
+     * Étudiants concernés par une séance (vide pour un TD/TP sans groupe)
+     */
+    public Inscrits getSeance(Seance seance) {
+        if (seance.getTypeSeance() == TypeSeance.CM) {
+            return getFormation(seance.getMatiere().getFormation().getId());
+        }
+        if (seance.getGroupe() != null) {
+            return getGroupe(seance.getGroupe().getId());
+        }
+        return Inscrits.VIDE;
+    }
+
+    /**
+     * Nombre d'étudiants concernés par une séance.
+     * Lu dans la liste en cache si elle est déjà chargée, sinon compté en base sans charger la liste.
+     */
+    public int compter(Seance seance) {
+        if (seance.getTypeSeance() == TypeSeance.CM) {
+            Long formationId = seance.getMatiere().getFormation().getId();
+            Inscrits inscrits = parFormation.get(formationId);
+            return inscrits != null ? inscrits.taille()
+                    : (int) userRepository.countEtudiantsActifsByFormationId(formationId);
+        }
+        if (seance.getGroupe() != null) {
+            Long groupeId = seance.getGroupe().getId();
+            Inscrits inscrits = parGroupe.get(groupeId);
+            return inscrits != null ? inscrits.taille()
+                    : (int) groupeEtudiantRepository.countEtudiantsActifsByGroupeId(groupeId);
+        }
+        return 0;
+    }
+
+    /**
+     * Effectifs de plusieurs formations : listes déjà en cache, une requête groupée pour les autres
+     */
+    public Map<Long, Integer> compterFormations(Collection<Long> formationIds) {
+        return compter(formationIds, parFormation, userRepository::countEtudiantsActifsByFormationIds);
+    }
+
+    /**
+     * Effectifs de plusieurs groupes : listes déjà en cache, une requête groupée pour les autres
+     */
+    public Map<Long, Integer> compterGroupes(Collection<Long> groupeIds) {
+        return compter(groupeIds, parGroupe, groupeEtudiantRepository::countEtudiantsActifsByGroupeIds);
+    }
+
+    private Map<Long, Integer> compter(Collection<Long> ids, Map<Long, Inscrits> listes,
+                                       Function<Collection<Long>, List<Object[]>> requeteGroupee) {
+        Map<Long, Integer> effectifs = new HashMap<>();
+        List<Long> nonChargees = new ArrayList<>();
+        for (Long id : ids) {
+            Inscrits inscrits = listes.get(id);
+            if (inscrits != null) {
+                effectifs.put(id, inscrits.taille());
+            } else {
+                effectifs.put(id, 0);
+                nonChargees.add(id);
+            }
+        }
+
+        if (!nonChargees.isEmpty()) {
+            for (Object[] ligne : requeteGroupee.apply(nonChargees)) {
+                effectifs.put((Long) ligne[0], ((Long) ligne[1]).intValue());
+            }
+        }
+        return effectifs;
+    }
+
+    /**
+     * Invalide la liste d'un groupe (affectation ou retrait d'un étudiant)
+     */
+    public void invaliderGroupe(Long groupeId) {
+        ApresCommit.executer(() -> parGroupe.remove(groupeId));
+    }
+
+    /**
+     * Invalide toutes les listes de groupes (retrait d'un étudiant de tous ses groupes)
+     */
+    public void invaliderGroupes() {
+        ApresCommit.executer(parGroupe::clear);
+    }
+
+    /**
+     * Invalide les listes pouvant contenir cet étudiant (création, activation, suppression).
+     * Les groupes d'un étudiant ne sont pas connus ici : toutes les listes de groupes sont invalidées.
+     */
+    public void invaliderEtudiant(User etudiant) {
+        if (etudiant.getRole() != Role.ETUDIANT) {
+            return;
+        }
+        Long formationId = etudiant.getFormation() != null ? etudiant.getFormation().getId() : null;
+        ApresCommit.executer(() -> {
+            if (formationId != null) {
+                parFormation.remove(formationId);
+            }
+            parGroupe.clear();
+        });
+    }
+
+    /**
+     * Liste immuable d'identifiants d'étudiants, triée
+     */
+    public static final class Inscrits {
+
+        static final Inscrits VIDE = new Inscrits(new long[0]);
+
+        private final long[] ids;
+
+        private Inscrits(long[] ids) {
+            this.ids = ids;
+        }
+
+        static Inscrits of(List<Long> ids) {
+            long[] tableau = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            return tableau.length == 0 ? VIDE : new Inscrits(tableau);
+        }
+
+        public boolean contient(long etudiantId) {
+            return Arrays.binarySearch(ids, etudiantId) >= 0;
+        }
+
+        public int taille() {
+            return ids.length;
+        }
+
+        public boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        public List<Long> toList() {
+            return Arrays.stream(ids).boxed().toList();
+        }
+    }
+}
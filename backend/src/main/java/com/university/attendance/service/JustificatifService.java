@@ -12,6 +12,9 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,6 +22,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.university.attendance.model.Justificatif;
 import com.university.attendance.model.Presence;
 import com.university.attendance.model.StatutJustificatif;
+import com.university.attendance.model.StatutPresence;
 import com.university.attendance.model.User;
 import com.university.attendance.repository.JustificatifRepository;
 import com.university.attendance.repository.PresenceRepository;
@@ -40,6 +44,9 @@ public class JustificatifService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CompteurPresenceService compteurPresenceService;
+
     @Value("${upload.path}")
     private String uploadPath;
 
@@ -76,7 +83,13 @@ public class JustificatifService {
         justificatif.setFichierPath(fichierPath);
         justificatif.setStatut(StatutJustificatif.EN_ATTENTE);
 
-        return justificatifRepository.save(justificatif);
+        // La contrainte unique sur absence_id tranche deux dépôts simultanés
+        try {
+            return justificatifRepository.saveAndFlush(justificatif);
+        } catch (DataIntegrityViolationException e) {
+            Files.deleteIfExists(Paths.get(uploadPath).resolve(fichierPath));
+            throw new RuntimeException("Un justificatif existe déjà pour cette absence");
+        }
     }
 
     /**
@@ -89,12 +102,16 @@ public class JustificatifService {
         User validateur = userRepository.findById(validateurId)
                 .orElseThrow(() -> new RuntimeException("Validateur non trouvé"));
 
+        StatutJustificatif ancienStatut = justificatif.getStatut();
         justificatif.setStatut(StatutJustificatif.ACCEPTE);
         justificatif.setValidateur(validateur);
         justificatif.setCommentaireValidation(commentaire);
         justificatif.setDateValidation(LocalDateTime.now());
 
-        return justificatifRepository.save(justificatif);
+        Justificatif savedJustificatif = justificatifRepository.save(justificatif);
+        mettreAJourCompteur(justificatif.getAbsence(), ancienStatut, StatutJustificatif.ACCEPTE);
+
+        return savedJustificatif;
     }
 
     /**
@@ -107,12 +124,31 @@ public class JustificatifService {
         User validateur = userRepository.findById(validateurId)
                 .orElseThrow(() -> new RuntimeException("Validateur non trouvé"));
 
+        StatutJustificatif ancienStatut = justificatif.getStatut();
         justificatif.setStatut(StatutJustificatif.REFUSE);
         justificatif.setValidateur(validateur);
         justificatif.setCommentaireValidation(commentaire);
         justificatif.setDateValidation(LocalDateTime.now());
 
-        return justificatifRepository.save(justificatif);
+        Justificatif savedJustificatif = justificatifRepository.save(justificatif);
+        mettreAJourCompteur(justificatif.getAbsence(), ancienStatut, StatutJustificatif.REFUSE);
+
+        return savedJustificatif;
+    }
+
+    /**
+     * Répercute une décision sur le compteur d'absences justifiées de l'étudiant
+     */
+    private void mettreAJourCompteur(Presence absence, StatutJustificatif ancien, StatutJustificatif nouveau) {
+        if (absence.getStatut() != StatutPresence.ABSENT || ancien == nouveau) {
+            return;
+        }
+
+        long variation = (nouveau == StatutJustificatif.ACCEPTE ? 1 : 0) - (ancien == StatutJustificatif.ACCEPTE ? 1 : 0);
+        if (variation != 0) {
+            compteurPresenceService.changerAbsencesJustifiees(
+                    absence.getEtudiant().getId(), absence.getSeance().getMatiere().getId(), variation);
+        }
     }
 
     /**
@@ -148,7 +184,16 @@ public class JustificatifService {
      * Obtient un justificatif par son ID
      */
     public Optional<Justificatif> getJustificatifById(Long id) {
-        return justificatifRepository.findById(id);
+        return justificatifRepository.findChargeById(id);
+    }
+
+    /**
+     * Obtient une page de justificatifs filtrés (statut, étudiant, formation, période de dépôt)
+     */
+    @Transactional(readOnly = true)
+    public Page<Justificatif> getJustificatifsPage(StatutJustificatif statut, Long etudiantId, Long formationId,
+                                                   LocalDateTime debut, LocalDateTime fin, Pageable pageable) {
+        return justificatifRepository.findPage(statut, etudiantId, formationId, debut, fin, pageable);
     }
 
     /**
@@ -183,6 +228,9 @@ public class JustificatifService {
      * Supprime un justificatif
      */
     public void deleteJustificatif(Long id) {
-        justificatifRepository.deleteById(id);
+        justificatifRepository.findById(id).ifPresent(justificatif -> {
+            mettreAJourCompteur(justificatif.getAbsence(), justificatif.getStatut(), null);
+            justificatifRepository.delete(justificatif);
+        });
     }
 }
@@ -32,6 +32,9 @@ public class MatiereService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
     /**
      * Crée une nouvelle matière à partir d'un DTO
      */
@@ -77,7 +80,9 @@ public class MatiereService {
         matiere.setSeuilAbsences(matiereDTO.getSeuilAbsences() != null ? matiereDTO.getSeuilAbsences() : 3);
         matiere.setActif(matiereDTO.getActif() != null ? matiereDTO.getActif() : true);
 
-        return matiereRepository.save(matiere);
+        Matiere savedMatiere = matiereRepository.save(matiere);
+        statistiquesAssiduiteService.marquerModifie();
+        return savedMatiere;
     }
 
     /**
@@ -120,14 +125,16 @@ public class MatiereService {
         }
         matiere.setEnseignant(enseignantUpdate);
 
-        return matiereRepository.save(matiere);
+        Matiere savedMatiere = matiereRepository.save(matiere);
+        statistiquesAssiduiteService.marquerModifie();
+        return savedMatiere;
     }
 
     /**
      * Trouve une matière par son ID
      */
     public Optional<Matiere> getMatiereById(Long id) {
-        return matiereRepository.findById(id);
+        return matiereRepository.findChargeeById(id);
     }
 
     /**
@@ -163,6 +170,7 @@ public class MatiereService {
      */
     public void deleteMatiere(Long id) {
         matiereRepository.deleteById(id);
+        statistiquesAssiduiteService.marquerModifie();
     }
 
     /**
@@ -0,0 +1,124 @@
+package com.university.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.university.attendance.dto.PointageLiveDTO;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.repository.PresenceRepository;
+import com.university.attendance.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Flux en direct (Server-Sent Events) des présences d'une séance active pour l'enseignant.
+ * À l'abonnement (ou à la reconnexion), le client reçoit un instantané compact
+ * des présences déjà enregistrées, puis un petit événement à chaque pointage.
+ * Les noms des inscrits sont chargés une seule fois, au premier abonnement.
+ */
+@Component
+public class PresenceLiveFeed {
+
+    @Autowired
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private PresenceWriteBehindQueue presenceWriteBehindQueue;
+
+    @Autowired
+    private PresenceRepository presenceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${seance.code.sse-timeout-ms:14400000}")
+    private long timeout;
+
+    private SseDiffuseur diffuseur;
+
+    // Séances ayant (eu) au moins un abonné : noms des inscrits
+    private final Map<Long, FluxSeance> flux = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        diffuseur = new SseDiffuseur(timeout, "sse-pointages");
+    }
+
+    /**
+     * Abonne l'enseignant au flux des présences d'une séance.
+     * L'abonné est enregistré avant le calcul de l'instantané : les pointages publiés pendant
+     * ce calcul lui sont envoyés juste après, aucun ne peut être perdu entre les deux
+     * (un pointage déjà compris dans l'instantané est renvoyé à l'identique).
+     */
+    public SseEmitter abonner(Long seanceId) {
+        Optional<SeanceActiveRegistry.SeanceActive> seanceActive = seanceActiveRegistry.get(seanceId);
+        if (seanceActive.isEmpty()) {
+            return diffuseur.fluxTermine("fin", instantane(seanceId, 0));
+        }
+
+        flux.computeIfAbsent(seanceId, id -> new FluxSeance(chargerNoms(seanceActive.get())));
+        return diffuseur.abonner(seanceId, "instantane",
+                () -> instantane(seanceId, seanceActive.get().getNombreInscrits()));
+    }
+
+    /**
+     * Publie un changement de présence (pointage, saisie ou modification manuelle).
+     * statut = null pour une présence supprimée. Sans effet si personne n'est abonné ;
+     * l'événement est seulement mis en file, l'envoi réseau ne bloque pas le pointage.
+     */
+    public void publier(Long seanceId, Long etudiantId, StatutPresence statut, LocalDateTime heure) {
+        FluxSeance fluxSeance = flux.get(seanceId);
+        if (fluxSeance == null) {
+            return;
+        }
+
+        diffuseur.publier(seanceId, "presence",
+                new PointageLiveDTO(etudiantId, fluxSeance.noms.get(etudiantId), statut, heure));
+    }
+
+    /**
+     * Fin de la séance : ferme les flux et libère les noms chargés
+     */
+    public void terminer(Long seanceId) {
+        flux.remove(seanceId);
+        diffuseur.terminer(seanceId, "fin", Map.of("seanceId", seanceId));
+    }
+
+    /**
+     * Instantané des présences déjà enregistrées : les pointages encore en file
+     * sont d'abord écrits pour que la requête les voie
+     */
+    private Map<String, Object> instantane(Long seanceId, int nombreInscrits) {
+        presenceWriteBehindQueue.vider();
+
+        List<PointageLiveDTO> presences = new ArrayList<>();
+        for (Object[] ligne : presenceRepository.findPointagesBySeanceId(seanceId)) {
+            presences.add(new PointageLiveDTO((Long) ligne[0], ligne[1] + " " + ligne[2],
+                    (StatutPresence) ligne[3], (LocalDateTime) ligne[4]));
+        }
+
+        return Map.of("seanceId", seanceId, "inscrits", nombreInscrits, "presences", presences);
+    }
+
+    private Map<Long, String> chargerNoms(SeanceActiveRegistry.SeanceActive seanceActive) {
+        Map<Long, String> noms = new ConcurrentHashMap<>();
+        if (!seanceActive.getInscrits().isEmpty()) {
+            for (Object[] ligne : userRepository.findNomsByIds(seanceActive.getInscrits().toList())) {
+                noms.put((Long) ligne[0], ligne[1] + " " + ligne[2]);
+            }
+        }
+        return noms;
+    }
+
+    private record FluxSeance(Map<Long, String> noms) {
+    }
+}
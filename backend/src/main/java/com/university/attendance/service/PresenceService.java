@@ -1,9 +1,17 @@
 package com.university.attendance.service;
 
+import com.university.attendance.dto.Curseur;
+import com.university.attendance.dto.PageCurseurDTO;
+import com.university.attendance.dto.PresenceSeanceDTO;
 import com.university.attendance.dto.StatistiquesEtudiantDTO;
+import com.university.attendance.dto.ValidationPresenceDTO;
 import com.university.attendance.model.*;
 import com.university.attendance.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,77 +41,74 @@ public class PresenceService {
     @Autowired
     private AvertissementRepository avertissementRepository;
 
+    @Autowired
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private PresenceWriteBehindQueue presenceWriteBehindQueue;
+
+    @Autowired
+    private CompteurPresenceService compteurPresenceService;
+
+    @Autowired
+    private JustificatifRepository justificatifRepository;
+
+    @Autowired
+    private PresenceLiveFeed presenceLiveFeed;
+
+    @Autowired
+    private TendancesPresenceService tendancesPresenceService;
+
+    @Autowired
+    private CubePresences cubePresences;
+
     /**
-     * Valide la présence d'un étudiant via le code dynamique
+     * Valide la présence d'un étudiant via le code dynamique.
+     * La validation s'appuie uniquement sur le registre des séances actives
+     * et l'insertion de la présence est différée (voir PresenceWriteBehindQueue).
+     * Idempotent : un second envoi pour la même séance (double appui, réseau instable)
+     * retourne un résultat « déjà enregistrée » sans nouvelle écriture.
      */
-    public Presence validateCode(Long seanceId, Long etudiantId, String code) {
-        // Vérifie que la séance existe
-        Seance seance = seanceRepository.findById(seanceId)
-                .orElseThrow(() -> new RuntimeException("Séance non trouvée"));
+    public ValidationPresenceDTO validateCode(Long seanceId, Long etudiantId, String code) {
+        // Vérifie que la séance existe et qu'elle est active
+        SeanceActiveRegistry.SeanceActive seance = seanceActiveRegistry.get(seanceId)
+                .orElseThrow(() -> new RuntimeException("La séance n'est pas active"));
 
-        // Vérifie que la séance est active
-        if (!seance.getSeanceActive()) {
-            throw new RuntimeException("La séance n'est pas active");
-        }
+        LocalDateTime now = LocalDateTime.now();
 
         // Vérifie que le code n'a pas expiré
-        if (seance.getCodeExpiration().isBefore(LocalDateTime.now())) {
+        if (seance.isCodeExpire(now)) {
             throw new RuntimeException("Le code a expiré");
         }
 
         // Vérifie que le code est correct
-        if (!seance.getCodeDynamique().equals(code)) {
+        if (!seance.isCodeValide(code)) {
             throw new RuntimeException("Code incorrect");
         }
 
-        // Vérifie que l'étudiant existe
-        User etudiant = userRepository.findById(etudiantId)
-                .orElseThrow(() -> new RuntimeException("Étudiant non trouvé"));
-
-        // Vérifie que l'utilisateur est bien un étudiant
-        if (etudiant.getRole() != Role.ETUDIANT) {
-            throw new RuntimeException("L'utilisateur n'est pas un étudiant");
-        }
-
-        // Vérifie que l'étudiant est inscrit à cette séance
-        if (!isEtudiantInscritSeance(etudiant, seance)) {
+        // Vérifie que l'étudiant est inscrit à cette séance (la liste ne contient que des étudiants)
+        if (!seance.isInscrit(etudiantId)) {
             throw new RuntimeException("Vous n'êtes pas inscrit à cette séance");
         }
 
-        // Vérifie si l'étudiant n'a pas déjà validé sa présence
-        Optional<Presence> existingPresence = presenceRepository
-                .findBySeanceIdAndEtudiantId(seanceId, etudiantId);
-
-        if (existingPresence.isPresent()) {
-            throw new RuntimeException("Présence déjà enregistrée");
+        // Vérifie si l'étudiant n'a pas déjà validé sa présence, puis met le pointage en file :
+        // la présence est écrite par lot, l'étudiant est acquitté sans attendre l'insertion
+        boolean nouveauPointage = seance.pointer(() -> {
+            if (!seance.marquerPresent(etudiantId)) {
+                return false;
+            }
+            presenceWriteBehindQueue.ajouter(seanceId, seance.getMatiereId(), etudiantId, now);
+            return true;
+        });
+        if (!nouveauPointage) {
+            // Le statut enregistré peut avoir été modifié par l'enseignant : il n'est pas renvoyé
+            ValidationPresenceDTO dejaEnregistree = new ValidationPresenceDTO(seanceId, etudiantId, null, null);
+            dejaEnregistree.setDejaEnregistree(true);
+            return dejaEnregistree;
         }
+        presenceLiveFeed.publier(seanceId, etudiantId, StatutPresence.PRESENT, now);
 
-        // Crée la présence
-        Presence presence = new Presence();
-        presence.setSeance(seance);
-        presence.setEtudiant(etudiant);
-        presence.setStatut(StatutPresence.PRESENT);
-        presence.setHeureValidation(LocalDateTime.now());
-        presence.setModificationManuelle(false);
-
-        return presenceRepository.save(presence);
-    }
-
-    /**
-     * Vérifie si un étudiant est inscrit à une séance
-     */
-    private boolean isEtudiantInscritSeance(User etudiant, Seance seance) {
-        if (seance.getTypeSeance() == TypeSeance.CM) {
-            // Pour un CM : vérifier que l'étudiant est dans la formation
-            return etudiant.getFormation() != null &&
-                   etudiant.getFormation().getId().equals(seance.getMatiere().getFormation().getId());
-        } else {
-            // Pour un TD/TP : vérifier que l'étudiant est dans le groupe
-            return groupeEtudiantRepository.existsByEtudiantIdAndGroupeId(
-                    etudiant.getId(),
-                    seance.getGroupe().getId()
-            );
-        }
+        return new ValidationPresenceDTO(seanceId, etudiantId, StatutPresence.PRESENT, now);
     }
 
     /**
@@ -121,6 +126,7 @@ public class PresenceService {
             }
         }
 
+        StatutPresence ancienStatut = presence.getStatut();
         presence.setStatut(nouveauStatut);
         presence.setCommentaire(commentaire);
         presence.setModificationManuelle(true);
@@ -134,9 +140,9 @@ public class PresenceService {
         }
 
         Presence updatedPresence = presenceRepository.save(presence);
-
-        // Vérifie si un avertissement doit être généré
-        verifierSeuilAbsences(presence.getEtudiant(), presence.getSeance().getMatiere());
+        mettreAJourCompteurs(presence, ancienStatut, nouveauStatut);
+        presenceLiveFeed.publier(presence.getSeance().getId(), presence.getEtudiant().getId(),
+                nouveauStatut, presence.getHeureValidation());
 
         return updatedPresence;
     }
@@ -163,7 +169,7 @@ public class PresenceService {
         Optional<Presence> existingPresence = presenceRepository
                 .findBySeanceIdAndEtudiantId(seanceId, etudiantId);
 
-        if (existingPresence.isPresent()) {
+        if (existingPresence.isPresent() || seanceActiveRegistry.isPresent(seanceId, etudiantId)) {
             throw new RuntimeException("Une présence existe déjà pour cet étudiant");
         }
 
@@ -173,41 +179,56 @@ public class PresenceService {
         presence.setStatut(statut);
         presence.setModificationManuelle(true);
 
-        Presence savedPresence = presenceRepository.save(presence);
-
-        // Vérifie si un avertissement doit être généré
-        if (statut == StatutPresence.ABSENT) {
-            verifierSeuilAbsences(etudiant, seance.getMatiere());
+        // Écriture immédiate : la contrainte unique (seance_id, etudiant_id) tranche une création concurrente
+        Presence savedPresence;
+        try {
+            savedPresence = presenceRepository.saveAndFlush(presence);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Une présence existe déjà pour cet étudiant");
         }
+        seanceActiveRegistry.marquerPresent(seanceId, etudiantId);
+        compteurPresenceService.changerStatut(etudiantId, seance.getMatiere().getId(), null, statut);
+        tendancesPresenceService.invalider(seance.getDateDebut());
+        cubePresences.enregistrerPresence(seanceId, etudiantId, statut);
+        presenceLiveFeed.publier(seanceId, etudiantId, statut, null);
 
         return savedPresence;
     }
 
     /**
-     * Vérifie si le seuil d'absences est dépassé et génère un avertissement
+     * Répercute un changement de statut sur les compteurs pré-agrégés,
+     * y compris l'absence justifiée si un justificatif accepté couvre cette absence
      */
-    private void verifierSeuilAbsences(User etudiant, Matiere matiere) {
-        Long nombreAbsences = presenceRepository.countAbsencesByEtudiantAndMatiere(
-                etudiant.getId(),
-                matiere.getId()
-        );
-
-        // Si le seuil est dépassé et qu'aucun avertissement n'existe déjà
-        if (nombreAbsences >= matiere.getSeuilAbsences() &&
-            !avertissementRepository.existsByEtudiantIdAndMatiereId(etudiant.getId(), matiere.getId())) {
-
-            Avertissement avertissement = new Avertissement();
-            avertissement.setEtudiant(etudiant);
-            avertissement.setMatiere(matiere);
-            avertissement.setNombreAbsences(nombreAbsences.intValue());
-            avertissement.setAutomatique(true);
-            avertissement.setMotif("Dépassement du seuil d'absences autorisées (" +
-                    matiere.getSeuilAbsences() + " absences)");
+    private void mettreAJourCompteurs(Presence presence, StatutPresence ancien, StatutPresence nouveau) {
+        if (ancien == nouveau) {
+            return;
+        }
 
-            avertissementRepository.save(avertissement);
+        Long etudiantId = presence.getEtudiant().getId();
+        Long matiereId = presence.getSeance().getMatiere().getId();
+        compteurPresenceService.changerStatut(etudiantId, matiereId, ancien, nouveau);
+        tendancesPresenceService.invalider(presence.getSeance().getDateDebut());
+        cubePresences.enregistrerPresence(presence.getSeance().getId(), etudiantId, nouveau);
+
+        if (ancien == StatutPresence.ABSENT || nouveau == StatutPresence.ABSENT) {
+            boolean justifiee = justificatifRepository.findByAbsenceId(presence.getId())
+                    .map(j -> j.getStatut() == StatutJustificatif.ACCEPTE)
+                    .orElse(false);
+            if (justifiee) {
+                compteurPresenceService.changerAbsencesJustifiees(etudiantId, matiereId,
+                        nouveau == StatutPresence.ABSENT ? 1 : -1);
+            }
         }
     }
 
+    /**
+     * Obtient une présence par son ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<Presence> getPresenceById(Long id) {
+        return presenceRepository.findChargeeById(id);
+    }
+
     /**
      * Obtient toutes les présences d'un étudiant
      */
@@ -215,11 +236,40 @@ public class PresenceService {
         return presenceRepository.findByEtudiantId(etudiantId);
     }
 
+    /**
+     * Historique des présences d'un étudiant, parcouru par curseur (dateDebut, id) de la séance
+     * Une ligne de plus que la taille demandée est lue pour savoir s'il reste une page
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Presence> getHistoriqueEtudiant(Long etudiantId, Curseur apres, int taille) {
+        Pageable limite = PageRequest.of(0, taille + 1);
+        List<Presence> presences = apres == null
+                ? presenceRepository.findHistoriqueEtudiant(etudiantId, limite)
+                : presenceRepository.findHistoriqueEtudiantApres(etudiantId, apres.getDateDebut(), apres.getId(), limite);
+
+        if (presences.size() <= taille) {
+            return new PageCurseurDTO<>(presences, null);
+        }
+        List<Presence> page = presences.subList(0, taille);
+        Seance derniere = page.get(taille - 1).getSeance();
+        return new PageCurseurDTO<>(page, new Curseur(derniere.getDateDebut(), derniere.getId()).encoder());
+    }
+
+    /**
+     * Obtient une page des présences d'un étudiant (statut, matière, période sur la date de la séance)
+     */
+    @Transactional(readOnly = true)
+    public Page<Presence> getPresencesByEtudiantPage(Long etudiantId, StatutPresence statut, Long matiereId,
+                                                     LocalDateTime debut, LocalDateTime fin, Pageable pageable) {
+        return presenceRepository.findPageByEtudiantId(etudiantId, statut, matiereId, debut, fin, pageable);
+    }
+
     /**
      * Obtient toutes les présences d'une séance
      */
-    public List<Presence> getPresencesBySeance(Long seanceId) {
-        return presenceRepository.findBySeanceId(seanceId);
+    @Transactional(readOnly = true)
+    public List<PresenceSeanceDTO> getPresencesBySeance(Long seanceId) {
+        return presenceRepository.findFeuilleBySeanceId(seanceId);
     }
 
     /**
@@ -229,18 +279,13 @@ public class PresenceService {
         User etudiant = userRepository.findById(etudiantId)
                 .orElseThrow(() -> new RuntimeException("Étudiant non trouvé"));
 
-        List<Presence> presences = presenceRepository.findByEtudiantId(etudiantId);
+        // Lecture des compteurs pré-agrégés : pas de parcours de l'historique
+        CompteurPresence totaux = compteurPresenceService.getTotaux(etudiantId);
 
-        long totalSeances = presences.size();
-        long totalPresences = presences.stream()
-                .filter(p -> p.getStatut() == StatutPresence.PRESENT)
-                .count();
-        long totalAbsences = presences.stream()
-                .filter(p -> p.getStatut() == StatutPresence.ABSENT)
-                .count();
-        long totalRetards = presences.stream()
-                .filter(p -> p.getStatut() == StatutPresence.RETARD)
-                .count();
+        long totalSeances = totaux.getTotalSeances();
+        long totalPresences = totaux.getPresents();
+        long totalAbsences = totaux.getAbsences();
+        long totalRetards = totaux.getRetards();
 
         // Avoid division by zero at the DB level: compute taux locally using counts
         Double tauxAbsence;
@@ -275,6 +320,11 @@ public class PresenceService {
      * Supprime une présence
      */
     public void deletePresence(Long id) {
-        presenceRepository.deleteById(id);
+        presenceRepository.findById(id).ifPresent(presence -> {
+            mettreAJourCompteurs(presence, presence.getStatut(), null);
+            presenceRepository.delete(presence);
+            seanceActiveRegistry.annulerPresence(presence.getSeance().getId(), presence.getEtudiant().getId());
+            presenceLiveFeed.publier(presence.getSeance().getId(), presence.getEtudiant().getId(), null, null);
+        });
     }
 }
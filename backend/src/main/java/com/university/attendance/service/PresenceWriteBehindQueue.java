@@ -0,0 +1,279 @@
+package com.university.attendance.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.model.StatutPresence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * File d'écriture différée des pointages.
+ * Le pointage de l'étudiant est acquitté immédiatement ; les présences sont
+ * insérées par lots JDBC toutes les quelques centaines de millisecondes.
+ * SeanceService.stopSeance vide la file avant de calculer les absences.
+ *
+ * Aucun pointage acquitté n'est abandonné sur une erreur passagère : un pointage dont l'écriture
+ * échoue est remis en file et réessayé aux vidages suivants, jusqu'à presence.write-behind.max-essais
+ * tentatives. Lors de l'arrêt d'une séance, un pointage de cette séance qui ne peut être écrit
+ * fait échouer l'arrêt plutôt que d'être recouvert par une absence.
+ *
+ * Chaque pointage est une seule instruction INSERT ... ON CONFLICT DO NOTHING :
+ * la contrainte unique (seance_id, etudiant_id) écarte un pointage déjà en base
+ * (double envoi, autre instance) sans faire échouer le lot ni lire la table au préalable.
+ */
+@Component
+public class PresenceWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceWriteBehindQueue.class);
+
+    // ON CONFLICT DO NOTHING sans cible : accepté par PostgreSQL et par H2 en mode PostgreSQL.
+    // L'identifiant est tiré directement de la séquence : les valeurs réservées par lots de 50
+    // par Hibernate (createPresenceManuelle, absences) ne sont jamais réutilisées.
+    static final String INSERT_POINTAGE =
+            "INSERT INTO presences (id, seance_id, etudiant_id, statut, heure_validation, "
+                    + "modification_manuelle, created_at, updated_at) "
+                    + "VALUES (nextval('presences_seq'), ?, ?, 'PRESENT', ?, false, ?, ?) "
+                    + "ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private CompteurPresenceService compteurPresenceService;
+
+    @Autowired
+    private CubePresences cubePresences;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${presence.write-behind.max-essais:20}")
+    private int maxEssais;
+
+    private final ConcurrentLinkedQueue<PointageEnAttente> file = new ConcurrentLinkedQueue<>();
+
+    // Un seul vidage à la fois : stopSeance attend la fin (commit compris) d'un vidage planifié en cours
+    private final ReentrantLock verrouVidage = new ReentrantLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ajoute un pointage à la file
+     */
+    public void ajouter(Long seanceId, Long matiereId, Long etudiantId, LocalDateTime heureValidation) {
+        file.add(new PointageEnAttente(seanceId, matiereId, etudiantId, heureValidation, 0));
+    }
+
+    /**
+     * Nombre de pointages en attente d'écriture
+     */
+    public int getTaille() {
+        return file.size();
+    }
+
+    /**
+     * Vidage périodique de la file
+     */
+    @Scheduled(fixedDelayString = "${presence.write-behind.flush-interval-ms:250}")
+    public void vidagePlanifie() {
+        vider();
+    }
+
+    /**
+     * Écrit en base tous les pointages en attente et retourne le nombre de présences insérées
+     * (les pointages déjà enregistrés ne sont pas comptés).
+     * Au retour, les présences sont validées (commit) et visibles des autres transactions ;
+     * les pointages en échec sont remis en file.
+     */
+    public int vider() {
+        verrouVidage.lock();
+        try {
+            return ecrire(null);
+        } finally {
+            verrouVidage.unlock();
+        }
+    }
+
+    /**
+     * Vide la file avant l'arrêt d'une séance.
+     * Lève une exception si un pointage de cette séance n'a pas pu être écrit : il reste en file
+     * et l'arrêt doit être relancé, sans quoi l'étudiant serait compté absent.
+     */
+    public int viderSeance(Long seanceId) {
+        verrouVidage.lock();
+        try {
+            int ecrits = ecrire(seanceId);
+            if (file.stream().anyMatch(pointage -> pointage.seanceId().equals(seanceId))) {
+                throw new RuntimeException("Des pointages de la séance n'ont pas encore pu être enregistrés, "
+                        + "veuillez réessayer d'arrêter la séance");
+            }
+            return ecrits;
+        } finally {
+            verrouVidage.unlock();
+        }
+    }
+
+    /**
+     * Écrit le contenu actuel de la file (sous verrouVidage).
+     * Les pointages de la séance en cours d'arrêt sont toujours remis en file en cas d'échec.
+     */
+    private int ecrire(Long seanceArretee) {
+        List<PointageEnAttente> lot = new ArrayList<>();
+        PointageEnAttente pointage;
+        while ((pointage = file.poll()) != null) {
+            lot.add(pointage);
+        }
+
+        if (lot.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                int[] lignes = inserer(lot);
+
+                // Met à jour les compteurs des seules présences insérées : une mise à jour groupée par matière
+                List<PointageEnAttente> inseres = new ArrayList<>();
+                for (int i = 0; i < lot.size(); i++) {
+                    if (lignes[i] > 0) {
+                        inseres.add(lot.get(i));
+                    } else {
+                        logDejaEnregistre(lot.get(i));
+                    }
+                }
+                inseres.stream()
+                        .collect(Collectors.groupingBy(PointageEnAttente::matiereId,
+                                Collectors.mapping(PointageEnAttente::etudiantId, Collectors.toList())))
+                        .forEach(compteurPresenceService::ajouterPresents);
+                inseres.stream()
+                        .collect(Collectors.groupingBy(PointageEnAttente::seanceId,
+                                Collectors.mapping(PointageEnAttente::etudiantId, Collectors.toList())))
+                        .forEach((seanceId, etudiantIds) ->
+                                cubePresences.enregistrerPresences(seanceId, etudiantIds, StatutPresence.PRESENT));
+                return inseres.size();
+            });
+        } catch (RuntimeException e) {
+            log.error("Échec de l'écriture groupée de {} pointages, nouvel essai un par un", lot.size(), e);
+            return ecrireUnParUn(lot, seanceArretee);
+        }
+    }
+
+    /**
+     * Repli en cas d'échec du lot : isole le ou les pointages fautifs et les remet en file
+     */
+    private int ecrireUnParUn(List<PointageEnAttente> lot, Long seanceArretee) {
+        int ecrits = 0;
+        for (PointageEnAttente pointage : lot) {
+            try {
+                boolean insere = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    if (inserer(List.of(pointage))[0] == 0) {
+                        return false;
+                    }
+                    compteurPresenceService.changerStatut(
+                            pointage.etudiantId(), pointage.matiereId(), null, StatutPresence.PRESENT);
+                    cubePresences.enregistrerPresence(
+                            pointage.seanceId(), pointage.etudiantId(), StatutPresence.PRESENT);
+                    return true;
+                }));
+                if (insere) {
+                    ecrits++;
+                } else {
+                    logDejaEnregistre(pointage);
+                }
+            } catch (RuntimeException e) {
+                remettreEnFile(pointage, seanceArretee, e);
+            }
+        }
+        return ecrits;
+    }
+
+    /**
+     * Remet un pointage en échec dans la file, sauf s'il a épuisé ses tentatives
+     */
+    private void remettreEnFile(PointageEnAttente pointage, Long seanceArretee, RuntimeException erreur) {
+        int essais = pointage.essais() + 1;
+        if (essais < maxEssais || pointage.seanceId().equals(seanceArretee)) {
+            log.warn("Échec de l'écriture du pointage (séance {}, étudiant {}), essai {}/{} : remis en file",
+                    pointage.seanceId(), pointage.etudiantId(), essais, maxEssais, erreur);
+            file.add(new PointageEnAttente(pointage.seanceId(), pointage.matiereId(), pointage.etudiantId(),
+                    pointage.heureValidation(), essais));
+        } else {
+            log.error("Pointage abandonné après {} essais : séance {}, étudiant {}",
+                    essais, pointage.seanceId(), pointage.etudiantId(), erreur);
+            seanceActiveRegistry.annulerPresence(pointage.seanceId(), pointage.etudiantId());
+        }
+    }
+
+    /**
+     * Insère les pointages en un lot JDBC ; retourne pour chacun le nombre de lignes insérées
+     * (0 si la présence existait déjà)
+     */
+    private int[] inserer(List<PointageEnAttente> pointages) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        return jdbcTemplate.batchUpdate(INSERT_POINTAGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PointageEnAttente pointage = pointages.get(i);
+                ps.setLong(1, pointage.seanceId());
+                ps.setLong(2, pointage.etudiantId());
+                ps.setObject(3, pointage.heureValidation());
+                ps.setObject(4, maintenant);
+                ps.setObject(5, maintenant);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pointages.size();
+            }
+        });
+    }
+
+    private void logDejaEnregistre(PointageEnAttente pointage) {
+        // La présence est déjà en base, l'étudiant reste marqué présent
+        log.warn("Pointage déjà enregistré : séance {}, étudiant {}", pointage.seanceId(), pointage.etudiantId());
+    }
+
+    /**
+     * Vide la file à l'arrêt de l'application pour ne perdre aucun pointage
+     */
+    @PreDestroy
+    void arreter() {
+        vider();
+        if (!file.isEmpty()) {
+            log.error("{} pointage(s) non écrit(s) à l'arrêt de l'application : {}", file.size(), file);
+        }
+    }
+
+    private record PointageEnAttente(Long seanceId, Long matiereId, Long etudiantId, LocalDateTime heureValidation,
+                                     int essais) {
+    }
+}
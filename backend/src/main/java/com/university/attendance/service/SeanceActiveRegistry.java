@@ -0,0 +1,297 @@
+package com.university.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.university.attendance.model.Seance;
+import com.university.attendance.repository.PresenceRepository;
+import com.university.attendance.repository.SeanceRepository;
+import com.university.attendance.service.InscritsCache.Inscrits;
+
+/**
+ * Registre en mémoire des séances actives.
+ * Conserve pour chaque séance lancée le code dynamique courant, son expiration,
+ * la liste des étudiants inscrits et ceux ayant déjà pointé, afin de valider
+ * un code de présence sans interroger la base de données.
+ * Chargé au démarrage, puis tenu à jour par SeanceService (start / renew-code / stop / cancel).
+ */
+@Component
+public class SeanceActiveRegistry {
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private InscritsCache inscritsCache;
+
+    @Autowired
+    private PresenceRepository presenceRepository;
+
+    private final Map<Long, SeanceActive> seances = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre (ou remplace) une séance qui vient d'être lancée
+     */
+    public SeanceActive enregistrer(Seance seance) {
+        SeanceActive seanceActive = construire(seance);
+        seances.put(seance.getId(), seanceActive);
+        return seanceActive;
+    }
+
+    /**
+     * Met à jour le code dynamique d'une séance déjà enregistrée
+     */
+    public void renouvelerCode(Seance seance) {
+        SeanceActive seanceActive = seances.get(seance.getId());
+        if (seanceActive == null) {
+            enregistrer(seance);
+        } else {
+            seanceActive.setCode(seance.getCodeDynamique(), seance.getCodeExpiration());
+        }
+    }
+
+    /**
+     * Met à jour le code d'une séance présente dans le registre (rotation planifiée).
+     * Sans effet si la séance a été retirée entre-temps.
+     */
+    public void mettreAJourCode(Long seanceId, String code, LocalDateTime expiration) {
+        SeanceActive seanceActive = seances.get(seanceId);
+        if (seanceActive != null) {
+            seanceActive.setCode(code, expiration);
+        }
+    }
+
+    /**
+     * Retire une séance du registre (arrêt, annulation, modification ou suppression).
+     * Au retour de cette méthode, plus aucun pointage ne peut être accepté pour cette séance.
+     */
+    public SeanceActive retirer(Long seanceId) {
+        SeanceActive seanceActive = seances.remove(seanceId);
+        if (seanceActive != null) {
+            seanceActive.fermer();
+        }
+        return seanceActive;
+    }
+
+    /**
+     * Rouvre une séance retirée dont l'arrêt a échoué : les pointages sont de nouveau acceptés
+     */
+    public void rouvrir(SeanceActive seanceActive) {
+        if (seanceActive != null) {
+            seanceActive.rouvrir();
+            seances.putIfAbsent(seanceActive.getSeanceId(), seanceActive);
+        }
+    }
+
+    /**
+     * Recharge au démarrage les séances restées actives en base.
+     * C'est le seul chargement depuis la base : get() ne relit jamais une séance absente du registre,
+     * sans quoi une séance en cours d'arrêt (retirée mais pas encore validée inactive) y reviendrait.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void charger() {
+        for (Seance active : seanceRepository.findBySeanceActive(true)) {
+            seanceRepository.findChargeeById(active.getId())
+                    .filter(seance -> Boolean.TRUE.equals(seance.getSeanceActive()))
+                    .ifPresent(seance -> seances.putIfAbsent(seance.getId(), construire(seance)));
+        }
+    }
+
+    /**
+     * Retourne la séance active correspondante (vide si elle n'est pas ou plus active)
+     */
+    public Optional<SeanceActive> get(Long seanceId) {
+        return Optional.ofNullable(seances.get(seanceId));
+    }
+
+    /**
+     * Signale une présence enregistrée hors pointage (saisie manuelle de l'enseignant)
+     */
+    public void marquerPresent(Long seanceId, Long etudiantId) {
+        SeanceActive seanceActive = seances.get(seanceId);
+        if (seanceActive != null) {
+            seanceActive.marquerPresent(etudiantId);
+        }
+    }
+
+    /**
+     * Indique si un pointage est connu pour cet étudiant (y compris en attente d'écriture)
+     */
+    public boolean isPresent(Long seanceId, Long etudiantId) {
+        SeanceActive seanceActive = seances.get(seanceId);
+        return seanceActive != null && seanceActive.isPresent(etudiantId);
+    }
+
+    /**
+     * Signale la suppression d'une présence pour permettre un nouveau pointage
+     */
+    public void annulerPresence(Long seanceId, Long etudiantId) {
+        SeanceActive seanceActive = seances.get(seanceId);
+        if (seanceActive != null) {
+            seanceActive.annulerPresence(etudiantId);
+        }
+    }
+
+    /**
+     * Retourne toutes les séances actuellement enregistrées
+     */
+    public Collection<SeanceActive> getAll() {
+        return seances.values();
+    }
+
+    /**
+     * Construit l'état en mémoire d'une séance : inscrits et présences déjà enregistrées
+     */
+    private SeanceActive construire(Seance seance) {
+        // CM : étudiants de la formation, TD/TP : étudiants du groupe (listes partagées en cache)
+        SeanceActive seanceActive = new SeanceActive(
+                seance.getId(), seance.getMatiere().getId(), inscritsCache.getSeance(seance));
+        seanceActive.setCode(seance.getCodeDynamique(), seance.getCodeExpiration());
+        seanceActive.presents.addAll(presenceRepository.findEtudiantIdsBySeanceId(seance.getId()));
+        return seanceActive;
+    }
+
+    /**
+     * État en mémoire d'une séance active
+     */
+    public static class SeanceActive {
+
+        private final Long seanceId;
+        private final Long matiereId;
+        private final Inscrits inscrits;
+        private final Set<Long> presents = ConcurrentHashMap.newKeySet();
+
+        // Code et expiration lus ensemble : remplacés de façon atomique
+        private volatile CodeDynamique code;
+
+        // Les pointages prennent le verrou partagé, la fermeture le verrou exclusif
+        private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+        private boolean fermee = false;
+
+        SeanceActive(Long seanceId, Long matiereId, Inscrits inscrits) {
+            this.seanceId = seanceId;
+            this.matiereId = matiereId;
+            this.inscrits = inscrits;
+        }
+
+        void setCode(String valeur, LocalDateTime expiration) {
+            this.code = new CodeDynamique(valeur, expiration);
+        }
+
+        public Long getSeanceId() {
+            return seanceId;
+        }
+
+        public Long getMatiereId() {
+            return matiereId;
+        }
+
+        public String getCode() {
+            return code.valeur();
+        }
+
+        public LocalDateTime getCodeExpiration() {
+            return code.expiration();
+        }
+
+        /**
+         * Vérifie si le code courant a expiré
+         */
+        public boolean isCodeExpire(LocalDateTime now) {
+            CodeDynamique courant = code;
+            return courant.expiration() == null || courant.expiration().isBefore(now);
+        }
+
+        /**
+         * Vérifie que le code fourni correspond au code courant
+         */
+        public boolean isCodeValide(String valeur) {
+            CodeDynamique courant = code;
+            return courant.valeur() != null && courant.valeur().equals(valeur);
+        }
+
+        public boolean isInscrit(Long etudiantId) {
+            return inscrits.contient(etudiantId);
+        }
+
+        public Inscrits getInscrits() {
+            return inscrits;
+        }
+
+        public int getNombreInscrits() {
+            return inscrits.taille();
+        }
+
+        /**
+         * Marque l'étudiant comme présent.
+         * Retourne false si une présence était déjà enregistrée pour cet étudiant.
+         */
+        public boolean marquerPresent(Long etudiantId) {
+            return presents.add(etudiantId);
+        }
+
+        /**
+         * Annule un marquage (par exemple si l'enregistrement en base a échoué)
+         */
+        public void annulerPresence(Long etudiantId) {
+            presents.remove(etudiantId);
+        }
+
+        public boolean isPresent(Long etudiantId) {
+            return presents.contains(etudiantId);
+        }
+
+        /**
+         * Exécute un pointage tant que la séance n'est pas fermée.
+         * Garantit qu'aucun pointage n'est mis en file après l'arrêt de la séance.
+         */
+        public <T> T pointer(Supplier<T> pointage) {
+            verrou.readLock().lock();
+            try {
+                if (fermee) {
+                    throw new RuntimeException("La séance n'est pas active");
+                }
+                return pointage.get();
+            } finally {
+                verrou.readLock().unlock();
+            }
+        }
+
+        /**
+         * Ferme la séance : attend la fin des pointages en cours puis refuse les suivants
+         */
+        void fermer() {
+            verrou.writeLock().lock();
+            try {
+                fermee = true;
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+
+        void rouvrir() {
+            verrou.writeLock().lock();
+            try {
+                fermee = false;
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+
+    private record CodeDynamique(String valeur, LocalDateTime expiration) {
+    }
+}
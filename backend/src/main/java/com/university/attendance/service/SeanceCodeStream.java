@@ -0,0 +1,66 @@
+package com.university.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Diffusion en temps réel (Server-Sent Events) du code dynamique d'une séance.
+ * L'écran de l'enseignant s'abonne une fois ; chaque renouvellement du code
+ * (rotation planifiée ou manuelle) lui est poussé, sans interrogation périodique.
+ */
+@Component
+public class SeanceCodeStream {
+
+    @Value("${seance.code.sse-timeout-ms:14400000}")
+    private long timeout;
+
+    private SseDiffuseur diffuseur;
+
+    @PostConstruct
+    void init() {
+        diffuseur = new SseDiffuseur(timeout, "sse-codes");
+    }
+
+    /**
+     * Abonne un client aux codes d'une séance.
+     * Le code courant est envoyé immédiatement s'il est connu.
+     */
+    public SseEmitter abonner(Long seanceId, String codeCourant, LocalDateTime expiration) {
+        return diffuseur.abonner(seanceId, "code",
+                () -> codeCourant != null ? evenementCode(seanceId, codeCourant, expiration) : null);
+    }
+
+    /**
+     * Flux d'une séance qui n'est pas (ou plus) active : l'événement de fin est envoyé
+     * immédiatement pour que le client cesse de se reconnecter
+     */
+    public SseEmitter fluxTermine(Long seanceId) {
+        return diffuseur.fluxTermine("fin", Map.of("seanceId", seanceId));
+    }
+
+    /**
+     * Pousse un nouveau code à tous les abonnés de la séance
+     */
+    public void publierCode(Long seanceId, String code, LocalDateTime expiration) {
+        if (diffuseur.hasAbonnes(seanceId)) {
+            diffuseur.publier(seanceId, "code", evenementCode(seanceId, code, expiration));
+        }
+    }
+
+    /**
+     * Signale la fin de la séance (arrêt, annulation, suppression) et ferme les flux
+     */
+    public void terminer(Long seanceId) {
+        diffuseur.terminer(seanceId, "fin", Map.of("seanceId", seanceId));
+    }
+
+    private static Map<String, Object> evenementCode(Long seanceId, String code, LocalDateTime expiration) {
+        return Map.of("seanceId", seanceId, "code", code, "expiration", expiration);
+    }
+}
@@ -2,27 +2,40 @@ package com.university.attendance.service;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.university.attendance.dto.Curseur;
 import com.university.attendance.dto.EtudiantInscritDTO;
-import com.university.attendance.model.GroupeEtudiant;
+import com.university.attendance.dto.PageCurseurDTO;
+import com.university.attendance.dto.SeanceEtudiantDTO;
+import com.university.attendance.dto.SeanceListeDTO;
 import com.university.attendance.model.Presence;
-import com.university.attendance.model.Role;
 import com.university.attendance.model.Seance;
 import com.university.attendance.model.StatutPresence;
 import com.university.attendance.model.StatutSeance;
 import com.university.attendance.model.TypeSeance;
 import com.university.attendance.model.User;
-import com.university.attendance.repository.GroupeEtudiantRepository;
 import com.university.attendance.repository.PresenceRepository;
 import com.university.attendance.repository.SeanceRepository;
 import com.university.attendance.repository.UserRepository;
+import com.university.attendance.service.InscritsCache.Inscrits;
 
 /**
  * Service pour gérer les séances de cours
@@ -31,6 +44,8 @@ import com.university.attendance.repository.UserRepository;
 @Transactional
 public class SeanceService {
 
+    private static final Logger log = LoggerFactory.getLogger(SeanceService.class);
+
     @Autowired
     private SeanceRepository seanceRepository;
 
@@ -38,20 +53,43 @@ public class SeanceService {
     private PresenceRepository presenceRepository;
 
     @Autowired
-    private GroupeEtudiantRepository groupeEtudiantRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private PresenceWriteBehindQueue presenceWriteBehindQueue;
+
+    @Autowired
+    private CompteurPresenceService compteurPresenceService;
+
+    @Autowired
+    private SeanceCodeStream seanceCodeStream;
+
+    @Autowired
+    private PresenceLiveFeed presenceLiveFeed;
+
+    @Autowired
+    private InscritsCache inscritsCache;
+
+    @Autowired
+    private TendancesPresenceService tendancesPresenceService;
+
+    @Autowired
+    private CubePresences cubePresences;
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 6;
-    private static final int CODE_VALIDITY_SECONDS = 30;
+    static final int CODE_VALIDITY_SECONDS = 30;
 
     /**
      * Crée une nouvelle séance
      */
     public Seance createSeance(Seance seance) {
-        return seanceRepository.save(seance);
+        Seance savedSeance = seanceRepository.save(seance);
+        cubePresences.enregistrerSeance(savedSeance);
+        return savedSeance;
     }
 
     /**
@@ -61,6 +99,22 @@ public class SeanceService {
         Seance seance = seanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'id : " + id));
 
+        // Les présences déjà enregistrées changent de période ou de critères dans les tendances
+        tendancesPresenceService.invalider(seance.getDateDebut());
+        tendancesPresenceService.invalider(seanceDetails.getDateDebut());
+
+        // La liste des inscrits peut changer (matière, groupe) : l'état en mémoire est reconstruit
+        seanceActiveRegistry.retirer(id);
+
+        // Changement de matière : les présences de la séance passent aux compteurs de la nouvelle matière
+        Long ancienneMatiereId = seance.getMatiere().getId();
+        Long nouvelleMatiereId = seanceDetails.getMatiere() != null ? seanceDetails.getMatiere().getId() : null;
+        if (nouvelleMatiereId != null && !nouvelleMatiereId.equals(ancienneMatiereId)) {
+            // Les pointages encore en file sont écrits d'abord : ils portent l'ancienne matière
+            presenceWriteBehindQueue.vider();
+            compteurPresenceService.transfererSeance(id, ancienneMatiereId, nouvelleMatiereId);
+        }
+
         seance.setMatiere(seanceDetails.getMatiere());
         seance.setEnseignant(seanceDetails.getEnseignant());
         seance.setTypeSeance(seanceDetails.getTypeSeance());
@@ -73,7 +127,13 @@ public class SeanceService {
         // Marquer la séance comme reportée lors de la modification
         seance.setStatut(StatutSeance.REPORTEE);
 
-        return seanceRepository.save(seance);
+        Seance savedSeance = seanceRepository.save(seance);
+        cubePresences.enregistrerSeance(savedSeance);
+        if (Boolean.TRUE.equals(savedSeance.getSeanceActive())) {
+            seanceActiveRegistry.enregistrer(savedSeance);
+        }
+
+        return savedSeance;
     }
 
     /**
@@ -103,7 +163,10 @@ public class SeanceService {
         seance.setSeanceActive(true);
         seance.setStatut(StatutSeance.EN_COURS);
 
-        return seanceRepository.save(seance);
+        Seance savedSeance = seanceRepository.save(seance);
+        seanceActiveRegistry.enregistrer(savedSeance);
+
+        return savedSeance;
     }
 
     /**
@@ -122,13 +185,56 @@ public class SeanceService {
         seance.setCodeDynamique(newCode);
         seance.setCodeExpiration(LocalDateTime.now().plusSeconds(CODE_VALIDITY_SECONDS));
 
-        return seanceRepository.save(seance);
+        Seance savedSeance = seanceRepository.save(seance);
+        seanceActiveRegistry.renouvelerCode(savedSeance);
+        seanceCodeStream.publierCode(seanceId, newCode, savedSeance.getCodeExpiration());
+
+        return savedSeance;
+    }
+
+    /**
+     * Abonne l'enseignant au flux des codes d'une séance (SSE)
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter abonnerCode(Long seanceId) {
+        return seanceActiveRegistry.get(seanceId)
+                .map(seance -> seanceCodeStream.abonner(seanceId, seance.getCode(), seance.getCodeExpiration()))
+                .orElseGet(() -> seanceCodeStream.fluxTermine(seanceId));
+    }
+
+    /**
+     * Renouvelle en une seule passe le code de plusieurs séances (rotation planifiée).
+     * La mise à jour est conditionnelle : une séance arrêtée entre-temps n'est pas modifiée.
+     * Retourne les nouveaux codes des séances effectivement renouvelées.
+     */
+    public Map<Long, String> renouvelerCodes(Collection<Long> seanceIds, LocalDateTime expiration) {
+        Map<Long, String> codes = new HashMap<>();
+        for (Long seanceId : seanceIds) {
+            String code = generateDynamicCode();
+            if (seanceRepository.updateCodeSiActive(seanceId, code, expiration) > 0) {
+                seanceActiveRegistry.mettreAJourCode(seanceId, code, expiration);
+                codes.put(seanceId, code);
+            }
+        }
+        return codes;
     }
 
     /**
      * Arrête une séance et enregistre les absences
      */
     public Seance stopSeance(Long seanceId) {
+        // Ferme les pointages puis écrit ceux encore en file : le calcul des absences les verra tous
+        SeanceActiveRegistry.SeanceActive fermee = seanceActiveRegistry.retirer(seanceId);
+        try {
+            presenceWriteBehindQueue.viderSeance(seanceId);
+        } catch (RuntimeException e) {
+            // Un pointage acquitté n'est pas encore en base : la séance reste ouverte
+            seanceActiveRegistry.rouvrir(fermee);
+            throw e;
+        }
+        seanceCodeStream.terminer(seanceId);
+        presenceLiveFeed.terminer(seanceId);
+
         Seance seance = seanceRepository.findById(seanceId)
                 .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'id : " + seanceId));
 
@@ -141,48 +247,48 @@ public class SeanceService {
         seanceRepository.save(seance);
 
         // Enregistre les absences pour tous les étudiants qui n'ont pas validé leur présence
-        enregistrerAbsences(seance);
+        int nombreAbsences = enregistrerAbsences(seance);
+        tendancesPresenceService.invalider(seance.getDateDebut());
+        log.debug("Séance {} terminée : {} absence(s) enregistrée(s)", seanceId, nombreAbsences);
 
         return seance;
     }
 
     /**
-     * Enregistre automatiquement les absences pour les étudiants non présents
+     * Enregistre automatiquement les absences pour les étudiants non présents.
+     * Les inscrits viennent du cache, seuls les identifiants déjà pointés sont lus en base,
+     * puis les absences sont insérées par lots. Retourne le nombre d'absences créées.
      */
-    private void enregistrerAbsences(Seance seance) {
-        List<User> etudiants;
-
-        // Récupère la liste des étudiants concernés par cette séance
-        if (seance.getTypeSeance() == TypeSeance.CM) {
-            // Pour un CM : tous les étudiants de la formation
-            etudiants = userRepository.findByFormationIdAndRole(
-                    seance.getMatiere().getFormation().getId(),
-                    Role.ETUDIANT
-            );
-        } else {
-            // Pour un TD/TP : les étudiants du groupe
-            List<GroupeEtudiant> groupeEtudiants = groupeEtudiantRepository
-                    .findByGroupeId(seance.getGroupe().getId());
-            etudiants = groupeEtudiants.stream()
-                    .map(GroupeEtudiant::getEtudiant)
-                    .toList();
+    private int enregistrerAbsences(Seance seance) {
+        // CM : étudiants de la formation, TD/TP : étudiants du groupe
+        Inscrits inscrits = inscritsCache.getSeance(seance);
+        if (inscrits.isEmpty()) {
+            return 0;
         }
 
-        // Pour chaque étudiant, vérifie s'il a déjà une présence enregistrée
-        for (User etudiant : etudiants) {
-            boolean presenceExiste = presenceRepository
-                    .existsBySeanceIdAndEtudiantId(seance.getId(), etudiant.getId());
-
-            if (!presenceExiste) {
-                // Crée une absence automatique
-                Presence absence = new Presence();
-                absence.setSeance(seance);
-                absence.setEtudiant(etudiant);
-                absence.setStatut(StatutPresence.ABSENT);
-                absence.setModificationManuelle(false);
-                presenceRepository.save(absence);
-            }
-        }
+        // Étudiants concernés par cette séance qui n'ont pas de présence enregistrée
+        Set<Long> dejaEnregistres = new HashSet<>(presenceRepository.findEtudiantIdsBySeanceId(seance.getId()));
+        List<Long> etudiantsAbsents = inscrits.toList().stream()
+                .filter(etudiantId -> !dejaEnregistres.contains(etudiantId))
+                .toList();
+
+        List<Presence> absences = etudiantsAbsents.stream()
+                .map(etudiantId -> {
+                    // Crée une absence automatique
+                    Presence absence = new Presence();
+                    absence.setSeance(seance);
+                    absence.setEtudiant(userRepository.getReferenceById(etudiantId));
+                    absence.setStatut(StatutPresence.ABSENT);
+                    absence.setModificationManuelle(false);
+                    return absence;
+                })
+                .toList();
+        presenceRepository.saveAll(absences);
+        // Met aussi à jour les seuils d'absences (avertissements émis par SeuilAbsencesEngine)
+        compteurPresenceService.ajouterAbsences(seance.getMatiere().getId(), etudiantsAbsents);
+        cubePresences.enregistrerPresences(seance.getId(), etudiantsAbsents, StatutPresence.ABSENT);
+
+        return absences.size();
     }
 
     /**
@@ -222,7 +328,7 @@ public class SeanceService {
      * Trouve une séance par son ID
      */
     public Optional<Seance> getSeanceById(Long id) {
-        return seanceRepository.findById(id);
+        return seanceRepository.findChargeeById(id);
     }
 
     /**
@@ -232,25 +338,64 @@ public class SeanceService {
         return seanceRepository.findAll();
     }
 
+    /**
+     * Trouve une page de séances filtrées (période sur la date de début, statut, formation, enseignant)
+     */
+    @Transactional(readOnly = true)
+    public Page<Seance> getSeancesPage(LocalDateTime debut, LocalDateTime fin, StatutSeance statut,
+                                       Long formationId, Long enseignantId, Pageable pageable) {
+        return seanceRepository.findPage(debut, fin, statut, formationId, enseignantId, pageable);
+    }
+
     /**
      * Trouve les séances d'un enseignant (incluant les séances annulées pour avoir une vue complète)
      */
-    public List<Seance> getSeancesByEnseignant(Long enseignantId) {
-        return seanceRepository.findByEnseignantId(enseignantId);
+    @Transactional(readOnly = true)
+    public List<SeanceListeDTO> getSeancesByEnseignant(Long enseignantId) {
+        return seanceRepository.findListeByEnseignantId(enseignantId);
+    }
+
+    /**
+     * Historique des séances d'un enseignant, parcouru par curseur (dateDebut, id)
+     * Une ligne de plus que la taille demandée est lue pour savoir s'il reste une page
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<SeanceListeDTO> getHistoriqueEnseignant(Long enseignantId, Curseur apres, int taille) {
+        Pageable limite = PageRequest.of(0, taille + 1);
+        List<SeanceListeDTO> seances = apres == null
+                ? seanceRepository.findHistoriqueEnseignant(enseignantId, limite)
+                : seanceRepository.findHistoriqueEnseignantApres(enseignantId, apres.getDateDebut(), apres.getId(), limite);
+
+        if (seances.size() <= taille) {
+            return new PageCurseurDTO<>(seances, null);
+        }
+        List<SeanceListeDTO> page = seances.subList(0, taille);
+        SeanceListeDTO derniere = page.get(taille - 1);
+        return new PageCurseurDTO<>(page, new Curseur(derniere.getDateDebut(), derniere.getId()).encoder());
+    }
+
+    /**
+     * Trouve les séances d'un étudiant (selon ses inscriptions) avec son statut de présence, page par page
+     */
+    @Transactional(readOnly = true)
+    public Page<SeanceEtudiantDTO> getSeancesEtudiant(Long etudiantId, Pageable pageable) {
+        return seanceRepository.findSeancesEtudiant(etudiantId, pageable);
     }
 
     /**
      * Trouve les séances futures d'un enseignant
      */
-    public List<Seance> getUpcomingSeancesByEnseignant(Long enseignantId) {
-        return seanceRepository.findUpcomingSeancesByEnseignant(enseignantId, LocalDateTime.now());
+    @Transactional(readOnly = true)
+    public List<SeanceListeDTO> getUpcomingSeancesByEnseignant(Long enseignantId) {
+        return seanceRepository.findListeUpcomingByEnseignant(enseignantId, LocalDateTime.now());
     }
 
     /**
      * Trouve les séances d'un groupe
      */
-    public List<Seance> getSeancesByGroupe(Long groupeId) {
-        return seanceRepository.findByGroupeId(groupeId);
+    @Transactional(readOnly = true)
+    public List<SeanceListeDTO> getSeancesByGroupe(Long groupeId) {
+        return seanceRepository.findListeByGroupeId(groupeId);
     }
 
     /**
@@ -265,6 +410,9 @@ public class SeanceService {
         seance.setCodeDynamique(null);
         seance.setCodeExpiration(null);
         seance.setStatut(StatutSeance.ANNULEE);
+        seanceActiveRegistry.retirer(seanceId);
+        seanceCodeStream.terminer(seanceId);
+        presenceLiveFeed.terminer(seanceId);
 
         return seanceRepository.save(seance);
     }
@@ -273,7 +421,12 @@ public class SeanceService {
      * Supprime une séance
      */
     public void deleteSeance(Long id) {
+        seanceActiveRegistry.retirer(id);
+        seanceCodeStream.terminer(id);
+        presenceLiveFeed.terminer(id);
+        seanceRepository.findById(id).ifPresent(seance -> tendancesPresenceService.invalider(seance.getDateDebut()));
         seanceRepository.deleteById(id);
+        cubePresences.retirerSeance(id);
     }
 
     /** Récupère la liste de tous les étudiants inscrits à une séance CM ou TP/TD */
@@ -281,22 +434,12 @@ public class SeanceService {
         Seance seance = seanceRepository.findById(seanceId)
                 .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'id : " + seanceId));
 
-        List<User> etudiants;
-
-        // Si c'est un CM, récupérer tous les étudiants de la formation
-        if (seance.getTypeSeance() == TypeSeance.CM) {
-            Long formationId = seance.getMatiere().getFormation().getId();
-            etudiants = userRepository.findByFormationIdAndRoleAndActif(
-                    formationId, Role.ETUDIANT, true);
-        } 
-        // Si c'est un TD/TP, récupérer les étudiants du groupe
-        else if (seance.getGroupe() != null) {
-            etudiants = groupeEtudiantRepository.findEtudiantsByGroupeId(
-                    seance.getGroupe().getId());
-        } 
-        else {
+        // CM : étudiants de la formation, TD/TP : étudiants du groupe
+        if (seance.getTypeSeance() != TypeSeance.CM && seance.getGroupe() == null) {
             throw new RuntimeException("Séance TD/TP sans groupe assigné");
         }
+        Inscrits inscrits = inscritsCache.getSeance(seance);
+        List<User> etudiants = inscrits.isEmpty() ? List.of() : userRepository.findByIdIn(inscrits.toList());
 
         // Convertir en DTO avec les informations nécessaires
         return etudiants.stream()
@@ -339,10 +482,48 @@ public class SeanceService {
     }
 
     /**
-     * Compte le nombre d'étudiants inscrits à une séance
+     * Compte le nombre d'étudiants inscrits à une séance (liste en cache ou requête COUNT)
      */
+    @Transactional(readOnly = true)
     public int countEtudiantsInscrits(Long seanceId) {
-        return getEtudiantsInscrits(seanceId).size();
+        Seance seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'id : " + seanceId));
+
+        if (seance.getTypeSeance() != TypeSeance.CM && seance.getGroupe() == null) {
+            throw new RuntimeException("Séance TD/TP sans groupe assigné");
+        }
+        return inscritsCache.compter(seance);
+    }
+
+    /**
+     * Renseigne le nombre d'inscrits de chaque séance d'une liste.
+     * Les effectifs sont comptés par formation (CM) et par groupe (TD/TP) :
+     * au plus une requête groupée pour chacun, quel que soit le nombre de séances.
+     */
+    @Transactional(readOnly = true)
+    public <T extends Collection<SeanceListeDTO>> T completerNombreInscrits(T seances) {
+        Set<Long> formationIds = new HashSet<>();
+        Set<Long> groupeIds = new HashSet<>();
+        for (SeanceListeDTO seance : seances) {
+            if (seance.getTypeSeance() == TypeSeance.CM) {
+                formationIds.add(seance.getFormationId());
+            } else if (seance.getGroupeId() != null) {
+                groupeIds.add(seance.getGroupeId());
+            }
+        }
+
+        Map<Long, Integer> parFormation = formationIds.isEmpty() ? Map.of() : inscritsCache.compterFormations(formationIds);
+        Map<Long, Integer> parGroupe = groupeIds.isEmpty() ? Map.of() : inscritsCache.compterGroupes(groupeIds);
+        for (SeanceListeDTO seance : seances) {
+            if (seance.getTypeSeance() == TypeSeance.CM) {
+                seance.setNombreInscrits(parFormation.get(seance.getFormationId()));
+            } else if (seance.getGroupeId() != null) {
+                seance.setNombreInscrits(parGroupe.get(seance.getGroupeId()));
+            } else {
+                seance.setNombreInscrits(0);
+            }
+        }
+        return seances;
     }
 
 
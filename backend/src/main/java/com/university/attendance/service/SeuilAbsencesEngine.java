@@ -0,0 +1,306 @@
+package com.university.attendance.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.model.Matiere;
+import com.university.attendance.repository.AvertissementRepository;
+import com.university.attendance.repository.CompteurPresenceRepository;
+import com.university.attendance.repository.MatiereRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Détection incrémentale des dépassements du seuil d'absences d'une matière.
+ * Le nombre d'absences non justifiées de chaque couple (étudiant, matière) est tenu en mémoire,
+ * initialisé au démarrage depuis les compteurs pré-agrégés ; chaque variation transmise par
+ * CompteurPresenceService (modification manuelle, absences de fin de séance, suppression,
+ * décision sur un justificatif) est appliquée après commit, sans requête COUNT.
+ * Au franchissement du seuil, l'avertissement automatique est mis en file puis inséré par lot
+ * (index unique (etudiant_id, matiere_id) : un avertissement déjà présent n'est pas dupliqué).
+ * Pendant un recalcul complet (AvertissementRecalculScheduler), le moteur est suspendu.
+ */
+@Component
+public class SeuilAbsencesEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SeuilAbsencesEngine.class);
+
+    static final String INSERT_AVERTISSEMENT =
+            "INSERT INTO avertissements (etudiant_id, matiere_id, nombre_absences, motif, "
+                    + "date_avertissement, automatique, created_at) VALUES (?, ?, ?, ?, ?, true, ?) "
+                    + "ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private CompteurPresenceRepository compteurPresenceRepository;
+
+    @Autowired
+    private AvertissementRepository avertissementRepository;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Absences non justifiées par couple (étudiant, matière) ; les couples sans absence sont absents de la map
+    private final Map<Cle, Integer> absences = new ConcurrentHashMap<>();
+
+    // Couples ayant déjà un avertissement (automatique ou manuel) : un seul par matière
+    private final Set<Cle> avertis = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentLinkedQueue<AvertissementEnAttente> file = new ConcurrentLinkedQueue<>();
+
+    // Les variations reçues avant l'initialisation sont déjà comprises dans les compteurs lus
+    private volatile boolean initialise;
+
+    // Recalcul complet en cours : file non écrite, mises à jour différées puis rejouées dans l'ordre
+    private final ReentrantReadWriteLock suspension = new ReentrantReadWriteLock();
+    private volatile boolean suspendu;
+    private final ConcurrentLinkedQueue<Runnable> differees = new ConcurrentLinkedQueue<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Charge les absences et les avertissements existants (après l'initialisation des compteurs)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void initialiser() {
+        Map<Cle, Integer> lues = new HashMap<>();
+        for (Object[] ligne : compteurPresenceRepository.findAbsencesNonJustifiees()) {
+            lues.put(new Cle((Long) ligne[0], (Long) ligne[1]), ((Number) ligne[2]).intValue());
+        }
+
+        absences.clear();
+        absences.putAll(lues);
+        chargerAvertis();
+        initialise = true;
+        log.info("Seuils d'absences : {} compteur(s), {} avertissement(s) chargés", absences.size(), avertis.size());
+    }
+
+    private void chargerAvertis() {
+        Set<Cle> avertisLus = new HashSet<>();
+        for (Object[] ligne : avertissementRepository.findEtudiantMatiereAvertis()) {
+            avertisLus.add(new Cle((Long) ligne[0], (Long) ligne[1]));
+        }
+        avertis.clear();
+        avertis.addAll(avertisLus);
+    }
+
+    /**
+     * Exécute un recalcul complet, moteur suspendu : la file est écrite avant, puis ni écriture
+     * ni application des mises à jour pendant la comparaison (elles sont différées).
+     * Ensuite les avertissements sont relus et les mises à jour différées rejouées dans l'ordre.
+     * Les absences en mémoire ne sont pas rechargées : le recalcul ne les modifie pas, et une
+     * variation validée pendant le recalcul n'est ainsi comptée qu'une fois.
+     */
+    public <T> T pendantRecalcul(Supplier<T> recalcul) {
+        synchronized (this) {
+            suspension.writeLock().lock();
+            try {
+                suspendu = true;
+            } finally {
+                suspension.writeLock().unlock();
+            }
+            // Les avertissements émis avant la suspension doivent être en base avant la comparaison
+            ecrire();
+        }
+
+        try {
+            return recalcul.get();
+        } finally {
+            suspension.writeLock().lock();
+            try {
+                chargerAvertis();
+                Runnable miseAJour;
+                while ((miseAJour = differees.poll()) != null) {
+                    miseAJour.run();
+                }
+                suspendu = false;
+            } finally {
+                suspension.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Répercute une variation du nombre d'absences non justifiées de plusieurs étudiants pour une matière
+     */
+    public void variation(Long matiereId, Collection<Long> etudiantIds, int variation) {
+        if (variation == 0 || etudiantIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(etudiantIds);
+        ApresCommit.executer(() -> traiter(() -> appliquer(matiereId, ids, variation)));
+    }
+
+    /**
+     * Enregistre un avertissement créé manuellement
+     */
+    public void avertissementCree(Long etudiantId, Long matiereId) {
+        ApresCommit.executer(() -> traiter(() -> avertis.add(new Cle(etudiantId, matiereId))));
+    }
+
+    /**
+     * Retire le dernier avertissement d'un couple supprimé : un nouveau pourra être émis
+     */
+    public void avertissementSupprime(Long etudiantId, Long matiereId) {
+        ApresCommit.executer(() -> traiter(() -> avertis.remove(new Cle(etudiantId, matiereId))));
+    }
+
+    /**
+     * Applique la mise à jour, ou la diffère jusqu'à la fin du recalcul en cours
+     */
+    private void traiter(Runnable miseAJour) {
+        suspension.readLock().lock();
+        try {
+            if (suspendu) {
+                differees.add(miseAJour);
+            } else {
+                miseAJour.run();
+            }
+        } finally {
+            suspension.readLock().unlock();
+        }
+    }
+
+    private void appliquer(Long matiereId, List<Long> etudiantIds, int variation) {
+        if (!initialise) {
+            return;
+        }
+
+        Matiere matiere = null;
+        for (Long etudiantId : etudiantIds) {
+            Cle cle = new Cle(etudiantId, matiereId);
+            Integer total = absences.compute(cle, (k, n) -> {
+                int valeur = (n == null ? 0 : n) + variation;
+                return valeur > 0 ? valeur : null;
+            });
+
+            if (variation < 0 || total == null || avertis.contains(cle)) {
+                continue;
+            }
+            if (matiere == null) {
+                // Lue dans le cache de second niveau : aucune requête en régime établi
+                matiere = matiereRepository.findById(matiereId).orElse(null);
+                if (matiere == null) {
+                    return;
+                }
+            }
+            if (total >= matiere.getSeuilAbsences() && avertis.add(cle)) {
+                file.add(new AvertissementEnAttente(etudiantId, matiereId, total, motif(matiere.getSeuilAbsences())));
+            }
+        }
+    }
+
+    static String motif(int seuil) {
+        return "Dépassement du seuil d'absences autorisées (" + seuil + " absences)";
+    }
+
+    /**
+     * Insère par lot les avertissements en attente et retourne leur nombre (sans effet pendant un recalcul)
+     */
+    @Scheduled(fixedDelayString = "${avertissements.seuil.flush-interval-ms:1000}")
+    public synchronized int vider() {
+        return suspendu ? 0 : ecrire();
+    }
+
+    private int ecrire() {
+        List<AvertissementEnAttente> lot = new ArrayList<>();
+        AvertissementEnAttente avertissement;
+        while ((avertissement = file.poll()) != null) {
+            lot.add(avertissement);
+        }
+        if (lot.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> inserer(lot));
+            return lot.size();
+        } catch (RuntimeException e) {
+            // La prochaine absence du couple émettra de nouveau l'avertissement
+            log.error("Échec de l'écriture de {} avertissement(s)", lot.size(), e);
+            lot.forEach(a -> avertis.remove(new Cle(a.etudiantId(), a.matiereId())));
+            return 0;
+        }
+    }
+
+    private void inserer(List<AvertissementEnAttente> lot) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_AVERTISSEMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AvertissementEnAttente avertissement = lot.get(i);
+                ps.setLong(1, avertissement.etudiantId());
+                ps.setLong(2, avertissement.matiereId());
+                ps.setInt(3, avertissement.nombreAbsences());
+                ps.setString(4, avertissement.motif());
+                ps.setObject(5, maintenant);
+                ps.setObject(6, maintenant);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lot.size();
+            }
+        });
+    }
+
+    /**
+     * Nombre d'avertissements en attente d'écriture
+     */
+    public int getTaille() {
+        return file.size();
+    }
+
+    /**
+     * Vide la file à l'arrêt de l'application
+     */
+    @PreDestroy
+    void arreter() {
+        vider();
+    }
+
+    private record Cle(Long etudiantId, Long matiereId) {
+    }
+
+    private record AvertissementEnAttente(Long etudiantId, Long matiereId, int nombreAbsences, String motif) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.university.attendance.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Abonnés Server-Sent Events regroupés par séance.
+ * Utilisé par les flux temps réel (codes dynamiques, pointages) ;
+ * un abonné déconnecté est retiré au premier envoi en échec.
+ *
+ * Publier ne fait que mettre l'événement dans la file de chaque abonné : les envois (écritures
+ * réseau bloquantes) sont faits par un pool de threads, au plus un à la fois par abonné et dans
+ * l'ordre de publication. Une connexion lente ne retarde donc ni l'appelant (pointage) ni les
+ * autres abonnés.
+ */
+class SseDiffuseur {
+
+    private static final Logger log = LoggerFactory.getLogger(SseDiffuseur.class);
+
+    private final long timeout;
+    private final Map<Long, List<Abonne>> abonnes = new ConcurrentHashMap<>();
+    private final ExecutorService envois;
+
+    SseDiffuseur(long timeout, String nom) {
+        this.timeout = timeout;
+        AtomicInteger numero = new AtomicInteger();
+        this.envois = Executors.newCachedThreadPool(tache -> {
+            Thread thread = new Thread(tache, nom + "-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Crée un flux abonné aux événements de la séance.
+     * Le premier événement est calculé après l'enregistrement de l'abonné : les événements publiés
+     * pendant ce calcul attendent dans sa file et lui sont envoyés ensuite, aucun n'est perdu.
+     */
+    SseEmitter abonner(Long seanceId, String nomPremier, Supplier<Object> premier) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Abonne abonne = new Abonne(seanceId, emitter);
+        abonnes.computeIfAbsent(seanceId, id -> new CopyOnWriteArrayList<>()).add(abonne);
+
+        emitter.onCompletion(() -> retirer(abonne));
+        emitter.onTimeout(() -> retirer(abonne));
+        emitter.onError(e -> retirer(abonne));
+
+        Object donnees = premier != null ? premier.get() : null;
+        abonne.demarrer(donnees != null ? new Envoi(nomPremier, donnees, false) : null);
+        return emitter;
+    }
+
+    /**
+     * Publie un événement à tous les abonnés de la séance (envoi asynchrone)
+     */
+    void publier(Long seanceId, String nom, Object donnees) {
+        List<Abonne> abonnesSeance = abonnes.get(seanceId);
+        if (abonnesSeance == null) {
+            return;
+        }
+        Envoi envoi = new Envoi(nom, donnees, false);
+        for (Abonne abonne : abonnesSeance) {
+            abonne.ajouter(envoi);
+        }
+    }
+
+    /**
+     * Envoie un dernier événement puis ferme tous les flux de la séance
+     */
+    void terminer(Long seanceId, String nom, Object donnees) {
+        List<Abonne> abonnesSeance = abonnes.remove(seanceId);
+        if (abonnesSeance == null) {
+            return;
+        }
+        Envoi fin = new Envoi(nom, donnees, true);
+        for (Abonne abonne : abonnesSeance) {
+            abonne.ajouter(fin);
+        }
+    }
+
+    /**
+     * Flux déjà terminé : un seul événement, puis fermeture
+     */
+    SseEmitter fluxTermine(String nom, Object donnees) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        try {
+            emitter.send(SseEmitter.event().name(nom).data(donnees));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Indique si au moins un client est abonné à la séance
+     */
+    boolean hasAbonnes(Long seanceId) {
+        List<Abonne> abonnesSeance = abonnes.get(seanceId);
+        return abonnesSeance != null && !abonnesSeance.isEmpty();
+    }
+
+    private void retirer(Abonne abonne) {
+        abonne.fermer();
+        abonnes.computeIfPresent(abonne.seanceId, (id, abonnesSeance) -> {
+            abonnesSeance.remove(abonne);
+            return abonnesSeance.isEmpty() ? null : abonnesSeance;
+        });
+    }
+
+    private record Envoi(String nom, Object donnees, boolean dernier) {
+    }
+
+    /**
+     * Un abonné et sa file d'événements à envoyer
+     */
+    private final class Abonne {
+
+        private final Long seanceId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedDeque<Envoi> file = new ConcurrentLinkedDeque<>();
+
+        // Vrai pendant qu'une tâche du pool vide la file de cet abonné
+        private final AtomicBoolean enCours = new AtomicBoolean();
+        private volatile boolean demarre;
+        private volatile boolean ferme;
+
+        Abonne(Long seanceId, SseEmitter emitter) {
+            this.seanceId = seanceId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Place le premier événement en tête de file et commence les envois
+         */
+        void demarrer(Envoi premier) {
+            if (premier != null) {
+                file.addFirst(premier);
+            }
+            demarre = true;
+            planifier();
+        }
+
+        void ajouter(Envoi envoi) {
+            if (!ferme) {
+                file.addLast(envoi);
+                planifier();
+            }
+        }
+
+        void fermer() {
+            ferme = true;
+            file.clear();
+        }
+
+        private void planifier() {
+            if (demarre && !file.isEmpty() && enCours.compareAndSet(false, true)) {
+                envois.execute(this::vider);
+            }
+        }
+
+        private void vider() {
+            try {
+                Envoi envoi;
+                while (!ferme && (envoi = file.pollFirst()) != null) {
+                    envoyer(envoi);
+                }
+            } finally {
+                enCours.set(false);
+            }
+            // Événement ajouté après la dernière lecture de la file
+            planifier();
+        }
+
+        private void envoyer(Envoi envoi) {
+            try {
+                emitter.send(SseEmitter.event().name(envoi.nom()).data(envoi.donnees()));
+                if (envoi.dernier()) {
+                    fermer();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Abonné déconnecté du flux de la séance {}", seanceId);
+                retirer(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.university.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.dto.StatistiquesAssiduiteDTO;
+import com.university.attendance.dto.TableauDeBordDepartementDTO;
+import com.university.attendance.model.EffectifAssiduite;
+import com.university.attendance.model.StatistiqueAssiduite;
+import com.university.attendance.model.StatistiqueAssiduiteEtudiant;
+import com.university.attendance.repository.EffectifAssiduiteRepository;
+import com.university.attendance.repository.StatistiqueAssiduiteEtudiantRepository;
+import com.university.attendance.repository.StatistiqueAssiduiteRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Instantané matérialisé des statistiques d'assiduité par matière (table statistiques_assiduite),
+ * servi au tableau de bord du chef de département avec sa date de calcul.
+ * CompteurPresenceService signale chaque modification des compteurs, MatiereService et FormationService
+ * celles du référentiel ; l'instantané est alors recalculé au passage suivant
+ * (statistiques.assiduite.refresh-interval-ms) par une seule requête groupée sur les compteurs pré-agrégés.
+ * Sans modification, aucun recalcul n'a lieu.
+ * Les effectifs de formation et de département ne s'additionnent pas d'une matière à l'autre
+ * (un étudiant suit plusieurs matières) : ils sont comptés à part (table effectifs_assiduite).
+ * Les totaux de chaque étudiant (table statistiques_assiduite_etudiants) alimentent les listes
+ * et la fiche étudiant du chef de département, recalculés dans la même transaction.
+ */
+@Service
+public class StatistiquesAssiduiteService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatistiquesAssiduiteService.class);
+
+    @Autowired
+    private StatistiqueAssiduiteRepository statistiqueAssiduiteRepository;
+
+    @Autowired
+    private EffectifAssiduiteRepository effectifAssiduiteRepository;
+
+    @Autowired
+    private StatistiqueAssiduiteEtudiantRepository statistiqueAssiduiteEtudiantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean modifie = new AtomicBoolean(true);
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Signale une modification des compteurs : l'instantané sera recalculé au prochain passage
+     * suivant le commit (un recalcul pendant la transaction ne verrait pas encore la modification)
+     */
+    public void marquerModifie() {
+        ApresCommit.executer(() -> modifie.set(true));
+    }
+
+    /**
+     * Calcule l'instantané au démarrage, après l'initialisation des compteurs et des données de référence
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public void initialiser() {
+        modifie.set(false);
+        rafraichir();
+    }
+
+    /**
+     * Recalcule l'instantané si les compteurs ont changé depuis le dernier calcul
+     */
+    @Scheduled(fixedDelayString = "${statistiques.assiduite.refresh-interval-ms:30000}")
+    public void rafraichirSiModifie() {
+        if (modifie.compareAndSet(true, false)) {
+            try {
+                rafraichir();
+            } catch (RuntimeException e) {
+                modifie.set(true);
+                log.error("Échec du recalcul des statistiques d'assiduité", e);
+            }
+        }
+    }
+
+    /**
+     * Remplace l'instantané en une transaction : les lecteurs voient l'ancien jusqu'au commit
+     */
+    public synchronized int rafraichir() {
+        long debut = System.currentTimeMillis();
+        Integer lignes = transactionTemplate.execute(status -> {
+            LocalDateTime calculeLe = LocalDateTime.now();
+            statistiqueAssiduiteRepository.deleteAllInBatch();
+            effectifAssiduiteRepository.deleteAllInBatch();
+            statistiqueAssiduiteEtudiantRepository.deleteAllInBatch();
+            statistiqueAssiduiteEtudiantRepository.recalculer(calculeLe);
+            effectifAssiduiteRepository.recalculerParFormation(calculeLe);
+            effectifAssiduiteRepository.recalculerParDepartement(calculeLe);
+            return statistiqueAssiduiteRepository.recalculer(calculeLe);
+        });
+        log.debug("Statistiques d'assiduité recalculées : {} matière(s) en {} ms", lignes,
+                System.currentTimeMillis() - debut);
+        return lignes;
+    }
+
+    /**
+     * Tableau de bord d'un département : totaux du département, de chaque formation et de chaque matière
+     */
+    public TableauDeBordDepartementDTO getTableauDeBord(Long departementId) {
+        List<StatistiqueAssiduite> lignes =
+                statistiqueAssiduiteRepository.findByDepartementIdOrderByFormationNomAscMatiereNomAsc(departementId);
+
+        StatistiquesAssiduiteDTO departement = new StatistiquesAssiduiteDTO(departementId, null);
+        Map<Long, StatistiquesAssiduiteDTO> formations = new LinkedHashMap<>();
+        List<StatistiquesAssiduiteDTO> matieres = new ArrayList<>();
+        LocalDateTime donneesAu = null;
+
+        for (StatistiqueAssiduite ligne : lignes) {
+            StatistiquesAssiduiteDTO matiere = new StatistiquesAssiduiteDTO(ligne.getMatiereId(), ligne.getMatiereNom());
+            matiere.setCode(ligne.getMatiereCode());
+            matiere.setFormationId(ligne.getFormationId());
+            matiere.setEtudiants(ligne.getEtudiants());
+            cumuler(matiere, ligne);
+            matieres.add(matiere);
+
+            cumuler(formations.computeIfAbsent(ligne.getFormationId(),
+                    id -> new StatistiquesAssiduiteDTO(id, ligne.getFormationNom())), ligne);
+            cumuler(departement, ligne);
+
+            if (donneesAu == null || ligne.getCalculeLe().isBefore(donneesAu)) {
+                donneesAu = ligne.getCalculeLe();
+            }
+        }
+
+        // Effectifs distincts : un étudiant de plusieurs matières n'est compté qu'une fois
+        for (EffectifAssiduite effectif : effectifAssiduiteRepository.findByDepartementId(departementId)) {
+            StatistiquesAssiduiteDTO totaux = effectif.getFormationId() == null
+                    ? departement : formations.get(effectif.getFormationId());
+            if (totaux != null) {
+                totaux.setEtudiants(effectif.getEtudiants());
+            }
+        }
+
+        matieres.forEach(StatistiquesAssiduiteService::calculerTaux);
+        formations.values().forEach(StatistiquesAssiduiteService::calculerTaux);
+        calculerTaux(departement);
+
+        TableauDeBordDepartementDTO tableauDeBord = new TableauDeBordDepartementDTO();
+        tableauDeBord.setDepartementId(departementId);
+        tableauDeBord.setDonneesAu(donneesAu);
+        tableauDeBord.setDepartement(departement);
+        tableauDeBord.setFormations(new ArrayList<>(formations.values()));
+        tableauDeBord.setMatieres(matieres);
+        return tableauDeBord;
+    }
+
+    /**
+     * Totaux des étudiants d'un département, par identifiant d'étudiant
+     */
+    public Map<Long, StatistiqueAssiduiteEtudiant> getEtudiantsParDepartement(Long departementId) {
+        return parEtudiant(statistiqueAssiduiteEtudiantRepository.findByDepartementId(departementId));
+    }
+
+    /**
+     * Totaux des étudiants d'une formation, par identifiant d'étudiant
+     */
+    public Map<Long, StatistiqueAssiduiteEtudiant> getEtudiantsParFormation(Long formationId) {
+        return parEtudiant(statistiqueAssiduiteEtudiantRepository.findByFormationId(formationId));
+    }
+
+    /**
+     * Totaux d'un étudiant (vide s'il a été créé ou rattaché à une formation après le dernier calcul)
+     */
+    public Optional<StatistiqueAssiduiteEtudiant> getEtudiant(Long etudiantId) {
+        return statistiqueAssiduiteEtudiantRepository.findById(etudiantId);
+    }
+
+    private static Map<Long, StatistiqueAssiduiteEtudiant> parEtudiant(List<StatistiqueAssiduiteEtudiant> lignes) {
+        return lignes.stream()
+                .collect(Collectors.toMap(StatistiqueAssiduiteEtudiant::getEtudiantId, Function.identity()));
+    }
+
+    private static void cumuler(StatistiquesAssiduiteDTO totaux, StatistiqueAssiduite ligne) {
+        totaux.setPresents(totaux.getPresents() + ligne.getPresents());
+        totaux.setAbsences(totaux.getAbsences() + ligne.getAbsences());
+        totaux.setRetards(totaux.getRetards() + ligne.getRetards());
+        totaux.setAbsencesJustifiees(totaux.getAbsencesJustifiees() + ligne.getAbsencesJustifiees());
+    }
+
+    /**
+     * Même définition que les statistiques par étudiant : (séances - absences) / séances
+     */
+    private static void calculerTaux(StatistiquesAssiduiteDTO totaux) {
+        long totalSeances = totaux.getPresents() + totaux.getAbsences() + totaux.getRetards();
+        double tauxPresence = totalSeances > 0
+                ? ((totalSeances - totaux.getAbsences()) * 100.0 / totalSeances)
+                : 100.0;
+        totaux.setTotalSeances(totalSeances);
+        totaux.setTauxPresence(Math.round(tauxPresence * 10) / 10.0);
+    }
+}
@@ -0,0 +1,253 @@
+package com.university.attendance.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.university.attendance.dto.TendancePresenceDTO;
+import com.university.attendance.model.TypeSeance;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tendances d'assiduité par jour ou par semaine (date de début des séances), filtrables par
+ * département, formation, matière, groupe et type de séance.
+ *
+ * Une requête GROUP BY date_trunc('day') sur presences et seances calcule les journées demandées,
+ * regroupées ensuite par semaine ISO si besoin (date_trunc('week') commence le dimanche sous H2,
+ * le lundi sous PostgreSQL).
+ * Les périodes révolues sont mises en cache par (filtre, granularité, début de période) et ne sont
+ * plus recalculées : seules la période en cours et les périodes absentes du cache sont relues.
+ * Une modification touchant une séance d'une période révolue (saisie ou correction manuelle,
+ * arrêt, modification ou suppression de séance) invalide après commit les périodes qui la contiennent.
+ */
+@Service
+public class TendancesPresenceService {
+
+    /**
+     * Taille des périodes
+     */
+    public enum Granularite {
+        JOUR,
+        SEMAINE;
+
+        /**
+         * Début de la période contenant la date (le lundi pour une semaine ISO)
+         */
+        LocalDate tronquer(LocalDate date) {
+            return this == JOUR ? date : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        LocalDate suivante(LocalDate debut) {
+            return this == JOUR ? debut.plusDays(1) : debut.plusWeeks(1);
+        }
+    }
+
+    /**
+     * Critères de filtrage (null : pas de filtre sur ce critère)
+     */
+    public record Filtre(Long departementId, Long formationId, Long matiereId, Long groupeId, TypeSeance typeSeance) {
+    }
+
+    private static final String JOUR_SQL = "date_trunc('day', s.date_debut)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${presences.tendances.cache.max-size:20000}")
+    private long tailleCache;
+
+    @Value("${presences.tendances.max-periodes:400}")
+    private int maxPeriodes;
+
+    private Cache<Cle, Compteurs> periodesRevolues;
+
+    // Incrémenté à chaque invalidation : un calcul commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        periodesRevolues = Caffeine.newBuilder().maximumSize(tailleCache).build();
+    }
+
+    /**
+     * Tendance entre du et au (inclus), une entrée par période, périodes sans présence comprises.
+     * La première et la dernière période sont complètes et peuvent déborder de l'intervalle demandé.
+     */
+    public List<TendancePresenceDTO> getTendances(String granularite, LocalDate du, LocalDate au,
+                                                  Long departementId, Long formationId, Long matiereId,
+                                                  Long groupeId, String typeSeance) {
+        Granularite taille = parse(Granularite.class, granularite, "Granularité inconnue (JOUR ou SEMAINE)");
+        LocalDate fin = au != null ? au : LocalDate.now();
+        LocalDate debut = du != null ? du : (taille == Granularite.JOUR ? fin.minusDays(29) : fin.minusWeeks(11));
+        if (debut.isAfter(fin)) {
+            throw new RuntimeException("La date de début doit précéder la date de fin");
+        }
+        Filtre filtre = new Filtre(departementId, formationId, matiereId, groupeId,
+                typeSeance != null ? parse(TypeSeance.class, typeSeance, "Type de séance inconnu (CM ou TD_TP)") : null);
+
+        List<LocalDate> periodes = new ArrayList<>();
+        for (LocalDate periode = taille.tronquer(debut); !periode.isAfter(fin); periode = taille.suivante(periode)) {
+            periodes.add(periode);
+            if (periodes.size() > maxPeriodes) {
+                throw new RuntimeException("Période trop longue : " + maxPeriodes + " périodes au maximum");
+            }
+        }
+
+        // Périodes révolues déjà en cache ; les autres sont relues en une requête à partir de la première manquante
+        LocalDate enCours = taille.tronquer(LocalDate.now());
+        Map<LocalDate, Compteurs> compteurs = new HashMap<>();
+        LocalDate premiereManquante = null;
+        for (LocalDate periode : periodes) {
+            Compteurs enCache = periode.isBefore(enCours)
+                    ? periodesRevolues.getIfPresent(new Cle(filtre, taille, periode)) : null;
+            if (enCache != null) {
+                compteurs.put(periode, enCache);
+            } else if (premiereManquante == null) {
+                premiereManquante = periode;
+            }
+        }
+
+        if (premiereManquante != null) {
+            long generationLue = generation.get();
+            LocalDate finRequete = taille.suivante(periodes.get(periodes.size() - 1));
+            Map<LocalDate, Compteurs> lus = compter(taille, premiereManquante, finRequete, filtre);
+
+            boolean cachable = generationLue == generation.get();
+            for (LocalDate periode : periodes) {
+                if (periode.isBefore(premiereManquante) || compteurs.containsKey(periode)) {
+                    continue;
+                }
+                Compteurs periodeLue = lus.getOrDefault(periode, Compteurs.AUCUN);
+                compteurs.put(periode, periodeLue);
+                if (cachable && periode.isBefore(enCours)) {
+                    periodesRevolues.put(new Cle(filtre, taille, periode), periodeLue);
+                }
+            }
+        }
+
+        List<TendancePresenceDTO> tendances = new ArrayList<>(periodes.size());
+        for (LocalDate periode : periodes) {
+            tendances.add(toDTO(periode, taille.suivante(periode).minusDays(1), compteurs.get(periode)));
+        }
+        return tendances;
+    }
+
+    /**
+     * Invalide (après commit) les périodes révolues contenant cette date de séance
+     */
+    public void invalider(LocalDateTime dateSeance) {
+        if (dateSeance == null || !dateSeance.toLocalDate().isBefore(LocalDate.now())) {
+            // Séance du jour ou à venir : aucune période révolue ne la contient
+            return;
+        }
+        LocalDate date = dateSeance.toLocalDate();
+        ApresCommit.executer(() -> {
+            generation.incrementAndGet();
+            periodesRevolues.asMap().keySet().removeIf(cle -> cle.contient(date));
+        });
+    }
+
+    /**
+     * Une requête groupée par jour sur [debut, fin), puis cumul par période
+     */
+    private Map<LocalDate, Compteurs> compter(Granularite taille, LocalDate debut, LocalDate fin, Filtre filtre) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(JOUR_SQL).append(", ")
+                .append("SUM(CASE WHEN p.statut = 'PRESENT' THEN 1 ELSE 0 END), ")
+                .append("SUM(CASE WHEN p.statut = 'ABSENT' THEN 1 ELSE 0 END), ")
+                .append("SUM(CASE WHEN p.statut = 'RETARD' THEN 1 ELSE 0 END) ")
+                .append("FROM presences p JOIN seances s ON s.id = p.seance_id ");
+        List<Object> parametres = new ArrayList<>();
+
+        if (filtre.departementId() != null || filtre.formationId() != null) {
+            sql.append("JOIN matieres m ON m.id = s.matiere_id ");
+        }
+        if (filtre.departementId() != null) {
+            sql.append("JOIN formations f ON f.id = m.formation_id ");
+        }
+        sql.append("WHERE s.date_debut >= ? AND s.date_debut < ? ");
+        parametres.add(debut.atStartOfDay());
+        parametres.add(fin.atStartOfDay());
+
+        if (filtre.departementId() != null) {
+            sql.append("AND f.departement_id = ? ");
+            parametres.add(filtre.departementId());
+        }
+        if (filtre.formationId() != null) {
+            sql.append("AND m.formation_id = ? ");
+            parametres.add(filtre.formationId());
+        }
+        if (filtre.matiereId() != null) {
+            sql.append("AND s.matiere_id = ? ");
+            parametres.add(filtre.matiereId());
+        }
+        if (filtre.groupeId() != null) {
+            sql.append("AND s.groupe_id = ? ");
+            parametres.add(filtre.groupeId());
+        }
+        if (filtre.typeSeance() != null) {
+            sql.append("AND s.type_seance = ? ");
+            parametres.add(filtre.typeSeance().name());
+        }
+        sql.append("GROUP BY ").append(JOUR_SQL);
+
+        Map<LocalDate, Compteurs> compteurs = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> compteurs.merge(
+                taille.tronquer(rs.getObject(1, LocalDateTime.class).toLocalDate()),
+                new Compteurs(rs.getLong(2), rs.getLong(3), rs.getLong(4)), Compteurs::plus), parametres.toArray());
+        return compteurs;
+    }
+
+    private static TendancePresenceDTO toDTO(LocalDate debut, LocalDate fin, Compteurs compteurs) {
+        TendancePresenceDTO dto = new TendancePresenceDTO(debut, fin);
+        long total = compteurs.presents() + compteurs.absences() + compteurs.retards();
+        dto.setPresents(compteurs.presents());
+        dto.setAbsences(compteurs.absences());
+        dto.setRetards(compteurs.retards());
+        dto.setTotal(total);
+        if (total > 0) {
+            // Même définition que les statistiques par étudiant : (séances - absences) / séances
+            dto.setTauxPresence(Math.round((total - compteurs.absences()) * 1000.0 / total) / 10.0);
+            dto.setTauxAbsence(Math.round(compteurs.absences() * 1000.0 / total) / 10.0);
+        }
+        return dto;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String valeur, String message) {
+        try {
+            return Enum.valueOf(type, valeur.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(message);
+        }
+    }
+
+    private record Cle(Filtre filtre, Granularite granularite, LocalDate debut) {
+
+        boolean contient(LocalDate date) {
+            return !date.isBefore(debut) && date.isBefore(granularite.suivante(debut));
+        }
+    }
+
+    private record Compteurs(long presents, long absences, long retards) {
+
+        static final Compteurs AUCUN = new Compteurs(0, 0, 0);
+
+        Compteurs plus(Compteurs autres) {
+            return new Compteurs(presents + autres.presents, absences + autres.absences, retards + autres.retards);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.university.attendance.model.User;
 import com.university.attendance.repository.FormationRepository;
 import com.university.attendance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private InscritsCache inscritsCache;
+
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
     /**
      * Crée un nouvel utilisateur
      */
@@ -43,7 +51,10 @@ public class UserService {
             user.setFormation(formation);
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        inscritsCache.invaliderEtudiant(savedUser);
+        statistiquesAssiduiteService.marquerModifie();
+        return savedUser;
     }
 
     /**
@@ -70,14 +81,14 @@ public class UserService {
      * Trouve un utilisateur par son ID
      */
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userRepository.findChargeById(id);
     }
 
     /**
      * Trouve un utilisateur par son email
      */
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findChargeByEmail(email);
     }
 
     /**
@@ -87,6 +98,18 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Trouve une page d'utilisateurs filtrés (rôle, statut actif, formation, département, recherche)
+     * La recherche porte sur le nom, le prénom et l'email, sans tenir compte de la casse
+     */
+    @Transactional(readOnly = true)
+    public Page<User> getUsersPage(Role role, Boolean actif, Long formationId, Long departementId,
+                                   String recherche, Pageable pageable) {
+        String motif = (recherche == null || recherche.isBlank())
+                ? null : "%" + recherche.trim().toLowerCase() + "%";
+        return userRepository.findPage(role, actif, formationId, departementId, motif, pageable);
+    }
+
     /**
      * Trouve tous les utilisateurs par rôle
      */
@@ -120,7 +143,9 @@ public class UserService {
      * Supprime un utilisateur
      */
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(inscritsCache::invaliderEtudiant);
         userRepository.deleteById(id);
+        statistiquesAssiduiteService.marquerModifie();
     }
 
     /**
@@ -131,6 +156,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'id : " + id));
         user.setActif(false);
         userRepository.save(user);
+        inscritsCache.invaliderEtudiant(user);
     }
 
     /**
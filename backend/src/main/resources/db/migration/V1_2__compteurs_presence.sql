@@ -0,0 +1,17 @@
+-- Migration: Compteurs de présence pré-agrégés
+-- Date: 2026-10-18
+-- Description: Table des compteurs (présents, absences, retards, absences justifiées) par étudiant
+-- et par matière, tenue à jour par CompteurPresenceService. Créée vide : le service la reconstruit
+-- à partir des présences au premier démarrage.
+
+CREATE TABLE IF NOT EXISTS compteurs_presence (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    etudiant_id BIGINT NOT NULL,
+    matiere_id BIGINT NOT NULL,
+    presents BIGINT NOT NULL,
+    absences BIGINT NOT NULL,
+    retards BIGINT NOT NULL,
+    absences_justifiees BIGINT NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_compteurs_presence_etudiant_matiere UNIQUE (etudiant_id, matiere_id)
+);
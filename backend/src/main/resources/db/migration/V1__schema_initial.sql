@@ -0,0 +1,165 @@
+-- Migration: Schéma initial (baseline)
+-- Date: 2026-10-18
+-- Description: Tables et clés étrangères telles que produites jusqu'ici par ddl-auto=update et les
+-- scripts SQL manuels (colonnes de matieres / groupes, rôle SECRETARIAT, colonne statut des séances).
+-- Compatible PostgreSQL et H2 (mode PostgreSQL).
+-- Une base existante, déjà à jour de ces scripts (conservés dans db/legacy), est marquée à cette
+-- version sans l'exécuter (spring.flyway.baseline-on-migrate) : ce script doit donc rester
+-- exactement ce schéma ; toute évolution va dans une migration suivante.
+
+-- ============================================
+-- TABLES DE RÉFÉRENCE
+-- ============================================
+CREATE TABLE departements (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    actif BOOLEAN NOT NULL,
+    CONSTRAINT uk_departements_nom UNIQUE (nom)
+);
+
+CREATE TABLE formations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    departement_id BIGINT NOT NULL,
+    niveau INTEGER,
+    actif BOOLEAN NOT NULL
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    prenom VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    mot_de_passe VARCHAR(255) NOT NULL,
+    telephone VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    formation_id BIGINT,
+    departement_id BIGINT,
+    actif BOOLEAN NOT NULL,
+    numero_etudiant VARCHAR(255),
+    numero_enseignant VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT users_role_check
+        CHECK (role IN ('ETUDIANT', 'ENSEIGNANT', 'CHEF_DEPARTEMENT', 'SECRETARIAT', 'ADMIN', 'SUPER_ADMIN'))
+);
+
+CREATE TABLE matieres (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    code VARCHAR(10),
+    description VARCHAR(500),
+    formation_id BIGINT NOT NULL,
+    enseignant_id BIGINT,
+    type_seance VARCHAR(10) NOT NULL DEFAULT 'CM',
+    coefficient DOUBLE PRECISION NOT NULL DEFAULT 1.0,
+    heures_total INTEGER NOT NULL DEFAULT 0,
+    seuil_absences INTEGER NOT NULL,
+    actif BOOLEAN NOT NULL
+);
+
+CREATE TABLE groupes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    formation_id BIGINT NOT NULL,
+    capacite_max INTEGER DEFAULT 30,
+    actif BOOLEAN NOT NULL
+);
+
+CREATE TABLE groupe_etudiants (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    etudiant_id BIGINT NOT NULL,
+    groupe_id BIGINT NOT NULL,
+    date_affectation TIMESTAMP(6)
+);
+
+-- ============================================
+-- SÉANCES ET PRÉSENCES
+-- ============================================
+CREATE TABLE seances (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    matiere_id BIGINT NOT NULL,
+    enseignant_id BIGINT NOT NULL,
+    type_seance VARCHAR(255) NOT NULL,
+    groupe_id BIGINT,
+    date_debut TIMESTAMP(6) NOT NULL,
+    date_fin TIMESTAMP(6) NOT NULL,
+    salle VARCHAR(100),
+    code_dynamique VARCHAR(6),
+    code_expiration TIMESTAMP(6),
+    seance_active BOOLEAN NOT NULL,
+    terminee BOOLEAN NOT NULL,
+    annulee BOOLEAN NOT NULL,
+    statut VARCHAR(255) NOT NULL DEFAULT 'PREVUE',
+    commentaire VARCHAR(500),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT seances_type_seance_check CHECK (type_seance IN ('CM', 'TD_TP')),
+    CONSTRAINT seances_statut_check CHECK (statut IN ('PREVUE', 'REPORTEE', 'EN_COURS', 'TERMINEE', 'ANNULEE'))
+);
+
+CREATE TABLE presences (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seance_id BIGINT NOT NULL,
+    etudiant_id BIGINT NOT NULL,
+    statut VARCHAR(255) NOT NULL,
+    heure_validation TIMESTAMP(6),
+    modification_manuelle BOOLEAN NOT NULL,
+    commentaire VARCHAR(500),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT presences_statut_check CHECK (statut IN ('PRESENT', 'ABSENT', 'RETARD'))
+);
+
+CREATE TABLE justificatifs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    etudiant_id BIGINT NOT NULL,
+    absence_id BIGINT NOT NULL,
+    motif VARCHAR(500),
+    fichier_path VARCHAR(255) NOT NULL,
+    statut VARCHAR(255) NOT NULL,
+    validateur_id BIGINT,
+    commentaire_validation VARCHAR(500),
+    date_validation TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT justificatifs_statut_check CHECK (statut IN ('EN_ATTENTE', 'ACCEPTE', 'REFUSE'))
+);
+
+CREATE TABLE avertissements (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    etudiant_id BIGINT NOT NULL,
+    matiere_id BIGINT NOT NULL,
+    nombre_absences INTEGER NOT NULL,
+    motif VARCHAR(1000),
+    date_avertissement TIMESTAMP(6) NOT NULL,
+    automatique BOOLEAN NOT NULL,
+    createur_id BIGINT,
+    created_at TIMESTAMP(6)
+);
+
+-- ============================================
+-- CLÉS ÉTRANGÈRES
+-- ============================================
+ALTER TABLE formations ADD CONSTRAINT fk_formations_departement FOREIGN KEY (departement_id) REFERENCES departements (id);
+ALTER TABLE users ADD CONSTRAINT fk_users_formation FOREIGN KEY (formation_id) REFERENCES formations (id);
+ALTER TABLE users ADD CONSTRAINT fk_users_departement FOREIGN KEY (departement_id) REFERENCES departements (id);
+ALTER TABLE matieres ADD CONSTRAINT fk_matieres_formation FOREIGN KEY (formation_id) REFERENCES formations (id);
+ALTER TABLE matieres ADD CONSTRAINT fk_matieres_enseignant FOREIGN KEY (enseignant_id) REFERENCES users (id);
+ALTER TABLE groupes ADD CONSTRAINT fk_groupes_formation FOREIGN KEY (formation_id) REFERENCES formations (id);
+ALTER TABLE groupe_etudiants ADD CONSTRAINT fk_groupe_etudiants_etudiant FOREIGN KEY (etudiant_id) REFERENCES users (id);
+ALTER TABLE groupe_etudiants ADD CONSTRAINT fk_groupe_etudiants_groupe FOREIGN KEY (groupe_id) REFERENCES groupes (id);
+ALTER TABLE seances ADD CONSTRAINT fk_seances_matiere FOREIGN KEY (matiere_id) REFERENCES matieres (id);
+ALTER TABLE seances ADD CONSTRAINT fk_seances_enseignant FOREIGN KEY (enseignant_id) REFERENCES users (id);
+ALTER TABLE seances ADD CONSTRAINT fk_seances_groupe FOREIGN KEY (groupe_id) REFERENCES groupes (id);
+ALTER TABLE presences ADD CONSTRAINT fk_presences_seance FOREIGN KEY (seance_id) REFERENCES seances (id);
+ALTER TABLE presences ADD CONSTRAINT fk_presences_etudiant FOREIGN KEY (etudiant_id) REFERENCES users (id);
+ALTER TABLE justificatifs ADD CONSTRAINT fk_justificatifs_etudiant FOREIGN KEY (etudiant_id) REFERENCES users (id);
+ALTER TABLE justificatifs ADD CONSTRAINT fk_justificatifs_absence FOREIGN KEY (absence_id) REFERENCES presences (id);
+ALTER TABLE justificatifs ADD CONSTRAINT fk_justificatifs_validateur FOREIGN KEY (validateur_id) REFERENCES users (id);
+ALTER TABLE avertissements ADD CONSTRAINT fk_avertissements_etudiant FOREIGN KEY (etudiant_id) REFERENCES users (id);
+ALTER TABLE avertissements ADD CONSTRAINT fk_avertissements_matiere FOREIGN KEY (matiere_id) REFERENCES matieres (id);
+ALTER TABLE avertissements ADD CONSTRAINT fk_avertissements_createur FOREIGN KEY (createur_id) REFERENCES users (id);
@@ -0,0 +1,63 @@
+-- Migration: Index composites et contraintes uniques sur les chemins de lecture fréquents
+-- Date: 2026-10-18
+-- Description: Ajoute les index utilisés par la feuille de présence, l'historique et les statistiques
+-- d'un étudiant, les affectations de groupes et les avertissements, et rend uniques
+-- la présence d'un étudiant à une séance et le justificatif d'une absence.
+-- Les noms sont ceux déclarés sur les entités : la migration est sans effet sur une base
+-- dont le schéma a déjà été mis à jour par Hibernate (contrainte unique et index portent le même nom).
+-- Index uniques plutôt que contraintes ALTER TABLE : même garantie, script exécutable tel quel
+-- sur PostgreSQL comme sur H2.
+
+-- Doublons de présences créés par des pointages concurrents : on garde, pour chaque (séance, étudiant),
+-- la présence modifiée manuellement par l'enseignant, sinon la plus ancienne. Les justificatifs
+-- des présences supprimées sont d'abord rattachés à la présence conservée.
+UPDATE justificatifs j
+SET absence_id = (SELECT k.id FROM presences p JOIN presences k
+                    ON k.seance_id = p.seance_id AND k.etudiant_id = p.etudiant_id
+                  WHERE p.id = j.absence_id
+                    AND NOT EXISTS (SELECT 1 FROM presences b
+                                    WHERE b.seance_id = k.seance_id AND b.etudiant_id = k.etudiant_id
+                                      AND ((b.modification_manuelle = true AND k.modification_manuelle = false)
+                                           OR (b.modification_manuelle = k.modification_manuelle AND b.id < k.id))))
+WHERE EXISTS (SELECT 1 FROM presences p JOIN presences b
+                ON b.seance_id = p.seance_id AND b.etudiant_id = p.etudiant_id AND b.id <> p.id
+              WHERE p.id = j.absence_id);
+
+DELETE FROM presences a
+WHERE NOT EXISTS (SELECT 1 FROM justificatifs j WHERE j.absence_id = a.id)
+  AND EXISTS (SELECT 1 FROM presences b
+              WHERE b.seance_id = a.seance_id AND b.etudiant_id = a.etudiant_id
+                AND ((b.modification_manuelle = true AND a.modification_manuelle = false)
+                     OR (b.modification_manuelle = a.modification_manuelle AND b.id < a.id)));
+
+-- Plusieurs justificatifs pour une même absence (déposés deux fois, ou rattachés ci-dessus) :
+-- on garde celui déjà traité par le secrétariat, sinon le plus ancien
+DELETE FROM justificatifs a
+WHERE EXISTS (SELECT 1 FROM justificatifs b
+              WHERE b.absence_id = a.absence_id
+                AND ((b.statut <> 'EN_ATTENTE' AND a.statut = 'EN_ATTENTE')
+                     OR ((b.statut = 'EN_ATTENTE') = (a.statut = 'EN_ATTENTE') AND b.id < a.id)));
+
+-- Une seule présence par étudiant et par séance (sert aussi d'index (seance_id, etudiant_id))
+CREATE UNIQUE INDEX IF NOT EXISTS uk_presences_seance_etudiant ON presences (seance_id, etudiant_id);
+
+-- Un seul justificatif par absence (sert aussi d'index (absence_id))
+CREATE UNIQUE INDEX IF NOT EXISTS uk_justificatifs_absence ON justificatifs (absence_id);
+
+-- Absences et statistiques d'un étudiant
+CREATE INDEX IF NOT EXISTS idx_presences_etudiant_statut ON presences (etudiant_id, statut);
+
+-- Historique d'un étudiant (jointure vers les séances)
+CREATE INDEX IF NOT EXISTS idx_presences_etudiant_seance ON presences (etudiant_id, seance_id);
+
+-- Groupe(s) d'un étudiant et vérification d'affectation
+CREATE INDEX IF NOT EXISTS idx_groupe_etudiants_etudiant_groupe ON groupe_etudiants (etudiant_id, groupe_id);
+
+-- Liste des séances par date, parcourue par curseur
+CREATE INDEX IF NOT EXISTS idx_seances_date_debut_id ON seances (date_debut, id);
+
+-- Séances d'un enseignant par date (l'id en dernier sert au parcours par curseur)
+CREATE INDEX IF NOT EXISTS idx_seances_enseignant_date_debut_id ON seances (enseignant_id, date_debut, id);
+
+-- Avertissements d'un étudiant pour une matière
+CREATE INDEX IF NOT EXISTS idx_avertissements_etudiant_matiere ON avertissements (etudiant_id, matiere_id);
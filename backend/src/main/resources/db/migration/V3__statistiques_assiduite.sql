@@ -0,0 +1,24 @@
+-- Migration: Instantané des statistiques d'assiduité par matière
+-- Date: 2026-10-18
+-- Description: Table matérialisée lue par le tableau de bord du chef de département.
+-- Une ligne par matière (totaux de ses compteurs_presence) avec sa formation et son département ;
+-- les totaux par formation et par département s'obtiennent en additionnant les lignes.
+-- Entièrement recalculée par StatistiquesAssiduiteService après toute modification des compteurs.
+
+CREATE TABLE statistiques_assiduite (
+    matiere_id BIGINT NOT NULL PRIMARY KEY,
+    matiere_nom VARCHAR(255) NOT NULL,
+    matiere_code VARCHAR(10),
+    formation_id BIGINT NOT NULL,
+    formation_nom VARCHAR(255) NOT NULL,
+    departement_id BIGINT NOT NULL,
+    etudiants BIGINT NOT NULL,
+    presents BIGINT NOT NULL,
+    absences BIGINT NOT NULL,
+    retards BIGINT NOT NULL,
+    absences_justifiees BIGINT NOT NULL,
+    calcule_le TIMESTAMP(6) NOT NULL
+);
+
+-- Tableau de bord d'un département
+CREATE INDEX idx_statistiques_assiduite_departement ON statistiques_assiduite (departement_id, formation_id);
@@ -0,0 +1,23 @@
+-- Migration: Un seul avertissement par étudiant et par matière
+-- Date: 2026-10-18
+-- Description: Remplace l'index (etudiant_id, matiere_id) des avertissements par un index unique.
+-- AvertissementService refuse déjà un second avertissement manuel et le moteur de seuil comme le
+-- recalcul nocturne n'émettent pas d'avertissement automatique pour un couple déjà averti ;
+-- l'index unique garantit qu'une insertion concurrente ne crée pas de doublon
+-- (les insertions automatiques utilisent ON CONFLICT DO NOTHING).
+-- Index unique complet plutôt que partiel (WHERE automatique) : H2 ne gère pas les index partiels.
+
+-- Doublons automatiques déjà créés : on garde l'avertissement manuel, sinon le plus ancien
+DELETE FROM avertissements a
+WHERE a.automatique = true
+  AND EXISTS (SELECT 1 FROM avertissements b
+              WHERE b.etudiant_id = a.etudiant_id AND b.matiere_id = a.matiere_id
+                AND (b.automatique = false OR b.id < a.id));
+
+-- L'index unique échoue s'il reste des doublons manuels ; pour les repérer :
+--   SELECT etudiant_id, matiere_id, COUNT(*) FROM avertissements GROUP BY etudiant_id, matiere_id HAVING COUNT(*) > 1;
+
+-- Un seul avertissement par couple (sert aussi d'index (etudiant_id, matiere_id))
+CREATE UNIQUE INDEX IF NOT EXISTS uk_avertissements_etudiant_matiere ON avertissements (etudiant_id, matiere_id);
+
+DROP INDEX IF EXISTS idx_avertissements_etudiant_matiere;
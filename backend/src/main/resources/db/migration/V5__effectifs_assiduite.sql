@@ -0,0 +1,17 @@
+-- Migration: Effectifs distincts du tableau de bord d'assiduité
+-- Date: 2026-10-18
+-- Description: Nombre d'étudiants distincts ayant au moins un compteur de présence, par formation
+-- et par département (formation_id NULL). Un étudiant suit plusieurs matières : additionner les
+-- effectifs des lignes de statistiques_assiduite compterait des couples (étudiant, matière).
+-- Recalculée avec statistiques_assiduite par StatistiquesAssiduiteService.
+
+CREATE TABLE effectifs_assiduite (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    departement_id BIGINT NOT NULL,
+    formation_id BIGINT,
+    etudiants BIGINT NOT NULL,
+    calcule_le TIMESTAMP(6) NOT NULL
+);
+
+-- Tableau de bord d'un département
+CREATE INDEX idx_effectifs_assiduite_departement ON effectifs_assiduite (departement_id);
@@ -0,0 +1,20 @@
+-- Migration: Instantané des statistiques d'assiduité par étudiant
+-- Date: 2026-10-18
+-- Description: Une ligne par étudiant rattaché à une formation (totaux de ses compteurs_presence,
+-- toutes matières confondues), lue par les listes et la fiche étudiant du chef de département.
+-- Recalculée avec statistiques_assiduite par StatistiquesAssiduiteService.
+
+CREATE TABLE statistiques_assiduite_etudiants (
+    etudiant_id BIGINT NOT NULL PRIMARY KEY,
+    formation_id BIGINT NOT NULL,
+    departement_id BIGINT NOT NULL,
+    presents BIGINT NOT NULL,
+    absences BIGINT NOT NULL,
+    retards BIGINT NOT NULL,
+    absences_justifiees BIGINT NOT NULL,
+    calcule_le TIMESTAMP(6) NOT NULL
+);
+
+-- Étudiants d'un département, d'une formation
+CREATE INDEX idx_statistiques_assiduite_etudiants_departement ON statistiques_assiduite_etudiants (departement_id);
+CREATE INDEX idx_statistiques_assiduite_etudiants_formation ON statistiques_assiduite_etudiants (formation_id);
@@ -0,0 +1,60 @@
+package com.university.attendance.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Cache des tokens vérifiés : un token déjà vu n'est plus vérifié, un token invalide n'est pas conservé
+ */
+class JwtTokenCacheTest {
+
+    private JwtUtil jwtUtil;
+    private JwtTokenCache cache;
+
+    @BeforeEach
+    void init() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", "cle-secrete-de-test-suffisamment-longue-pour-hmac-sha256");
+        ReflectionTestUtils.setField(util, "expiration", 3_600_000L);
+        util.init();
+        jwtUtil = spy(util);
+
+        cache = new JwtTokenCache();
+        ReflectionTestUtils.setField(cache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+    }
+
+    @Test
+    void tokenDejaVerifieLuEnCache() {
+        String token = jwtUtil.generateToken("sophie.martin@university.com", 5L, "ENSEIGNANT");
+
+        JwtTokenCache.TokenVerifie premier = cache.verifier(token);
+        JwtTokenCache.TokenVerifie second = cache.verifier(token);
+
+        assertThat(second).isEqualTo(premier);
+        assertThat(second.userId()).isEqualTo(5L);
+        verify(jwtUtil, times(1)).extractAllClaims(token);
+        assertThat(cache.getStatistiques())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L)
+                .containsEntry("size", 1L);
+    }
+
+    @Test
+    void tokenInvalideNonConserve() {
+        assertThatThrownBy(() -> cache.verifier("jeton.invalide.signature")).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> cache.verifier("jeton.invalide.signature")).isInstanceOf(RuntimeException.class);
+
+        verify(jwtUtil, times(2)).extractAllClaims("jeton.invalide.signature");
+        assertThat(cache.getStatistiques()).containsEntry("size", 0L);
+    }
+}
@@ -0,0 +1,159 @@
+package com.university.attendance.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Role;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.FormationRepository;
+import com.university.attendance.repository.MatiereRepository;
+import com.university.attendance.repository.UserRepository;
+import com.university.attendance.service.CompteurPresenceService;
+import com.university.attendance.service.StatistiquesAssiduiteService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Liste des étudiants du département : le nombre de requêtes SQL ne dépend pas du nombre d'étudiants,
+ * les statistiques de la liste et de la fiche étudiant sont lues dans l'instantané avec leur date de calcul
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "CHEF_DEPARTEMENT")
+class ChefDepartementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private FormationRepository formationRepository;
+
+    @Autowired
+    private CompteurPresenceService compteurPresenceService;
+
+    @Autowired
+    private StatistiquesAssiduiteService statistiquesAssiduiteService;
+
+    private Statistics statistics;
+    private Long chefId;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        chefId = userRepository.findByEmail("chef.info@university.com").orElseThrow().getId();
+    }
+
+    @Test
+    void listeDesEtudiantsEnNombreFixeDeRequetes() throws Exception {
+        long avant = compterRequetes();
+
+        // 40 étudiants de plus, chacun avec des présences, des absences dont une justifiée et un retard
+        for (int i = 0; i < 40; i++) {
+            ajouterEtudiant("charge" + i);
+        }
+        statistiquesAssiduiteService.rafraichir();
+
+        long apres = compterRequetes();
+
+        assertThat(apres).isEqualTo(avant);
+        assertThat(apres).isBetween(1L, 4L);
+    }
+
+    @Test
+    void statistiquesLuesDansLInstantane() throws Exception {
+        Long etudiantId = ajouterEtudiant("instantane");
+        statistiquesAssiduiteService.rafraichir();
+
+        String filtre = "$[?(@.id == " + etudiantId + ")].statistiques";
+        mockMvc.perform(get("/api/chef-departement/{chefId}/etudiants", chefId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(filtre + ".totalSeances", contains(4)))
+                .andExpect(jsonPath(filtre + ".absences", contains(2)))
+                .andExpect(jsonPath(filtre + ".absencesJustifiees", contains(1)))
+                .andExpect(jsonPath(filtre + ".absencesNonJustifiees", contains(1)))
+                .andExpect(jsonPath(filtre + ".retards", contains(1)))
+                .andExpect(jsonPath(filtre + ".tauxPresence", contains(50.0)))
+                .andExpect(jsonPath(filtre + ".donneesAu", contains(notNullValue())));
+
+        Long formationId = matiereRepository.findByCode("INF101").orElseThrow().getFormation().getId();
+        mockMvc.perform(get("/api/chef-departement/{chefId}/etudiants/formation/{formationId}", chefId, formationId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(filtre + ".totalSeances", contains(4)))
+                .andExpect(jsonPath(filtre + ".donneesAu", contains(notNullValue())));
+
+        mockMvc.perform(get("/api/chef-departement/{chefId}/etudiant/{etudiantId}", chefId, etudiantId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statistiquesGlobales.totalSeances").value(4))
+                .andExpect(jsonPath("$.statistiquesGlobales.presents").value(1))
+                .andExpect(jsonPath("$.statistiquesGlobales.absences").value(2))
+                .andExpect(jsonPath("$.statistiquesGlobales.retards").value(1))
+                .andExpect(jsonPath("$.statistiquesGlobales.tauxPresence").value(25.0))
+                .andExpect(jsonPath("$.statistiquesGlobales.donneesAu").isNotEmpty());
+    }
+
+    /**
+     * Étudiant de la formation de INF101 avec une présence, deux absences dont une justifiée et un retard
+     * (compteurs seuls, sans séance)
+     */
+    private Long ajouterEtudiant(String nom) {
+        Matiere matiere = matiereRepository.findByCode("INF101").orElseThrow();
+        User etudiant = new User();
+        etudiant.setNom(nom);
+        etudiant.setPrenom("Test");
+        etudiant.setEmail(nom + "@test.university.com");
+        etudiant.setMotDePasse("x");
+        etudiant.setRole(Role.ETUDIANT);
+        etudiant.setActif(true);
+        etudiant.setFormation(formationRepository.getReferenceById(matiere.getFormation().getId()));
+        Long etudiantId = userRepository.save(etudiant).getId();
+
+        compteurPresenceService.changerStatut(etudiantId, matiere.getId(), null, StatutPresence.PRESENT);
+        compteurPresenceService.changerStatut(etudiantId, matiere.getId(), null, StatutPresence.ABSENT);
+        compteurPresenceService.changerStatut(etudiantId, matiere.getId(), null, StatutPresence.ABSENT);
+        compteurPresenceService.changerStatut(etudiantId, matiere.getId(), null, StatutPresence.RETARD);
+        compteurPresenceService.changerAbsencesJustifiees(etudiantId, matiere.getId(), 1);
+        return etudiantId;
+    }
+
+    /**
+     * Requêtes SQL préparées par un appel à la liste (après un premier appel qui remplit les caches)
+     */
+    private long compterRequetes() throws Exception {
+        mockMvc.perform(get("/api/chef-departement/{chefId}/etudiants", chefId)).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/chef-departement/{chefId}/etudiants", chefId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+        return statistics.getPrepareStatementCount();
+    }
+}
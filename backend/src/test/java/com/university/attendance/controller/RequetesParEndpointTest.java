@@ -0,0 +1,322 @@
+package com.university.attendance.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+
+import com.university.attendance.model.Avertissement;
+import com.university.attendance.model.Groupe;
+import com.university.attendance.model.GroupeEtudiant;
+import com.university.attendance.model.Justificatif;
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Presence;
+import com.university.attendance.model.Role;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.AvertissementRepository;
+import com.university.attendance.repository.GroupeEtudiantRepository;
+import com.university.attendance.repository.GroupeRepository;
+import com.university.attendance.repository.JustificatifRepository;
+import com.university.attendance.repository.MatiereRepository;
+import com.university.attendance.repository.PresenceRepository;
+import com.university.attendance.repository.SeanceRepository;
+import com.university.attendance.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Plans de chargement des principaux endpoints : le nombre de requêtes SQL d'un appel reste sous
+ * un plafond et ne change pas quand les données grossissent (pas de chargement ligne par ligne
+ * des associations paresseuses). Sans session ouverte pendant la sérialisation, un endpoint qui renvoie
+ * une association non chargée échoue : lectures et écritures doivent répondre 200.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class RequetesParEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private PresenceRepository presenceRepository;
+
+    @Autowired
+    private GroupeRepository groupeRepository;
+
+    @Autowired
+    private GroupeEtudiantRepository groupeEtudiantRepository;
+
+    @Autowired
+    private AvertissementRepository avertissementRepository;
+
+    @Autowired
+    private JustificatifRepository justificatifRepository;
+
+    private Statistics statistics;
+    private User enseignant;
+    private User etudiant;
+    private Matiere matiere;
+
+    // Dernières données créées : les endpoints par ID sont mesurés sur elles
+    private Long seanceId;
+    private Long groupeId;
+    private Long affectationId;
+    private Long justificatifId;
+    private Long avertissementId;
+    private int numero;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        enseignant = userRepository.findByEmail("sophie.martin@university.com").orElseThrow();
+        etudiant = userRepository.findByEmail("lucie.rene@university.com").orElseThrow();
+        matiere = matiereRepository.findByCode("INF101").orElseThrow();
+    }
+
+    /**
+     * Endpoint (ids entre accolades) et nombre maximal de requêtes SQL d'un appel
+     * (0 possible pour les données de référence servies par le cache de second niveau)
+     */
+    static Stream<Arguments> endpoints() {
+        return Stream.of(
+                Arguments.of("/api/presences/seance/{seance}", 3),
+                Arguments.of("/api/presences/statistiques/{etudiant}", 4),
+                Arguments.of("/api/presences/etudiant/{etudiant}", 2),
+                Arguments.of("/api/presences/etudiant/{etudiant}/historique", 3),
+                Arguments.of("/api/seances/enseignant/{enseignant}", 2),
+                Arguments.of("/api/presences/etudiant/{etudiant}?page=0", 2),
+                Arguments.of("/api/seances", 2),
+                Arguments.of("/api/seances?page=0", 2),
+                Arguments.of("/api/seances/{seance}", 1),
+                Arguments.of("/api/users", 1),
+                Arguments.of("/api/users/{etudiant}", 1),
+                Arguments.of("/api/users/email/lucie.rene@university.com", 1),
+                Arguments.of("/api/users/formation/{formation}/etudiants/sans-groupe", 1),
+                Arguments.of("/api/matieres", 1),
+                Arguments.of("/api/matieres/{matiere}", 1),
+                Arguments.of("/api/matieres/code/INF101", 1),
+                Arguments.of("/api/formations/{formation}", 1),
+                Arguments.of("/api/groupes", 2),
+                Arguments.of("/api/groupes/{groupe}", 2),
+                Arguments.of("/api/groupe-etudiants", 2),
+                Arguments.of("/api/groupe-etudiants/{affectation}", 1),
+                Arguments.of("/api/avertissements", 2),
+                Arguments.of("/api/avertissements?page=0", 2),
+                Arguments.of("/api/avertissements/{avertissement}", 1),
+                Arguments.of("/api/justificatifs", 2),
+                Arguments.of("/api/justificatifs?page=0", 2),
+                Arguments.of("/api/justificatifs/{justificatif}", 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("endpoints")
+    void nombreDeRequetesIndependantDesDonnees(String endpoint, int maximum) throws Exception {
+        ajouterDonnees();
+        long avant = compterRequetes(endpoint);
+
+        ajouterDonnees();
+        ajouterDonnees();
+        long apres = compterRequetes(endpoint);
+
+        assertThat(apres).as(endpoint).isEqualTo(avant);
+        assertThat(apres).as(endpoint).isBetween(0L, (long) maximum);
+    }
+
+    @Test
+    void reponsesDesEcrituresSerialiseesAvecLeursAssociations() throws Exception {
+        ajouterDonnees();
+        Long formationId = matiere.getFormation().getId();
+        Long departementId = matiere.getFormation().getDepartement().getId();
+        LocalDateTime debut = LocalDateTime.now().minusMinutes(30);
+
+        Map<String, Object> seanceDTO = Map.of("matiereId", matiere.getId(), "enseignantId", enseignant.getId(),
+                "dateDebut", debut, "dateFin", debut.plusHours(2), "salle", "A101");
+        Long seance = creer(json(post("/api/seances"), seanceDTO), "$.matiere.formation.departement.id");
+        ecrire(json(put("/api/seances/" + seance), seanceDTO), "$.matiere.formation.departement.id");
+        ecrire(post("/api/seances/" + seance + "/start"), "$.code");
+        Long absence = creer(post("/api/presences").param("seanceId", seance.toString())
+                .param("etudiantId", etudiant.getId().toString()).param("statut", "RETARD"),
+                "$.seance.matiere.formation.id");
+        ecrire(put("/api/presences/" + absence).param("statut", "ABSENT"), "$.etudiant.formation.departement.id");
+        ecrire(post("/api/seances/" + seance + "/stop"), "$.seance.enseignant.id");
+        ecrire(put("/api/seances/" + creer(json(post("/api/seances"), seanceDTO), "$.id") + "/cancel"),
+                "$.matiere.enseignant.id");
+
+        Long justificatif = creer(multipart("/api/justificatifs")
+                .file(new MockMultipartFile("fichier", "certificat.pdf", "application/pdf", new byte[] {1}))
+                .param("etudiantId", etudiant.getId().toString()).param("absenceId", absence.toString())
+                .param("motif", "Maladie"), "$.absence.seance.matiere.formation.id");
+        ecrire(put("/api/justificatifs/" + justificatif + "/valider")
+                .param("validateurId", enseignant.getId().toString()), "$.validateur.id");
+        ecrire(put("/api/justificatifs/" + justificatifId + "/refuser")
+                .param("validateurId", enseignant.getId().toString()), "$.absence.etudiant.id");
+
+        Long avertissement = creer(post("/api/avertissements").param("etudiantId", etudiant.getId().toString())
+                .param("matiereId", matiere.getId().toString()).param("nombreAbsences", "0")
+                .param("motif", "Comportement").param("createurId", enseignant.getId().toString()),
+                "$.matiere.formation.departement.id");
+        ecrire(put("/api/avertissements/" + avertissement + "/motif").param("motif", "Retards"), "$.createur.id");
+
+        String suffixe = String.valueOf(System.nanoTime());
+        Map<String, Object> utilisateur = Map.of("nom", "Ecriture" + suffixe, "prenom", "Test",
+                "email", "ecriture" + suffixe + "@test.university.com", "motDePasse", "x", "role", "ETUDIANT",
+                "actif", true, "formation", Map.of("id", formationId));
+        Long nouveau = creer(json(post("/api/users"), utilisateur), "$.formation.departement.id");
+        ecrire(json(put("/api/users/" + nouveau), utilisateur), "$.formation.departement.id");
+
+        Map<String, Object> formationDTO = Map.of("nom", "Formation " + suffixe, "departementId", departementId,
+                "niveau", 1, "actif", true);
+        Long formation = creer(json(post("/api/formations"), formationDTO), "$.departement.id");
+        ecrire(json(put("/api/formations/" + formation), formationDTO), "$.departement.id");
+
+        Map<String, Object> matiereDTO = Map.of("nom", "Matière " + suffixe, "formationId", formationId,
+                "typeSeance", "CM", "heuresTotal", 24, "coefficient", 1.0, "seuilAbsences", 3, "actif", true,
+                "enseignantId", enseignant.getId());
+        Long nouvelleMatiere = creer(json(post("/api/matieres"), matiereDTO), "$.formation.departement.id");
+        ecrire(json(put("/api/matieres/" + nouvelleMatiere), matiereDTO), "$.enseignant.id");
+
+        Map<String, Object> groupeDTO = Map.of("nom", "Groupe " + suffixe, "formationId", formationId,
+                "capaciteMax", 30, "actif", true);
+        Long groupe = creer(json(post("/api/groupes"), groupeDTO), "$.formation.departement.id");
+        ecrire(json(put("/api/groupes/" + groupe), groupeDTO), "$.nombreEtudiants");
+        ecrire(post("/api/groupe-etudiants/affecter").param("etudiantId", nouveau.toString())
+                .param("groupeId", groupe.toString()), "$.groupe.id");
+    }
+
+    /**
+     * Un étudiant de plus dans la formation et un nouveau groupe, une séance passée avec une présence
+     * par étudiant de la formation, une absence justifiée et un avertissement
+     */
+    private void ajouterDonnees() {
+        numero++;
+        Long formationId = matiere.getFormation().getId();
+
+        User nouveau = new User();
+        nouveau.setNom("Plan" + numero + "-" + System.nanoTime());
+        nouveau.setPrenom("Test");
+        nouveau.setEmail(nouveau.getNom().toLowerCase() + "@test.university.com");
+        nouveau.setMotDePasse("x");
+        nouveau.setRole(Role.ETUDIANT);
+        nouveau.setActif(true);
+        nouveau.setFormation(matiere.getFormation());
+        nouveau = userRepository.save(nouveau);
+
+        Groupe groupe = groupeRepository.save(new Groupe("Plan " + nouveau.getNom(), matiere.getFormation()));
+        groupeId = groupe.getId();
+        affectationId = groupeEtudiantRepository.save(new GroupeEtudiant(nouveau, groupe)).getId();
+
+        LocalDateTime debut = LocalDateTime.now().minusDays(30 + numero);
+        Seance seance = new Seance(matiere, enseignant, TypeSeance.CM, debut, debut.plusHours(2));
+        seance.setTerminee(true);
+        seance = seanceRepository.save(seance);
+        seanceId = seance.getId();
+
+        List<User> etudiants = userRepository.findByFormationIdAndRole(formationId, Role.ETUDIANT);
+        for (User inscrit : etudiants) {
+            StatutPresence statut = inscrit.getId().equals(etudiant.getId()) || inscrit.getId() % 2 == 0
+                    ? StatutPresence.ABSENT : StatutPresence.PRESENT;
+            Presence presence = presenceRepository.save(new Presence(seance, inscrit, statut));
+            if (inscrit.getId().equals(etudiant.getId())) {
+                justificatifId = justificatifRepository.save(
+                        new Justificatif(etudiant, presence, "Maladie", "plan-" + numero + ".pdf")).getId();
+            }
+        }
+
+        Avertissement avertissement = new Avertissement(nouveau, matiere, 1, false);
+        avertissement.setCreateur(enseignant);
+        avertissement.setMotif("Plan de chargement");
+        avertissementId = avertissementRepository.save(avertissement).getId();
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder requete, Object corps) throws Exception {
+        return requete.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(corps));
+    }
+
+    /**
+     * Écriture répondant 200 avec l'association attendue ; retourne la réponse
+     */
+    private String ecrire(MockHttpServletRequestBuilder requete, String association) throws Exception {
+        return mockMvc.perform(requete)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(association).exists())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Écriture renvoyant une entité ; retourne son ID
+     */
+    private Long creer(MockHttpServletRequestBuilder requete, String association) throws Exception {
+        return ((Number) JsonPath.read(ecrire(requete, association), "$.id")).longValue();
+    }
+
+    /**
+     * Requêtes SQL préparées par un appel (après un premier appel qui remplit les caches)
+     */
+    private long compterRequetes(String endpoint) throws Exception {
+        String uri = endpoint
+                .replace("{seance}", seanceId.toString())
+                .replace("{etudiant}", etudiant.getId().toString())
+                .replace("{enseignant}", enseignant.getId().toString())
+                .replace("{matiere}", matiere.getId().toString())
+                .replace("{formation}", matiere.getFormation().getId().toString())
+                .replace("{groupe}", groupeId.toString())
+                .replace("{affectation}", affectationId.toString())
+                .replace("{justificatif}", justificatifId.toString())
+                .replace("{avertissement}", avertissementId.toString());
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,242 @@
+package com.university.attendance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.dto.RecalculAvertissementsDTO;
+import com.university.attendance.model.Justificatif;
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Presence;
+import com.university.attendance.model.Role;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.JustificatifRepository;
+import com.university.attendance.repository.MatiereRepository;
+import com.university.attendance.repository.SeanceRepository;
+import com.university.attendance.repository.UserRepository;
+
+/**
+ * Recalcul complet des avertissements : insertion et retrait après une modification du seuil ou
+ * l'acceptation d'un justificatif, moteur de seuil suspendu puis mises à jour différées rejouées
+ * sans doublon, index unique (etudiant_id, matiere_id).
+ *
+ * Chaque test crée sa matière et son étudiant ; les vérifications portent sur ce seul couple
+ * (le recalcul parcourt toute la base).
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class AvertissementRecalculSchedulerTest {
+
+    @Autowired
+    private AvertissementRecalculScheduler avertissementRecalculScheduler;
+
+    @Autowired
+    private SeuilAbsencesEngine seuilAbsencesEngine;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private JustificatifService justificatifService;
+
+    @Autowired
+    private AvertissementService avertissementService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JustificatifRepository justificatifRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User enseignant;
+    private Matiere matiere;
+    private User etudiant;
+    private int numero;
+
+    @BeforeEach
+    void init() {
+        enseignant = userRepository.findByEmail("sophie.martin@university.com").orElseThrow();
+        Matiere reference = matiereRepository.findByCode("INF101").orElseThrow();
+        matiere = new Matiere("Recalcul " + System.nanoTime(), null, reference.getFormation());
+        matiere.setSeuilAbsences(2);
+        matiere = matiereRepository.save(matiere);
+
+        User nouveau = new User();
+        nouveau.setNom("Recalcul" + System.nanoTime());
+        nouveau.setPrenom("Test");
+        nouveau.setEmail(nouveau.getNom().toLowerCase() + "@test.university.com");
+        nouveau.setMotDePasse("x");
+        nouveau.setRole(Role.ETUDIANT);
+        nouveau.setActif(true);
+        nouveau.setFormation(reference.getFormation());
+        etudiant = userService.createUser(nouveau);
+    }
+
+    @Test
+    void seuilModifieAvertissementInserePuisRetire() {
+        // Deux absences sous le seuil de 3 : aucun avertissement
+        matiere.setSeuilAbsences(3);
+        matiere = matiereRepository.save(matiere);
+        absence();
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).isEmpty();
+
+        // Seuil abaissé à 2 hors du moteur : seul le recalcul le voit
+        jdbcTemplate.update("UPDATE matieres SET seuil_absences = 2 WHERE id = ?", matiere.getId());
+        RecalculAvertissementsDTO bilan = avertissementRecalculScheduler.recalculer();
+        assertThat(bilan.getAvertissementsCrees()).isPositive();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        // Recalcul sans changement : rien d'inséré ni de retiré pour le couple
+        avertissementRecalculScheduler.recalculer();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        // Seuil relevé : l'avertissement automatique n'est plus justifié
+        jdbcTemplate.update("UPDATE matieres SET seuil_absences = 5 WHERE id = ?", matiere.getId());
+        bilan = avertissementRecalculScheduler.recalculer();
+        assertThat(bilan.getAvertissementsRetires()).isPositive();
+        assertThat(avertissements()).isEmpty();
+    }
+
+    @Test
+    void justificatifAccepteAvertissementRetire() {
+        Presence premiere = absence();
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        // Le moteur ne retire pas d'avertissement : l'absence justifiée est prise en compte au recalcul
+        Justificatif justificatif = justificatifRepository.save(
+                new Justificatif(etudiant, premiere, "Maladie", "recalcul-" + etudiant.getId() + ".pdf"));
+        justificatifService.validerJustificatif(justificatif.getId(), enseignant.getId(), "Certificat");
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        avertissementRecalculScheduler.recalculer();
+        assertThat(avertissements()).isEmpty();
+    }
+
+    @Test
+    void avertissementManuelJamaisRetire() {
+        avertissementService.createAvertissement(etudiant.getId(), matiere.getId(), 0, "Comportement",
+                enseignant.getId());
+
+        avertissementRecalculScheduler.recalculer();
+        assertThat(avertissements()).containsExactly(List.of(0, false));
+
+        // Au-dessus du seuil : le manuel tient lieu d'avertissement, aucun automatique n'est ajouté
+        absence();
+        absence();
+        avertissementRecalculScheduler.recalculer();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(0, false));
+    }
+
+    @Test
+    void misesAJourDiffereesPendantLeRecalcul() {
+        seuilAbsencesEngine.pendantRecalcul(() -> {
+            absence();
+            absence();
+            // Moteur suspendu : variations différées, file non écrite
+            assertThat(seuilAbsencesEngine.vider()).isZero();
+            assertThat(seuilAbsencesEngine.getTaille()).isZero();
+            assertThat(avertissements()).isEmpty();
+            return null;
+        });
+
+        // Variations rejouées à la reprise : le seuil est franchi
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    @Test
+    void recalculEtMisesAJourDiffereesSansDoublon() {
+        // Le recalcul voit les deux absences validées et insère l'avertissement ; les variations
+        // différées sont rejouées après la relecture des avertissements et n'en émettent pas d'autre
+        seuilAbsencesEngine.pendantRecalcul(() -> {
+            absence();
+            absence();
+            return new TransactionTemplate(transactionManager).execute(
+                    status -> ReflectionTestUtils.invokeMethod(avertissementRecalculScheduler, "comparerEtCorriger"));
+        });
+
+        assertThat(seuilAbsencesEngine.getTaille()).isZero();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        // Une absence de plus ne réémet rien
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    @Test
+    void unSeulAvertissementParCouple() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        Object[] valeurs = {etudiant.getId(), matiere.getId(), 2, SeuilAbsencesEngine.motif(2), maintenant, maintenant};
+
+        assertThat(jdbcTemplate.update(SeuilAbsencesEngine.INSERT_AVERTISSEMENT, valeurs)).isEqualTo(1);
+        // Insertion concurrente du moteur et du recalcul : ignorée
+        assertThat(jdbcTemplate.update(SeuilAbsencesEngine.INSERT_AVERTISSEMENT, valeurs)).isZero();
+        // Toute autre insertion est refusée par l'index unique
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO avertissements (etudiant_id, matiere_id, "
+                        + "nombre_absences, date_avertissement, automatique) VALUES (?, ?, 0, ?, false)",
+                etudiant.getId(), matiere.getId(), maintenant))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    /**
+     * Absence saisie par l'enseignant sur une nouvelle séance en cours de la matière
+     */
+    private Presence absence() {
+        LocalDateTime debut = LocalDateTime.now().minusMinutes(10 + ++numero);
+        Seance seance = seanceRepository.save(new Seance(matiere, enseignant, TypeSeance.CM, debut, debut.plusHours(2)));
+        return presenceService.createPresenceManuelle(seance.getId(), etudiant.getId(), StatutPresence.ABSENT);
+    }
+
+    /**
+     * Avertissements du couple : [nombre d'absences, automatique]
+     */
+    private List<List<Object>> avertissements() {
+        return jdbcTemplate.query(
+                "SELECT nombre_absences, automatique FROM avertissements WHERE etudiant_id = ? AND matiere_id = ?",
+                (rs, i) -> List.<Object>of(rs.getInt(1), rs.getBoolean(2)), etudiant.getId(), matiere.getId());
+    }
+}
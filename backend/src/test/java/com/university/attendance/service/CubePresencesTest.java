@@ -0,0 +1,251 @@
+package com.university.attendance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.university.attendance.dto.CubePresencesDTO;
+import com.university.attendance.dto.CubePresencesGroupeDTO;
+import com.university.attendance.model.Departement;
+import com.university.attendance.model.Formation;
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.service.CubePresences.Dimension;
+import com.university.attendance.service.CubePresences.Donnees;
+import com.university.attendance.service.CubePresences.Filtre;
+import com.university.attendance.service.CubePresences.SeanceCube;
+
+/**
+ * Cube des présences : regroupements et filtres comparés à un petit jeu de données connu,
+ * agrandissement des colonnes et de l'index, séance déplacée hors de l'année, rejeu du journal
+ */
+class CubePresencesTest {
+
+    // Lundi de la semaine du 1er septembre 2026 (un mardi)
+    private static final LocalDate ORIGINE = LocalDate.of(2026, 8, 31);
+
+    private static final byte PRESENT = (byte) StatutPresence.PRESENT.ordinal();
+    private static final byte ABSENT = (byte) StatutPresence.ABSENT.ordinal();
+    private static final byte RETARD = (byte) StatutPresence.RETARD.ordinal();
+
+    private static final Filtre SANS_FILTRE = new Filtre(null, null, null, null, null, null, null, null);
+
+    private Donnees donnees;
+
+    /**
+     * Séance 10 : matière 100 (formation 1000, département 1), semaine 0, CM, groupe 7
+     * Séance 11 : matière 101 (formation 1000, département 1), semaine 1, TD_TP, sans groupe
+     * Séance 12 : matière 102 (formation 1001, département 2), semaine 3, CM, groupe 8
+     */
+    @BeforeEach
+    void init() {
+        donnees = new Donnees(ORIGINE);
+        donnees.seance(new SeanceCube(10, 100, 1000, 1, ORIGINE.plusDays(1), TypeSeance.CM, 7L));
+        donnees.seance(new SeanceCube(11, 101, 1000, 1, ORIGINE.plusWeeks(1).plusDays(2), TypeSeance.TD_TP, null));
+        donnees.seance(new SeanceCube(12, 102, 1001, 2, ORIGINE.plusWeeks(3), TypeSeance.CM, 8L));
+
+        donnees.presence(10, 1, PRESENT);
+        donnees.presence(10, 2, ABSENT);
+        donnees.presence(10, 3, RETARD);
+        donnees.presence(11, 1, ABSENT);
+        donnees.presence(11, 2, PRESENT);
+        donnees.presence(12, 3, ABSENT);
+        donnees.presence(12, 1, PRESENT);
+    }
+
+    @Test
+    void regroupementParDepartement() {
+        List<CubePresencesGroupeDTO> groupes = interroger(List.of(Dimension.DEPARTEMENT), SANS_FILTRE);
+
+        assertThat(groupes).extracting(CubePresencesGroupeDTO::getDepartementId).containsExactly(1L, 2L);
+        assertGroupe(groupes.get(0), 2, 2, 1);
+        assertThat(groupes.get(0).getTauxPresence()).isEqualTo(60.0);
+        assertGroupe(groupes.get(1), 1, 1, 0);
+    }
+
+    @Test
+    void cleMixteEtudiantSemaine() {
+        List<CubePresencesGroupeDTO> groupes = interroger(List.of(Dimension.ETUDIANT, Dimension.SEMAINE),
+                SANS_FILTRE);
+
+        // Ordre des clés : étudiant (code d'arrivée) puis semaine
+        assertThat(groupes).extracting(g -> g.getEtudiantId() + "@" + g.getSemaine()).containsExactly(
+                "1@2026-08-31", "1@2026-09-07", "1@2026-09-21",
+                "2@2026-08-31", "2@2026-09-07",
+                "3@2026-08-31", "3@2026-09-21");
+        assertGroupe(groupes.get(1), 0, 1, 0);
+        assertGroupe(groupes.get(5), 0, 0, 1);
+    }
+
+    @Test
+    void groupeEtTypeDeSeance() {
+        List<CubePresencesGroupeDTO> groupes = interroger(List.of(Dimension.GROUPE, Dimension.TYPE_SEANCE),
+                SANS_FILTRE);
+
+        // Séance sans groupe en premier (groupe null)
+        assertThat(groupes).extracting(g -> g.getGroupeId() + "/" + g.getTypeSeance())
+                .containsExactly("null/TD_TP", "7/CM", "8/CM");
+        assertGroupe(groupes.get(0), 1, 1, 0);
+        assertGroupe(groupes.get(1), 1, 1, 1);
+    }
+
+    @Test
+    void filtres() {
+        assertThat(interroger(List.of(), new Filtre(null, null, null, null, 7L, null, null, null)))
+                .singleElement().satisfies(g -> assertGroupe(g, 1, 1, 1));
+        assertThat(interroger(List.of(), new Filtre(null, null, null, null, null, TypeSeance.TD_TP, null, null)))
+                .singleElement().satisfies(g -> assertGroupe(g, 1, 1, 0));
+        assertThat(interroger(List.of(), new Filtre(1L, null, 1001L, null, null, null, null, null)))
+                .singleElement().satisfies(g -> assertGroupe(g, 1, 0, 0));
+        assertThat(interroger(List.of(Dimension.MATIERE), new Filtre(null, null, null, 1L, null, null, null, null)))
+                .extracting(CubePresencesGroupeDTO::getMatiereId).containsExactly(100L, 101L);
+
+        // Identifiant absent du cube : aucune ligne
+        assertThat(interroger(List.of(), new Filtre(99L, null, null, null, null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void filtreDeDatesParSemaine() {
+        // Du mercredi au jeudi de la semaine 1 : toute la semaine 1, semaine restituée décalée depuis l'origine
+        List<CubePresencesGroupeDTO> groupes = interroger(List.of(Dimension.SEMAINE),
+                new Filtre(null, null, null, null, null, null, ORIGINE.plusWeeks(1).plusDays(2),
+                        ORIGINE.plusWeeks(1).plusDays(3)));
+
+        assertThat(groupes).singleElement().satisfies(g -> {
+            assertThat(g.getSemaine()).isEqualTo(LocalDate.of(2026, 9, 7));
+            assertGroupe(g, 1, 1, 0);
+        });
+
+        // Borne de début antérieure à l'origine, borne de fin au milieu de l'année
+        groupes = interroger(List.of(Dimension.SEMAINE),
+                new Filtre(null, null, null, null, null, null, ORIGINE.minusWeeks(5), ORIGINE.plusWeeks(2)));
+        assertThat(groupes).extracting(CubePresencesGroupeDTO::getSemaine)
+                .containsExactly(LocalDate.of(2026, 8, 31), LocalDate.of(2026, 9, 7));
+
+        // Intervalle sans séance
+        assertThat(interroger(List.of(Dimension.SEMAINE),
+                new Filtre(null, null, null, null, null, null, ORIGINE.plusWeeks(10), null))).isEmpty();
+    }
+
+    @Test
+    void statutModifieSansNouvelleLigne() {
+        donnees.presence(10, 2, PRESENT);
+
+        assertThat(donnees.lignes).isEqualTo(7);
+        assertThat(interroger(List.of(), new Filtre(2L, null, null, null, null, null, null, null)))
+                .singleElement().satisfies(g -> assertGroupe(g, 2, 0, 0));
+    }
+
+    @Test
+    void seanceDeplaceeHorsDeLAnnee() {
+        donnees.seance(new SeanceCube(10, 100, 1000, 1, ORIGINE.minusDays(3), TypeSeance.CM, 7L));
+        donnees.presence(10, 4, ABSENT);
+
+        assertThat(interroger(List.of(), SANS_FILTRE)).singleElement().satisfies(g -> assertGroupe(g, 2, 2, 0));
+
+        // Ramenée dans l'année : ses présences sont de nouveau comptées quand elles sont réenregistrées
+        donnees.seance(new SeanceCube(10, 100, 1000, 1, ORIGINE.plusWeeks(2), TypeSeance.CM, 7L));
+        donnees.presence(10, 1, RETARD);
+
+        assertThat(interroger(List.of(Dimension.SEMAINE), new Filtre(null, null, null, null, null, null,
+                ORIGINE.plusWeeks(2), ORIGINE.plusWeeks(2)))).singleElement().satisfies(g -> assertGroupe(g, 0, 0, 1));
+    }
+
+    @Test
+    void agrandissementEtCumulParHachage() {
+        // 1 200 présences (au-delà des 1 024 lignes et de l'index initiaux) sur 12 séances de 100 étudiants
+        Donnees grand = new Donnees(ORIGINE);
+        for (int s = 0; s < 12; s++) {
+            grand.seance(new SeanceCube(200 + s, 300 + s % 3, 400 + s % 3 % 2, 500 + s % 3 % 2,
+                    ORIGINE.plusWeeks(s), s % 2 == 0 ? TypeSeance.CM : TypeSeance.TD_TP, (long) (s % 3)));
+            for (int e = 0; e < 100; e++) {
+                grand.presence(200 + s, 1000 + e, (e + s) % 3 == 0 ? ABSENT : PRESENT);
+            }
+        }
+        // Statuts modifiés après l'agrandissement de l'index : même ligne
+        for (int e = 0; e < 100; e++) {
+            grand.presence(200, 1000 + e, RETARD);
+        }
+        assertThat(grand.lignes).isEqualTo(1200);
+
+        // Toutes les dimensions : 115 200 combinaisons, cumul par hachage
+        List<CubePresencesGroupeDTO> detail = grand.interroger(List.of(Dimension.values()), SANS_FILTRE, 10_000)
+                .getGroupes();
+        assertThat(detail).hasSize(1200);
+
+        // Même total par étudiant qu'avec le cumul dense
+        Map<Long, long[]> parEtudiant = new HashMap<>();
+        for (CubePresencesGroupeDTO g : detail) {
+            long[] cumul = parEtudiant.computeIfAbsent(g.getEtudiantId(), k -> new long[3]);
+            cumul[0] += g.getPresents();
+            cumul[1] += g.getAbsences();
+            cumul[2] += g.getRetards();
+        }
+        List<CubePresencesGroupeDTO> dense = grand.interroger(List.of(Dimension.ETUDIANT), SANS_FILTRE, 10_000)
+                .getGroupes();
+        assertThat(dense).hasSize(100);
+        for (CubePresencesGroupeDTO g : dense) {
+            assertThat(parEtudiant.get(g.getEtudiantId()))
+                    .containsExactly(g.getPresents(), g.getAbsences(), g.getRetards());
+            assertThat(g.getRetards()).isEqualTo(1);
+            assertThat(g.getTotal()).isEqualTo(12);
+        }
+    }
+
+    @Test
+    void evenementsAvantLePremierChargementRejoues() {
+        CubePresences cube = new CubePresences();
+        ReflectionTestUtils.setField(cube, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(cube, "debutAnnee", "--09-01");
+        ReflectionTestUtils.setField(cube, "tailleLot", 1000);
+        ReflectionTestUtils.setField(cube, "maxGroupes", 10_000);
+        cube.ouvrirJournal();
+
+        // Écritures validées avant le chargement (base vide pour le chargement simulé)
+        Departement departement = new Departement();
+        departement.setId(1L);
+        Formation formation = new Formation();
+        formation.setId(1000L);
+        formation.setDepartement(departement);
+        Matiere matiere = new Matiere();
+        matiere.setId(100L);
+        matiere.setFormation(formation);
+        Seance seance = new Seance(matiere, null, TypeSeance.CM, LocalDate.now().atTime(8, 0),
+                LocalDate.now().atTime(10, 0));
+        seance.setId(10L);
+        cube.enregistrerSeance(seance);
+        cube.enregistrerPresences(10L, List.of(1L, 2L), StatutPresence.PRESENT);
+        cube.enregistrerPresence(10L, 3L, StatutPresence.ABSENT);
+
+        cube.initialiser();
+
+        CubePresencesDTO resultat = cube.interroger(List.of("matiere"), null, null, null, null, null, null,
+                null, null);
+        assertThat(resultat.getGroupes()).singleElement().satisfies(g -> {
+            assertThat(g.getMatiereId()).isEqualTo(100L);
+            assertGroupe(g, 2, 1, 0);
+        });
+    }
+
+    private List<CubePresencesGroupeDTO> interroger(List<Dimension> dimensions, Filtre filtre) {
+        return donnees.interroger(dimensions, filtre, 10_000).getGroupes();
+    }
+
+    private static void assertGroupe(CubePresencesGroupeDTO groupe, long presents, long absences, long retards) {
+        assertThat(groupe.getPresents()).as("présents").isEqualTo(presents);
+        assertThat(groupe.getAbsences()).as("absences").isEqualTo(absences);
+        assertThat(groupe.getRetards()).as("retards").isEqualTo(retards);
+        assertThat(groupe.getTotal()).as("total").isEqualTo(presents + absences + retards);
+    }
+}
@@ -0,0 +1,214 @@
+package com.university.attendance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.university.attendance.dto.ValidationPresenceDTO;
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.MatiereRepository;
+import com.university.attendance.repository.SeanceRepository;
+import com.university.attendance.repository.UserRepository;
+
+/**
+ * Aucun pointage acquitté n'est perdu : arrêt d'une séance avec des pointages encore en file,
+ * repli un par un après l'échec d'un lot, remise en file jusqu'à max-essais, présence déjà en base.
+ *
+ * Le test détient le verrou de vidage : le vidage planifié attend, les vidages du test
+ * (et celui de stopSeance) s'exécutent au moment choisi. Un échec d'écriture est provoqué par
+ * une contrainte CHECK ajoutée le temps du test sur un couple (séance, étudiant).
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class PresenceWriteBehindQueueTest {
+
+    @Autowired
+    private PresenceWriteBehindQueue presenceWriteBehindQueue;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private SeanceService seanceService;
+
+    @Autowired
+    private SeanceActiveRegistry seanceActiveRegistry;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ReentrantLock verrouVidage;
+    private int maxEssais;
+
+    private Seance seance;
+    private List<Long> inscrits;
+
+    @BeforeEach
+    void init() {
+        verrouVidage = (ReentrantLock) ReflectionTestUtils.getField(presenceWriteBehindQueue, "verrouVidage");
+        verrouVidage.lock();
+        // Pointages d'autres tests éventuellement restés en file
+        presenceWriteBehindQueue.vider();
+        maxEssais = (int) ReflectionTestUtils.getField(presenceWriteBehindQueue, "maxEssais");
+
+        Matiere matiere = matiereRepository.findByCode("INF101").orElseThrow();
+        User enseignant = userRepository.findByEmail("sophie.martin@university.com").orElseThrow();
+        LocalDateTime debut = LocalDateTime.now().minusMinutes(10);
+        seance = seanceRepository.save(new Seance(matiere, enseignant, TypeSeance.CM, debut, debut.plusHours(2)));
+        seanceService.startSeance(seance.getId());
+        inscrits = seanceActiveRegistry.get(seance.getId()).orElseThrow().getInscrits().toList();
+        assertThat(inscrits).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @AfterEach
+    void terminer() {
+        jdbcTemplate.execute("ALTER TABLE presences DROP CONSTRAINT IF EXISTS test_pointage_bloque");
+        ReflectionTestUtils.setField(presenceWriteBehindQueue, "maxEssais", maxEssais);
+        try {
+            if (seanceActiveRegistry.get(seance.getId()).isPresent()) {
+                seanceService.stopSeance(seance.getId());
+            }
+        } finally {
+            verrouVidage.unlock();
+        }
+    }
+
+    @Test
+    void arretAvecPointagesEnFileAucunPresentCompteAbsent() {
+        pointer(inscrits.get(0));
+        pointer(inscrits.get(1));
+        assertThat(presenceWriteBehindQueue.getTaille()).isEqualTo(2);
+        assertThat(statuts()).isEmpty();
+
+        seanceService.stopSeance(seance.getId());
+
+        Map<Long, StatutPresence> statuts = statuts();
+        assertThat(presenceWriteBehindQueue.getTaille()).isZero();
+        assertThat(statuts).hasSize(inscrits.size());
+        assertThat(statuts).containsEntry(inscrits.get(0), StatutPresence.PRESENT)
+                .containsEntry(inscrits.get(1), StatutPresence.PRESENT);
+        assertThat(statuts.values()).filteredOn(StatutPresence.ABSENT::equals).hasSize(inscrits.size() - 2);
+    }
+
+    @Test
+    void pointageNonEcritFaitEchouerLArret() {
+        Long bloque = inscrits.get(0);
+        Long valide = inscrits.get(1);
+        bloquer(bloque);
+        pointer(bloque);
+        pointer(valide);
+
+        // Lot en échec, repli un par un : le pointage valide est écrit, l'autre reste en file
+        assertThatThrownBy(() -> seanceService.stopSeance(seance.getId()))
+                .hasMessageContaining("veuillez réessayer d'arrêter la séance");
+        assertThat(statuts()).containsOnly(Map.entry(valide, StatutPresence.PRESENT));
+        assertThat(presenceWriteBehindQueue.getTaille()).isEqualTo(1);
+        assertThat(seanceActiveRegistry.isPresent(seance.getId(), bloque)).isTrue();
+
+        // Séance arrêtée : le pointage est remis en file au-delà de max-essais
+        ReflectionTestUtils.setField(presenceWriteBehindQueue, "maxEssais", 1);
+        assertThatThrownBy(() -> seanceService.stopSeance(seance.getId())).isInstanceOf(RuntimeException.class);
+        assertThat(presenceWriteBehindQueue.getTaille()).isEqualTo(1);
+
+        debloquer();
+        seanceService.stopSeance(seance.getId());
+
+        Map<Long, StatutPresence> statuts = statuts();
+        assertThat(statuts).hasSize(inscrits.size());
+        assertThat(statuts).containsEntry(bloque, StatutPresence.PRESENT).containsEntry(valide, StatutPresence.PRESENT);
+        assertThat(statuts.values()).filteredOn(StatutPresence.ABSENT::equals).hasSize(inscrits.size() - 2);
+    }
+
+    @Test
+    void pointageRemisEnFileJusquAMaxEssais() {
+        ReflectionTestUtils.setField(presenceWriteBehindQueue, "maxEssais", 3);
+        Long bloque = inscrits.get(0);
+        bloquer(bloque);
+        pointer(bloque);
+
+        assertThat(presenceWriteBehindQueue.vider()).isZero();
+        assertThat(presenceWriteBehindQueue.vider()).isZero();
+        assertThat(presenceWriteBehindQueue.getTaille()).isEqualTo(1);
+
+        // Troisième échec : abandonné, l'étudiant peut pointer de nouveau
+        assertThat(presenceWriteBehindQueue.vider()).isZero();
+        assertThat(presenceWriteBehindQueue.getTaille()).isZero();
+        assertThat(seanceActiveRegistry.isPresent(seance.getId(), bloque)).isFalse();
+
+        debloquer();
+        assertThat(pointer(bloque).isDejaEnregistree()).isFalse();
+        assertThat(presenceWriteBehindQueue.vider()).isEqualTo(1);
+        assertThat(statuts()).containsOnly(Map.entry(bloque, StatutPresence.PRESENT));
+    }
+
+    @Test
+    void presenceDejaEnBaseNonComptee() {
+        Long saisi = inscrits.get(0);
+        Long nouveau = inscrits.get(1);
+        presenceService.createPresenceManuelle(seance.getId(), saisi, StatutPresence.RETARD);
+
+        // ON CONFLICT DO NOTHING : 0 ligne pour la présence saisie par l'enseignant, qui est conservée
+        presenceWriteBehindQueue.ajouter(seance.getId(), seance.getMatiere().getId(), saisi, LocalDateTime.now());
+        presenceWriteBehindQueue.ajouter(seance.getId(), seance.getMatiere().getId(), nouveau, LocalDateTime.now());
+        assertThat(presenceWriteBehindQueue.vider()).isEqualTo(1);
+
+        assertThat(statuts()).containsOnly(
+                Map.entry(saisi, StatutPresence.RETARD),
+                Map.entry(nouveau, StatutPresence.PRESENT));
+        assertThat(presenceWriteBehindQueue.getTaille()).isZero();
+    }
+
+    private ValidationPresenceDTO pointer(Long etudiantId) {
+        String code = seanceActiveRegistry.get(seance.getId()).orElseThrow().getCode();
+        return presenceService.validateCode(seance.getId(), etudiantId, code);
+    }
+
+    private void bloquer(Long etudiantId) {
+        jdbcTemplate.execute("ALTER TABLE presences ADD CONSTRAINT test_pointage_bloque CHECK (NOT (seance_id = "
+                + seance.getId() + " AND etudiant_id = " + etudiantId + "))");
+    }
+
+    private void debloquer() {
+        jdbcTemplate.execute("ALTER TABLE presences DROP CONSTRAINT test_pointage_bloque");
+    }
+
+    private Map<Long, StatutPresence> statuts() {
+        Map<Long, StatutPresence> statuts = new HashMap<>();
+        jdbcTemplate.query("SELECT etudiant_id, statut FROM presences WHERE seance_id = ?",
+                rs -> {
+                    statuts.put(rs.getLong(1), StatutPresence.valueOf(rs.getString(2)));
+                }, seance.getId());
+        return statuts;
+    }
+}
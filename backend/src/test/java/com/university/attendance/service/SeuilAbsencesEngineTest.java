@@ -0,0 +1,177 @@
+package com.university.attendance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.model.Matiere;
+import com.university.attendance.model.Role;
+import com.university.attendance.model.Seance;
+import com.university.attendance.model.StatutPresence;
+import com.university.attendance.model.TypeSeance;
+import com.university.attendance.model.User;
+import com.university.attendance.repository.MatiereRepository;
+import com.university.attendance.repository.SeanceRepository;
+import com.university.attendance.repository.UserRepository;
+
+/**
+ * Franchissement du seuil d'absences : avertissement automatique émis après la validation de l'absence
+ * qui atteint le seuil (saisie manuelle ou fin de séance), rien pour une transaction annulée,
+ * un seul avertissement par couple (étudiant, matière).
+ *
+ * Chaque test crée sa matière et son étudiant. Le vidage planifié peut écrire la file à tout moment :
+ * les vérifications se font après un vidage explicite, qui attend la fin d'un vidage en cours.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class SeuilAbsencesEngineTest {
+
+    @Autowired
+    private SeuilAbsencesEngine seuilAbsencesEngine;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private SeanceService seanceService;
+
+    @Autowired
+    private AvertissementService avertissementService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatiereRepository matiereRepository;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User enseignant;
+    private Matiere matiere;
+    private Long etudiantId;
+    private int numero;
+
+    @BeforeEach
+    void init() {
+        enseignant = userRepository.findByEmail("sophie.martin@university.com").orElseThrow();
+        Matiere reference = matiereRepository.findByCode("INF101").orElseThrow();
+        matiere = new Matiere("Seuil " + System.nanoTime(), null, reference.getFormation());
+        matiere.setSeuilAbsences(2);
+        matiere = matiereRepository.save(matiere);
+
+        User etudiant = new User();
+        etudiant.setNom("Seuil" + System.nanoTime());
+        etudiant.setPrenom("Test");
+        etudiant.setEmail(etudiant.getNom().toLowerCase() + "@test.university.com");
+        etudiant.setMotDePasse("x");
+        etudiant.setRole(Role.ETUDIANT);
+        etudiant.setActif(true);
+        etudiant.setFormation(reference.getFormation());
+        etudiantId = userService.createUser(etudiant).getId();
+    }
+
+    @Test
+    void avertissementEmisALAbsenceQuiAtteintLeSeuil() {
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).isEmpty();
+
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+
+        // Au-delà du seuil : pas de second avertissement
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    @Test
+    void absencesDeFinDeSeanceComptees() {
+        absence();
+        Seance seance = seance();
+
+        // L'étudiant n'a pas pointé : absence enregistrée à l'arrêt de la séance
+        seanceService.stopSeance(seance.getId());
+        seuilAbsencesEngine.vider();
+
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    @Test
+    void transactionAnnuleeSansEffet() {
+        // Deux absences annulées par un rollback : les variations ne sont jamais appliquées
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            absence();
+            absence();
+            status.setRollbackOnly();
+        });
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).isEmpty();
+
+        // Le compteur en mémoire est resté à zéro : une absence validée ne suffit pas
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).isEmpty();
+
+        absence();
+        seuilAbsencesEngine.vider();
+        assertThat(avertissements()).containsExactly(List.of(2, true));
+    }
+
+    @Test
+    void avertissementManuelBloqueLAutomatique() {
+        avertissementService.createAvertissement(etudiantId, matiere.getId(), 0, "Comportement", enseignant.getId());
+
+        absence();
+        absence();
+        seuilAbsencesEngine.vider();
+
+        assertThat(avertissements()).containsExactly(List.of(0, false));
+    }
+
+    /**
+     * Absence saisie par l'enseignant sur une nouvelle séance en cours de la matière
+     */
+    private void absence() {
+        presenceService.createPresenceManuelle(seance().getId(), etudiantId, StatutPresence.ABSENT);
+    }
+
+    private Seance seance() {
+        LocalDateTime debut = LocalDateTime.now().minusMinutes(10 + ++numero);
+        return seanceRepository.save(new Seance(matiere, enseignant, TypeSeance.CM, debut, debut.plusHours(2)));
+    }
+
+    /**
+     * Avertissements du couple : [nombre d'absences, automatique]
+     */
+    private List<List<Object>> avertissements() {
+        return jdbcTemplate.query(
+                "SELECT nombre_absences, automatique FROM avertissements WHERE etudiant_id = ? AND matiere_id = ?",
+                (rs, i) -> List.<Object>of(rs.getInt(1), rs.getBoolean(2)), etudiantId, matiere.getId());
+    }
+}
@@ -0,0 +1,202 @@
+package com.university.attendance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.university.attendance.dto.TendancePresenceDTO;
+
+/**
+ * Tendances sur une base H2 (mode PostgreSQL) réduite aux colonnes lues : réutilisation des périodes
+ * révolues en cache, invalidation après commit, génération, regroupement par semaine ISO
+ */
+class TendancesPresenceServiceTest {
+
+    // Lundi d'une semaine révolue, et la semaine précédente
+    private static final LocalDate LUNDI = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+            .minusWeeks(3);
+    private static final LocalDate LUNDI_PRECEDENT = LUNDI.minusWeeks(1);
+
+    private TendancesPresenceService service;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate base;
+
+    // Requêtes de comptage passées par le service, et action lancée pendant la prochaine
+    private int requetes;
+    private Runnable pendantLaRequete;
+    private long seances;
+
+    @BeforeEach
+    void init() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:tendances-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+        base = new JdbcTemplate(dataSource);
+        base.execute("CREATE TABLE formations (id BIGINT PRIMARY KEY, departement_id BIGINT NOT NULL)");
+        base.execute("CREATE TABLE matieres (id BIGINT PRIMARY KEY, formation_id BIGINT NOT NULL)");
+        base.execute("CREATE TABLE seances (id BIGINT PRIMARY KEY, matiere_id BIGINT NOT NULL, groupe_id BIGINT, "
+                + "type_seance VARCHAR(255) NOT NULL, date_debut TIMESTAMP(6) NOT NULL)");
+        base.execute("CREATE TABLE presences (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "seance_id BIGINT NOT NULL, statut VARCHAR(255) NOT NULL)");
+        base.update("INSERT INTO formations VALUES (1, 1)");
+        base.update("INSERT INTO matieres VALUES (1, 1)");
+
+        JdbcTemplate compteur = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) throws DataAccessException {
+                requetes++;
+                Runnable action = pendantLaRequete;
+                pendantLaRequete = null;
+                super.query(sql, rch, args);
+                if (action != null) {
+                    action.run();
+                }
+            }
+        };
+
+        service = new TendancesPresenceService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", compteur);
+        ReflectionTestUtils.setField(service, "tailleCache", 1000L);
+        ReflectionTestUtils.setField(service, "maxPeriodes", 400);
+        service.init();
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void periodesRevoluesLuesEnCache() {
+        presence(LUNDI, "PRESENT");
+        presence(LUNDI.plusDays(1), "ABSENT");
+
+        List<TendancePresenceDTO> premier = parJour(LUNDI, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(1);
+        assertThat(premier).hasSize(7);
+        assertThat(premier.get(0).getPresents()).isEqualTo(1);
+        assertThat(premier.get(1).getAbsences()).isEqualTo(1);
+        assertThat(premier.get(2).getTotal()).isZero();
+
+        // Présence ajoutée sans invalidation : les périodes révolues ne sont pas relues
+        presence(LUNDI, "RETARD");
+        List<TendancePresenceDTO> second = parJour(LUNDI, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(1);
+        assertThat(second.get(0).getTotal()).isEqualTo(1);
+
+        // Seules les périodes absentes du cache sont relues, à partir de la première manquante
+        parJour(LUNDI_PRECEDENT, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(2);
+        parJour(LUNDI_PRECEDENT, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(2);
+    }
+
+    @Test
+    void periodeEnCoursToujoursRelue() {
+        LocalDate aujourdhui = LocalDate.now();
+        parJour(aujourdhui.minusDays(2), aujourdhui);
+        parJour(aujourdhui.minusDays(2), aujourdhui);
+
+        assertThat(requetes).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationApresCommitDesPeriodesContenantLaSeance() {
+        presence(LUNDI.plusDays(2), "PRESENT");
+        presence(LUNDI_PRECEDENT, "PRESENT");
+        parJour(LUNDI_PRECEDENT, LUNDI.plusDays(6));
+        parSemaine(LUNDI_PRECEDENT, LUNDI);
+        assertThat(requetes).isEqualTo(2);
+
+        // Annulée par un rollback : rien n'est invalidé
+        transactionTemplate.executeWithoutResult(status -> {
+            service.invalider(LUNDI.plusDays(2).atTime(8, 0));
+            status.setRollbackOnly();
+        });
+        parJour(LUNDI_PRECEDENT, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(2);
+
+        // Validée : le jour et la semaine de la séance sont relus, pas les autres périodes
+        presence(LUNDI_PRECEDENT, "ABSENT");
+        transactionTemplate.executeWithoutResult(status -> {
+            presence(LUNDI.plusDays(2), "ABSENT");
+            service.invalider(LUNDI.plusDays(2).atTime(8, 0));
+            assertThat(parJour(LUNDI.plusDays(2), LUNDI.plusDays(2)).get(0).getTotal()).isEqualTo(1);
+        });
+        assertThat(requetes).isEqualTo(2);
+
+        List<TendancePresenceDTO> jours = parJour(LUNDI_PRECEDENT, LUNDI.plusDays(6));
+        assertThat(requetes).isEqualTo(3);
+        assertThat(jours.get(7 + 2).getTotal()).isEqualTo(2);
+
+        List<TendancePresenceDTO> semaines = parSemaine(LUNDI_PRECEDENT, LUNDI);
+        assertThat(requetes).isEqualTo(4);
+        assertThat(semaines.get(1).getTotal()).isEqualTo(2);
+        // Semaine précédente restée en cache (présence ajoutée sans invalidation)
+        assertThat(semaines.get(0).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void resultatLuAvantUneInvalidationNonMisEnCache() {
+        presence(LUNDI, "PRESENT");
+        pendantLaRequete = () -> {
+            presence(LUNDI, "ABSENT");
+            service.invalider(LUNDI.atTime(8, 0));
+        };
+
+        assertThat(parJour(LUNDI, LUNDI).get(0).getTotal()).isEqualTo(1);
+        assertThat(parJour(LUNDI, LUNDI).get(0).getTotal()).isEqualTo(2);
+        assertThat(requetes).isEqualTo(2);
+
+        parJour(LUNDI, LUNDI);
+        assertThat(requetes).isEqualTo(2);
+    }
+
+    @Test
+    void semainesIsoDuLundiAuDimanche() {
+        // Le dimanche appartient à la semaine ISO du lundi précédent (date_trunc('week') de H2 commence le dimanche)
+        presence(LUNDI.minusDays(1), "ABSENT");
+        presence(LUNDI_PRECEDENT, "PRESENT");
+        presence(LUNDI, "PRESENT");
+        presence(LUNDI.plusDays(6), "RETARD");
+
+        List<TendancePresenceDTO> semaines = parSemaine(LUNDI_PRECEDENT.plusDays(3), LUNDI.plusDays(1));
+
+        assertThat(semaines).extracting(TendancePresenceDTO::getDebut).containsExactly(LUNDI_PRECEDENT, LUNDI);
+        assertThat(semaines).extracting(TendancePresenceDTO::getFin)
+                .containsExactly(LUNDI.minusDays(1), LUNDI.plusDays(6));
+        assertThat(semaines.get(0).getPresents()).isEqualTo(1);
+        assertThat(semaines.get(0).getAbsences()).isEqualTo(1);
+        assertThat(semaines.get(0).getTauxPresence()).isEqualTo(50.0);
+        assertThat(semaines.get(1).getPresents()).isEqualTo(1);
+        assertThat(semaines.get(1).getRetards()).isEqualTo(1);
+        assertThat(semaines.get(1).getTauxAbsence()).isEqualTo(0.0);
+    }
+
+    private List<TendancePresenceDTO> parJour(LocalDate du, LocalDate au) {
+        return service.getTendances("JOUR", du, au, null, null, null, null, null);
+    }
+
+    private List<TendancePresenceDTO> parSemaine(LocalDate du, LocalDate au) {
+        return service.getTendances("SEMAINE", du, au, null, null, null, null, null);
+    }
+
+    /**
+     * Une séance à 8 h ce jour-là avec une présence
+     */
+    private void presence(LocalDate jour, String statut) {
+        long seanceId = ++seances;
+        base.update("INSERT INTO seances (id, matiere_id, type_seance, date_debut) VALUES (?, 1, 'CM', ?)",
+                seanceId, jour.atTime(8, 0));
+        base.update("INSERT INTO presences (seance_id, statut) VALUES (?, ?)", seanceId, statut);
+    }
+}
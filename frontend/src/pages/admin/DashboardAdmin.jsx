@@ -273,18 +273,21 @@ function DashboardAdmin() {
 
   const loadStatistics = async () => {
     try {
-      const usersRes = await userService.getAll();
-      const etudiants = usersRes.data.filter(u => u.role === 'ETUDIANT');
-      const enseignants = usersRes.data.filter(u => u.role === 'ENSEIGNANT');
-      const seancesRes = await seanceService.getAll();
-      const avertsRes = await avertissementService.getAll();
+      // Seuls les totaux sont utiles : pages d'un élément, le serveur renvoie totalElements
+      const [usersRes, etudiantsRes, enseignantsRes, seancesRes, avertsRes] = await Promise.all([
+        userService.getPage({ size: 1 }),
+        userService.getPage({ size: 1, role: 'ETUDIANT' }),
+        userService.getPage({ size: 1, role: 'ENSEIGNANT' }),
+        seanceService.getPage({ size: 1 }),
+        avertissementService.getPage({ size: 1 })
+      ]);
 
       setStatistics({
-        totalUsers: usersRes.data.length,
-        totalEtudiants: etudiants.length,
-        totalEnseignants: enseignants.length,
-        totalSeances: seancesRes.data.length,
-        totalAvertissements: avertsRes.data.length
+        totalUsers: usersRes.data.totalElements,
+        totalEtudiants: etudiantsRes.data.totalElements,
+        totalEnseignants: enseignantsRes.data.totalElements,
+        totalSeances: seancesRes.data.totalElements,
+        totalAvertissements: avertsRes.data.totalElements
       });
     } catch (error) {
       console.error('Erreur chargement statistiques:', error);
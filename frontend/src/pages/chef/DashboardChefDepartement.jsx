@@ -21,6 +21,7 @@ function DashboardChefDepartement() {
   const [avertissements, setAvertissements] = useState([]);
   const [etudiants, setEtudiants] = useState([]);
   const [formations, setFormations] = useState([]);
+  const [statistiques, setStatistiques] = useState(null);
   const [selectedFormation, setSelectedFormation] = useState('all');
   const [selectedEtudiant, setSelectedEtudiant] = useState(null);
   const [etudiantDetails, setEtudiantDetails] = useState(null);
@@ -127,6 +128,12 @@ function DashboardChefDepartement() {
     }
   }, [selectedFormation]);
 
+  useEffect(() => {
+    if (user && activeView === 'statistiques') {
+      loadStatistiques();
+    }
+  }, [activeView]);
+
   const loadTraitements = async () => {
     try {
       const response = await justificatifService.getTraitesByValidateur(user.id);
@@ -165,6 +172,15 @@ function DashboardChefDepartement() {
     }
   };
 
+  const loadStatistiques = async () => {
+    try {
+      const response = await chefDepartementService.getStatistiques(user.id);
+      setStatistiques(response.data);
+    } catch (error) {
+      console.error('Erreur chargement statistiques:', error);
+    }
+  };
+
   const loadEtudiants = async () => {
     try {
       if (selectedFormation === 'all') {
@@ -495,7 +511,53 @@ function DashboardChefDepartement() {
             <p>Avertissements Total</p>
           </div>
         </div>
+        {statistiques && (
+          <div className="stat-card">
+            <div className="stat-icon"><MdBarChart /></div>
+            <div className="stat-content">
+              <h3>{statistiques.departement.tauxPresence}%</h3>
+              <p>Taux de Présence</p>
+            </div>
+          </div>
+        )}
       </div>
+
+      {statistiques && statistiques.formations.length > 0 && (
+        <div className="etudiants-table statistiques-formations">
+          <table>
+            <thead>
+              <tr>
+                <th>Formation</th>
+                <th>Étudiants</th>
+                <th>Présences</th>
+                <th>Retards</th>
+                <th>Absences</th>
+                <th>Justifiées</th>
+                <th>Taux Présence</th>
+              </tr>
+            </thead>
+            <tbody>
+              {statistiques.formations.map((formation) => (
+                <tr key={formation.id}>
+                  <td>{formation.nom}</td>
+                  <td>{formation.etudiants}</td>
+                  <td>{formation.presents}</td>
+                  <td>{formation.retards}</td>
+                  <td>{formation.absences}</td>
+                  <td>{formation.absencesJustifiees}</td>
+                  <td>{formation.tauxPresence}%</td>
+                </tr>
+              ))}
+            </tbody>
+          </table>
+        </div>
+      )}
+
+      {statistiques?.donneesAu && (
+        <p className="donnees-au">
+          Données au {new Date(statistiques.donneesAu).toLocaleString('fr-FR')}
+        </p>
+      )}
     </div>
   );
 
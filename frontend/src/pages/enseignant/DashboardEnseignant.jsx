@@ -7,6 +7,44 @@ import { MdCalendarToday, MdCheckCircle, MdPeople, MdFilterList } from 'react-ic
 import { seanceService, presenceService } from '../../services/api';
 import './DashboardEnseignant.css';
 
+// Ouvre un flux SSE de séance et le rouvre avec un nouveau jeton si le serveur le refuse
+// (jeton de flux expiré lors d'une reconnexion). Retourne la fonction de fermeture.
+const abonnerFlux = (ouvrir, ecouter) => {
+  let source = null;
+  let termine = false;
+  let relance = null;
+
+  const connecter = async () => {
+    try {
+      source = await ouvrir();
+    } catch (error) {
+      relance = setTimeout(connecter, 5000);
+      return;
+    }
+    if (termine) {
+      source.close();
+      return;
+    }
+    ecouter(source);
+    source.addEventListener('fin', () => {
+      termine = true;
+      source.close();
+    });
+    source.onerror = () => {
+      if (source.readyState === EventSource.CLOSED && !termine) {
+        relance = setTimeout(connecter, 3000);
+      }
+    };
+  };
+  connecter();
+
+  return () => {
+    termine = true;
+    clearTimeout(relance);
+    if (source) source.close();
+  };
+};
+
 function DashboardEnseignant() {
   const { user } = useAuth();
   const [activeView, setActiveView] = useState('seances');
@@ -15,6 +53,8 @@ function DashboardEnseignant() {
   const [currentCode, setCurrentCode] = useState(null);
   const [codeExpiration, setCodeExpiration] = useState(null);
   const [countdown, setCountdown] = useState(30);
+  const [pointagesLive, setPointagesLive] = useState({});
+  const [nombreInscritsLive, setNombreInscritsLive] = useState(0);
   const [loading, setLoading] = useState(false);
   const [message, setMessage] = useState({ type: '', text: '' });
   const [presences, setPresences] = useState([]);
@@ -41,7 +81,7 @@ function DashboardEnseignant() {
       }
 
       // Filtre par matière
-      if (filterMatiere !== 'TOUS' && seance.matiere?.id !== parseInt(filterMatiere)) {
+      if (filterMatiere !== 'TOUS' && seance.matiereId !== parseInt(filterMatiere)) {
         return false;
       }
 
@@ -72,8 +112,8 @@ function DashboardEnseignant() {
   // Liste unique des matières pour le filtre
   const matieresList = useMemo(() => {
     const matieres = mesSeances
-      .map(s => s.matiere)
-      .filter(m => m != null);
+      .map(s => ({ id: s.matiereId, nom: s.matiereNom }))
+      .filter(m => m.id != null);
 
     // Dédupliquer par ID
     const uniqueMatieres = [];
@@ -139,23 +179,65 @@ function DashboardEnseignant() {
     }
   }, [message]);
 
+  // Les nouveaux codes sont poussés par le serveur (rotation côté serveur)
   useEffect(() => {
-    let interval;
-    if (seanceActive && currentCode) {
-      interval = setInterval(() => {
-        const now = new Date().getTime();
-        const expiration = new Date(codeExpiration).getTime();
-        const remaining = Math.max(0, Math.floor((expiration - now) / 1000));
+    if (!seanceActive) return;
 
-        setCountdown(remaining);
+    return abonnerFlux(() => seanceService.streamCode(seanceActive), (source) => {
+      source.addEventListener('code', (event) => {
+        const data = JSON.parse(event.data);
+        setCurrentCode(data.code);
+        setCodeExpiration(data.expiration);
+      });
+    });
+  }, [seanceActive]);
 
-        if (remaining === 0) {
-          renewCode();
-        }
-      }, 1000);
-    }
+  // Pointages en direct : instantané à la connexion (et à chaque reconnexion), puis un événement par pointage
+  useEffect(() => {
+    if (!seanceActive) return;
+
+    const fermer = abonnerFlux(() => presenceService.streamBySeance(seanceActive), (source) => {
+      source.addEventListener('instantane', (event) => {
+        const data = JSON.parse(event.data);
+        const pointages = {};
+        data.presences.forEach(p => { pointages[p.etudiantId] = p; });
+        setPointagesLive(pointages);
+        setNombreInscritsLive(data.inscrits);
+      });
+      source.addEventListener('presence', (event) => {
+        const pointage = JSON.parse(event.data);
+        setPointagesLive(prev => {
+          const next = { ...prev };
+          if (pointage.statut) {
+            next[pointage.etudiantId] = pointage;
+          } else {
+            delete next[pointage.etudiantId];
+          }
+          return next;
+        });
+      });
+    });
+
+    return () => {
+      fermer();
+      setPointagesLive({});
+    };
+  }, [seanceActive]);
+
+  // Compte à rebours affiché jusqu'au prochain code
+  useEffect(() => {
+    if (!seanceActive || !codeExpiration) return;
+
+    const updateCountdown = () => {
+      const now = new Date().getTime();
+      const expiration = new Date(codeExpiration).getTime();
+      setCountdown(Math.max(0, Math.floor((expiration - now) / 1000)));
+    };
+    updateCountdown();
+
+    const interval = setInterval(updateCountdown, 1000);
     return () => clearInterval(interval);
-  }, [seanceActive, currentCode, codeExpiration]);
+  }, [seanceActive, codeExpiration]);
 
   const loadSeances = async () => {
     try {
@@ -215,18 +297,6 @@ function DashboardEnseignant() {
     }
   };
 
-  const renewCode = async () => {
-    if (!seanceActive) return;
-
-    try {
-      const response = await seanceService.renewCode(seanceActive);
-      setCurrentCode(response.data.code);
-      setCodeExpiration(response.data.expiration);
-    } catch (error) {
-      console.error('Erreur renouvellement code:', error);
-    }
-  };
-
   const viewPresences = async (seanceId) => {
     try {
       const response = await presenceService.getBySeance(seanceId);
@@ -375,6 +445,21 @@ function DashboardEnseignant() {
               <div className="timer-bar" style={{ width: `${(countdown / 30) * 100}%` }}></div>
               <span className="timer-text">Expire dans {countdown}s</span>
             </div>
+            <div className="live-pointages">
+              <span className="live-pointages-count">
+                Présents : {Object.values(pointagesLive).filter(p => p.statut !== 'ABSENT').length} / {nombreInscritsLive}
+              </span>
+              <ul className="live-pointages-list">
+                {Object.values(pointagesLive)
+                  .sort((a, b) => new Date(b.heure || 0) - new Date(a.heure || 0))
+                  .map(p => (
+                    <li key={p.etudiantId}>
+                      {p.nomComplet} — {p.statut}
+                      {p.heure && ` (${new Date(p.heure).toLocaleTimeString('fr-FR')})`}
+                    </li>
+                  ))}
+              </ul>
+            </div>
             <button
               className="btn btn-danger"
               onClick={() => stopSeance(seanceActive)}
@@ -397,7 +482,7 @@ function DashboardEnseignant() {
             {seancesPagination.paginatedItems.map((seance) => (
               <div key={seance.id} className="seance-card">
                 <div className="seance-header">
-                  <h3>{seance.matiere?.nom}</h3>
+                  <h3>{seance.matiereNom}</h3>
                   <div className="seance-badges">
                     <span className={`badge ${
                       seance.statut === 'PREVUE' ? 'badge-info' :
@@ -419,7 +504,7 @@ function DashboardEnseignant() {
                   <p><strong>Date:</strong> {new Date(seance.dateDebut).toLocaleString('fr-FR')}</p>
                   <p><strong>Durée:</strong> {new Date(seance.dateDebut).toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit' })} - {new Date(seance.dateFin).toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit' })}</p>
                   <p><strong>Salle:</strong> {seance.salle}</p>
-                  {seance.groupe && <p><strong>Groupe:</strong> {seance.groupe.nom}</p>}
+                  {seance.groupeNom && <p><strong>Groupe:</strong> {seance.groupeNom}</p>}
                 </div>
                 <div className="seance-actions">
                   {(seance.statut === 'PREVUE' || seance.statut === 'REPORTEE') && (
@@ -490,10 +575,10 @@ function DashboardEnseignant() {
 
       {selectedSeanceForPresences && (
         <div className="seance-info-card">
-          <h3>{selectedSeanceForPresences.matiere?.nom}</h3>
+          <h3>{selectedSeanceForPresences.matiereNom}</h3>
           <p><strong>Date:</strong> {new Date(selectedSeanceForPresences.dateDebut).toLocaleString('fr-FR')}</p>
           <p><strong>Salle:</strong> {selectedSeanceForPresences.salle}</p>
-          {selectedSeanceForPresences.groupe && <p><strong>Groupe:</strong> {selectedSeanceForPresences.groupe.nom}</p>}
+          {selectedSeanceForPresences.groupeNom && <p><strong>Groupe:</strong> {selectedSeanceForPresences.groupeNom}</p>}
         </div>
       )}
 
@@ -527,9 +612,9 @@ function DashboardEnseignant() {
               {presences.map((presence) => (
                 <tr key={presence.id}>
                   <td>
-                    <strong>{presence.etudiant?.nom} {presence.etudiant?.prenom}</strong>
+                    <strong>{presence.etudiantNom} {presence.etudiantPrenom}</strong>
                   </td>
-                  <td>{presence.etudiant?.numeroEtudiant}</td>
+                  <td>{presence.numeroEtudiant}</td>
                   <td>
                     <div className="presence-row">
                       <select
@@ -601,13 +686,13 @@ function DashboardEnseignant() {
 
       {selectedSeanceForEtudiants && (
         <div className="seance-info-card">
-          <h3>{selectedSeanceForEtudiants.matiere?.nom}</h3>
+          <h3>{selectedSeanceForEtudiants.matiereNom}</h3>
           <div className="seance-info-details">
             <p><strong>Type:</strong> {selectedSeanceForEtudiants.typeSeance}</p>
             <p><strong>Date:</strong> {new Date(selectedSeanceForEtudiants.dateDebut).toLocaleString('fr-FR')}</p>
             <p><strong>Salle:</strong> {selectedSeanceForEtudiants.salle}</p>
-            {selectedSeanceForEtudiants.groupe && (
-              <p><strong>Groupe:</strong> {selectedSeanceForEtudiants.groupe.nom}</p>
+            {selectedSeanceForEtudiants.groupeNom && (
+              <p><strong>Groupe:</strong> {selectedSeanceForEtudiants.groupeNom}</p>
             )}
           </div>
         </div>
@@ -12,7 +12,7 @@ import {
   MdAccessTime,
   MdVideoCall
 } from 'react-icons/md';
-import { presenceService, justificatifService, groupeEtudiantService, seanceService } from '../../services/api';
+import { presenceService, justificatifService, seanceService } from '../../services/api';
 import './DashboardEtudiant.css';
 
 function DashboardEtudiant() {
@@ -22,7 +22,8 @@ function DashboardEtudiant() {
   const [mesAbsences, setMesAbsences] = useState([]);
   const [mesJustificatifs, setMesJustificatifs] = useState([]);
   const [mesSeances, setMesSeances] = useState([]);
-  const [seancesPresences, setSeancesPresences] = useState({});
+  const [seancesPage, setSeancesPage] = useState(1);
+  const [seancesTotalPages, setSeancesTotalPages] = useState(0);
   const [seanceCode, setSeanceCode] = useState('');
   const [seanceId, setSeanceId] = useState('');
   const [loading, setLoading] = useState(false);
@@ -34,7 +35,6 @@ function DashboardEtudiant() {
   // Pagination
   const absencesPagination = usePagination(mesAbsences, 5);
   const justificatifsPagination = usePagination(mesJustificatifs, 5);
-  const seancesPagination = usePagination(mesSeances, 5);
 
   // Utilise le vrai nom du fichier stocké côté backend
   const justificatifNom = (justif) => {
@@ -79,10 +79,15 @@ function DashboardEtudiant() {
       loadStatistics();
       loadAbsences();
       loadJustificatifs();
-      loadSeancesEtudiant();
     }
   }, [user]);
 
+  useEffect(() => {
+    if (user) {
+      loadSeancesEtudiant(seancesPage);
+    }
+  }, [user, seancesPage]);
+
   useEffect(() => {
     if (validateMessage.text) {
       const timer = setTimeout(() => {
@@ -129,58 +134,12 @@ function DashboardEtudiant() {
     }
   };
 
-  const loadSeancesEtudiant = async () => {
+  // Séances de l'étudiant (CM de sa formation, TD/TP de ses groupes) avec son statut, page par page
+  const loadSeancesEtudiant = async (page) => {
     try {
-      // Récupérer les groupes de l'étudiant
-      const groupesResponse = await groupeEtudiantService.getGroupesEtudiant(user.id);
-      const groupes = groupesResponse.data.map(ge => ge.groupe).filter(Boolean);
-      
-      if (groupes.length === 0) {
-        setMesSeances([]);
-        return;
-      }
-
-      // Récupérer TOUTES les seances
-      const toutesSeancesResponse = await seanceService.getAll();
-      
-      // Filtrer les seances
-      // Les seances peuvent être :
-      // 1. Liées à un groupe TD/TP de l'étudiant
-      // 2. Des CM (groupe=null) de la matière
-      const seances = toutesSeancesResponse.data.filter(seance => {
-        // Cas 1 : La seance est liée au groupe de l'étudiant
-        if (seance.groupe && groupes.some(g => g.id === seance.groupe.id)) {
-          return true;
-        }
-        
-        // Cas 2 : La seance est un CM
-        if (!seance.groupe && seance.matiere) {
-          return true;
-        }
-        
-        return false;
-      });
-
-      // Récupérer les présences pour toutes les seances
-      // C'est grâce aux présences qu'on va filtrer les vraies seances de l'étudiant
-      const presencesMap = {};
-      const seancesAvecPresence = [];
-      
-      for (const seance of seances) {
-        try {
-          const presencesResponse = await presenceService.getBySeance(seance.id);
-          const etudiantPresence = presencesResponse.data.find(p => p.etudiant?.id === user.id);
-          if (etudiantPresence) {
-            presencesMap[seance.id] = etudiantPresence;
-            seancesAvecPresence.push(seance);
-          }
-        } catch (error) {
-          console.error(`Erreur chargement presences seance ${seance.id}:`, error);
-        }
-      }
-
-      setMesSeances(seancesAvecPresence);
-      setSeancesPresences(presencesMap);
+      const response = await seanceService.getByEtudiant(user.id, page - 1, 5);
+      setMesSeances(response.data.content);
+      setSeancesTotalPages(response.data.totalPages);
     } catch (error) {
       console.error('Erreur chargement seances etudiant:', error);
     }
@@ -193,12 +152,13 @@ function DashboardEtudiant() {
 
     try {
       // Appel correct : (seanceId, code, userId)
-      await presenceService.validateCode(
+      const response = await presenceService.validateCode(
         parseInt(seanceId),
         seanceCode.toUpperCase(),
         user.id
       );
-      setValidateMessage({ type: 'success', text: 'Présence validée avec succès!' });
+      // Un second envoi est acquitté par « Présence déjà enregistrée »
+      setValidateMessage({ type: 'success', text: response.data?.message || 'Présence validée avec succès!' });
       setSeanceCode('');
       setSeanceId('');
       loadStatistics();
@@ -586,21 +546,20 @@ function DashboardEtudiant() {
       {mesSeances.length > 0 ? (
         <>
           <div className="seances-list">
-            {seancesPagination.paginatedItems.map((seance) => {
-              const presence = seancesPresences[seance.id];
+            {mesSeances.map((seance) => {
               const dateDebut = new Date(seance.dateDebut);
               const dateFin = new Date(seance.dateFin);
               
               return (
-                <div key={seance.id} className="seance-presence-card">
+                <div key={seance.seanceId} className="seance-presence-card">
                   <div className="seance-header">
                     <div className="seance-info">
-                      <h3>{seance.matiere?.nom}</h3>
-                      <p className="seance-code">Code: {seance.matiere?.code}</p>
+                      <h3>{seance.matiereNom}</h3>
+                      <p className="seance-code">Code: {seance.matiereCode}</p>
                     </div>
-                    {presence && (
-                      <span className={`badge ${getPresenceStatutClass(presence.statut)}`}>
-                        {presence.statut}
+                    {seance.statutPresence && (
+                      <span className={`badge ${getPresenceStatutClass(seance.statutPresence)}`}>
+                        {seance.statutPresence}
                       </span>
                     )}
                   </div>
@@ -613,29 +572,29 @@ function DashboardEtudiant() {
                       <strong>Horaire:</strong> {dateDebut.toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit' })} - {dateFin.toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit' })}
                     </div>
                     <div className="detail-item">
-                      <strong>Type:</strong> <span className={`badge ${seance.matiere?.typeSeance === 'CM' ? 'badge-info' : 'badge-warning'}`}>
-                        {seance.matiere?.typeSeance === 'CM' ? 'Cours Magistral' : 'TD/TP'}
+                      <strong>Type:</strong> <span className={`badge ${seance.typeSeance === 'CM' ? 'badge-info' : 'badge-warning'}`}>
+                        {seance.typeSeance === 'CM' ? 'Cours Magistral' : 'TD/TP'}
                       </span>
                     </div>
                     <div className="detail-item">
-                      <strong>Enseignant:</strong> {seance.enseignant?.prenom} {seance.enseignant?.nom}
+                      <strong>Enseignant:</strong> {seance.enseignantPrenom} {seance.enseignantNom}
                     </div>
                     <div className="detail-item">
                       <strong>Salle:</strong> {seance.salle}
                     </div>
-                    {seance.groupe && (
+                    {seance.groupeNom && (
                       <div className="detail-item">
-                        <strong>Groupe:</strong> {seance.groupe?.nom}
+                        <strong>Groupe:</strong> {seance.groupeNom}
                       </div>
                     )}
-                    {presence?.commentaire && (
+                    {seance.commentaire && (
                       <div className="detail-item">
-                        <strong>Commentaire:</strong> {presence.commentaire}
+                        <strong>Commentaire:</strong> {seance.commentaire}
                       </div>
                     )}
                   </div>
                   
-                  {!presence && (
+                  {!seance.statutPresence && (
                     <div className="no-presence-info">
                       <p>Aucune donnée de présence enregistrée</p>
                     </div>
@@ -645,18 +604,16 @@ function DashboardEtudiant() {
             })}
           </div>
           
-          {mesSeances.length > 5 && (
-            <Pagination
-              currentPage={seancesPagination.currentPage}
-              totalPages={seancesPagination.totalPages}
-              onPageChange={seancesPagination.goToPage}
-              hasNextPage={seancesPagination.hasNextPage}
-              hasPreviousPage={seancesPagination.hasPreviousPage}
-            />
-          )}
+          <Pagination
+            currentPage={seancesPage}
+            totalPages={seancesTotalPages}
+            onPageChange={(page) => setSeancesPage(Math.max(1, Math.min(page, seancesTotalPages)))}
+            hasNextPage={seancesPage < seancesTotalPages}
+            hasPreviousPage={seancesPage > 1}
+          />
         </>
       ) : (
-        <p className="no-data">Aucune séance trouvée. Vous n'êtes inscrit à aucun groupe.</p>
+        <p className="no-data">Aucune séance trouvée pour vos inscriptions.</p>
       )}
     </div>
   );
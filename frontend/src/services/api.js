@@ -44,6 +44,8 @@ export const authService = {
 // ==================== UTILISATEURS ====================
 export const userService = {
   getAll: () => api.get('/users'),
+  // Page filtrée : { page, size, role, actif, formationId, departementId, recherche, sort, direction }
+  getPage: (params) => api.get('/users', { params: { page: 0, size: 20, ...params } }),
   getById: (id) => api.get(`/users/${id}`),
   getByEmail: (email) => api.get(`/users/email/${email}`),
   getByRole: (role) => api.get(`/users/role/${role}`),
@@ -65,19 +67,34 @@ export const userService = {
   deactivate: (id) => api.put(`/users/${id}/deactivate`)
 };
 
+// EventSource ne transmet pas d'en-tête Authorization : un jeton de flux de courte durée,
+// limité à la séance, est demandé avec le token de connexion puis passé dans l'URL du flux
+const ouvrirFluxSeance = async (seanceId, chemin) => {
+  const { data } = await api.post(`/seances/${seanceId}/jeton-flux`);
+  return new EventSource(`${api.defaults.baseURL}${chemin}?jeton=${encodeURIComponent(data.jeton)}`);
+};
+
 // ==================== SÉANCES ====================
 export const seanceService = {
   getAll: () => api.get('/seances'),
+  // Page filtrée : { page, size, debut, fin, statut, formationId, enseignantId, sort, direction }
+  getPage: (params) => api.get('/seances', { params: { page: 0, size: 20, ...params } }),
   getById: (id) => api.get(`/seances/${id}`),
   getByEnseignant: (enseignantId) => api.get(`/seances/enseignant/${enseignantId}`),
   getUpcoming: (enseignantId) => api.get(`/seances/enseignant/${enseignantId}/upcoming`),
   getByGroupe: (groupeId) => api.get(`/seances/groupe/${groupeId}`),
+  getByEtudiant: (etudiantId, page = 0, size = 10) =>
+    api.get(`/seances/etudiant/${etudiantId}?page=${page}&size=${size}`),
   create: (seance) => api.post('/seances', seance),
   update: (id, seance) => api.put(`/seances/${id}`, seance),
   start: (id) => api.post(`/seances/${id}/start`),
   stop: (id) => api.post(`/seances/${id}/stop`),
   renewCode: (id) => api.post(`/seances/${id}/renew-code`),
   getCurrentCode: (id) => api.get(`/seances/${id}/code`),
+  // Jeton de courte durée, limité à la séance, pour ouvrir ses flux SSE
+  getJetonFlux: (id) => api.post(`/seances/${id}/jeton-flux`),
+  // Flux SSE des codes (Promise d'un EventSource)
+  streamCode: (id) => ouvrirFluxSeance(id, `/seances/${id}/code/stream`),
   cancel: (id) => api.put(`/seances/${id}/cancel`),
   delete: (id) => api.delete(`/seances/${id}`),
   getEtudiantsInscrits: (id) => api.get(`/seances/${id}/etudiants`),
@@ -95,7 +112,16 @@ export const presenceService = {
   update: (id, statut, commentaire) =>
     api.put(`/presences/${id}?statut=${statut}${commentaire ? '&commentaire=' + commentaire : ''}`),
   getByEtudiant: (etudiantId) => api.get(`/presences/etudiant/${etudiantId}`),
+  // Page filtrée : { page, size, statut, matiereId, debut, fin, sort, direction }
+  getPageByEtudiant: (etudiantId, params) =>
+    api.get(`/presences/etudiant/${etudiantId}`, { params: { page: 0, size: 20, ...params } }),
   getBySeance: (seanceId) => api.get(`/presences/seance/${seanceId}`),
+  // Tendance par période : { granularite: 'JOUR' | 'SEMAINE', du, au, departementId, formationId, matiereId, groupeId, typeSeance }
+  getTendances: (params) => api.get('/presences/tendances', { params }),
+  // Cube de l'année : { regrouperPar: 'matiere,semaine', etudiantId, matiereId, formationId, departementId, groupeId, typeSeance, du, au }
+  getCube: (params) => api.get('/presences/cube', { params }),
+  // Flux SSE des pointages d'une séance active (Promise d'un EventSource, comme pour les codes)
+  streamBySeance: (seanceId) => ouvrirFluxSeance(seanceId, `/presences/seance/${seanceId}/stream`),
   getStatistiques: (etudiantId) => api.get(`/presences/statistiques/${etudiantId}`),
   countAbsences: (etudiantId, matiereId) =>
     api.get(`/presences/absences/count?etudiantId=${etudiantId}&matiereId=${matiereId}`),
@@ -105,6 +131,8 @@ export const presenceService = {
 // ==================== JUSTIFICATIFS ====================
 export const justificatifService = {
   getAll: () => api.get('/justificatifs'),
+  // Page filtrée : { page, size, statut, etudiantId, formationId, debut, fin, sort, direction }
+  getPage: (params) => api.get('/justificatifs', { params: { page: 0, size: 20, ...params } }),
   getById: (id) => api.get(`/justificatifs/${id}`),
   getByEtudiant: (etudiantId) => api.get(`/justificatifs/etudiant/${etudiantId}`),
   getEnAttente: () => api.get('/justificatifs/en-attente'),
@@ -129,6 +157,8 @@ export const justificatifService = {
 // ==================== AVERTISSEMENTS ====================
 export const avertissementService = {
   getAll: () => api.get('/avertissements'),
+  // Page filtrée : { page, size, etudiantId, matiereId, formationId, automatique, debut, fin, sort, direction }
+  getPage: (params) => api.get('/avertissements', { params: { page: 0, size: 20, ...params } }),
   getById: (id) => api.get(`/avertissements/${id}`),
   getByEtudiant: (etudiantId) => api.get(`/avertissements/etudiant/${etudiantId}`),
   getByMatiere: (matiereId) => api.get(`/avertissements/matiere/${matiereId}`),
@@ -214,7 +244,8 @@ export const groupeEtudiantService = {
 export const chefDepartementService = {
   getEtudiantsDuDepartement: (chefId) => api.get(`/chef-departement/${chefId}/etudiants`),
   getEtudiantsByFormation: (chefId, formationId) => api.get(`/chef-departement/${chefId}/etudiants/formation/${formationId}`),
-  getEtudiantDetails: (chefId, etudiantId) => api.get(`/chef-departement/${chefId}/etudiant/${etudiantId}`)
+  getEtudiantDetails: (chefId, etudiantId) => api.get(`/chef-departement/${chefId}/etudiant/${etudiantId}`),
+  getStatistiques: (chefId) => api.get(`/chef-departement/${chefId}/statistiques`)
 };
 
 export default api;